@@ -3,54 +3,94 @@ package com.habitsystem.gateway.filter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.habitsystem.gateway.model.ErrorResponse;
+import com.habitsystem.gateway.security.JwtVerifier;
+import com.habitsystem.gateway.security.TrustedHeaders;
+import com.habitsystem.gateway.security.VerifiedToken;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 @Component
 public class AuthenticationGatewayFilterFactory extends AbstractGatewayFilterFactory<AuthenticationGatewayFilterFactory.Config> {
     
+    // Same endpoints auth-service permits without a token
     private static final String[] PUBLIC_PATHS = {
-        "/api/auth/register",
-        "/api/auth/login"
+        "/api/v1/auth/register",
+        "/api/v1/auth/login",
+        "/api/v1/auth/verify",
+        "/api/v1/auth/refresh"
     };
 
     private final ObjectMapper objectMapper;
+    private final JwtVerifier jwtVerifier;
+    private final String gatewaySecret;
 
-    public AuthenticationGatewayFilterFactory(ObjectMapper objectMapper) {
+    public AuthenticationGatewayFilterFactory(ObjectMapper objectMapper,
+                                              JwtVerifier jwtVerifier,
+                                              @Value("${gateway.security.trusted-headers.shared-secret:}") String gatewaySecret) {
         super(Config.class);
         this.objectMapper = objectMapper;
+        this.jwtVerifier = jwtVerifier;
+        this.gatewaySecret = gatewaySecret;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            String path = exchange.getRequest().getPath().value();
+            // Identity headers are only ever set by this filter, never taken from the client
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> {
+                        headers.remove(TrustedHeaders.USER_ID);
+                        headers.remove(TrustedHeaders.USERNAME);
+                        headers.remove(TrustedHeaders.GATEWAY_AUTH);
+                    })
+                    .build();
+            String path = request.getPath().value();
             
             // Skip authentication for public endpoints
             for (String publicPath : PUBLIC_PATHS) {
                 if (path.equals(publicPath)) {
-                    return chain.filter(exchange);
+                    return chain.filter(exchange.mutate().request(request).build());
                 }
             }
 
-            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return handleUnauthorized(exchange);
+                return handleUnauthorized(exchange, "Missing or invalid Authorization header");
+            }
+
+            Optional<VerifiedToken> token = jwtVerifier.verify(authHeader.substring(7).trim());
+            if (token.isEmpty()) {
+                return handleUnauthorized(exchange, "Invalid or expired token");
             }
 
-            return chain.filter(exchange);
+            ServerHttpRequest trusted = request.mutate()
+                    .headers(headers -> {
+                        headers.set(TrustedHeaders.USER_ID, token.get().userId());
+                        if (token.get().username() != null) {
+                            headers.set(TrustedHeaders.USERNAME, token.get().username());
+                        }
+                        if (!gatewaySecret.isEmpty()) {
+                            headers.set(TrustedHeaders.GATEWAY_AUTH, gatewaySecret);
+                        }
+                    })
+                    .build();
+            return chain.filter(exchange.mutate().request(trusted).build());
         };
     }
 
-    private Mono<Void> handleUnauthorized(ServerWebExchange exchange) {
+    private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(HttpStatus.UNAUTHORIZED);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
@@ -58,7 +98,7 @@ public class AuthenticationGatewayFilterFactory extends AbstractGatewayFilterFac
         ErrorResponse errorResponse = new ErrorResponse(
             HttpStatus.UNAUTHORIZED.value(),
             "Unauthorized",
-            "Missing or invalid Authorization header"
+            message
         );
 
         try {
@@ -0,0 +1,113 @@
+package com.habitsystem.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies HS256 access tokens issued by auth-service. Verification is pure CPU work (one HMAC
+ * over a few hundred bytes) with no I/O, so it runs inline on the Netty event loop. Verified
+ * tokens are cached by their SHA-256 digest until they expire, so repeat requests with the same
+ * token skip the HMAC and claim parsing entirely. Rejected tokens are not cached, so forged
+ * tokens cannot push valid ones out.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtVerifier(@Value("${gateway.security.jwt.secret}") String secret,
+                       @Value("${gateway.security.jwt.cache.maximum-size:100000}") long maximumSize) {
+        // Same key derivation as auth-service's JwtService; built once, the parser is thread-safe
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return nanosUntil(token.expiresAt());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return nanosUntil(token.expiresAt());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * The identity in the token, or empty if it is malformed, wrongly signed, expired or not an
+     * access token.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String userId = claims.get("userId", String.class);
+            if (userId == null || claims.getExpiration() == null || !"access".equals(claims.get("type", String.class))) {
+                log.debug("Rejecting token without user id, expiry or access type");
+                return Optional.empty();
+            }
+
+            String username = claims.get("username", String.class);
+            VerifiedToken verified = new VerifiedToken(
+                    userId,
+                    username != null ? username : claims.getSubject(),
+                    claims.getExpiration().toInstant());
+            verifiedTokens.put(digest, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long nanosUntil(Instant expiresAt) {
+        long millis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.habitsystem.gateway.security;
+
+import com.habitsystem.common.security.GatewayTrust;
+
+/**
+ * Headers the gateway sets on requests it has authenticated. Downstream services in gateway-trust
+ * mode accept them in place of re-verifying the JWT (see {@link GatewayTrust}), so the gateway
+ * strips any client-supplied copies before routing.
+ */
+public final class TrustedHeaders {
+
+    public static final String USER_ID = GatewayTrust.USER_ID_HEADER;
+    public static final String USERNAME = GatewayTrust.USERNAME_HEADER;
+    public static final String GATEWAY_AUTH = GatewayTrust.GATEWAY_AUTH_HEADER;
+
+    private TrustedHeaders() {
+    }
+}
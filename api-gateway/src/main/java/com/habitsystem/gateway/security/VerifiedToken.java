@@ -0,0 +1,9 @@
+package com.habitsystem.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by an access token whose signature and expiry the gateway has checked.
+ */
+public record VerifiedToken(String userId, String username, Instant expiresAt) {
+}
@@ -0,0 +1,137 @@
+package com.habitsystem.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habitsystem.gateway.security.JwtVerifier;
+import com.habitsystem.gateway.security.TrustedHeaders;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AuthenticationGatewayFilterFactoryTest {
+
+    private static final String JWT_SECRET = "gateway-test-secret-that-is-at-least-256-bits-long";
+    private static final String GATEWAY_SECRET = "gateway-shared-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JwtVerifier jwtVerifier = new JwtVerifier(JWT_SECRET, 100);
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+    private GatewayFilter filter(String gatewaySecret) {
+        return new AuthenticationGatewayFilterFactory(objectMapper, jwtVerifier, gatewaySecret)
+                .apply(new AuthenticationGatewayFilterFactory.Config());
+    }
+
+    private MockServerWebExchange run(GatewayFilter filter, MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, routed -> {
+            forwarded.set(routed.getRequest());
+            return Mono.empty();
+        }).block();
+        return exchange;
+    }
+
+    private static String accessToken() {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", "user-1")
+                .claim("username", "alice")
+                .claim("type", "access")
+                .setExpiration(Date.from(Instant.now().plus(15, ChronoUnit.MINUTES)))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should replace client-supplied identity headers with the verified identity")
+    void shouldOverwriteSpoofedIdentityHeaders() {
+        run(filter(GATEWAY_SECRET), MockServerHttpRequest.get("/api/habits")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken())
+                .header(TrustedHeaders.USER_ID, "someone-else")
+                .header(TrustedHeaders.USERNAME, "mallory")
+                .header(TrustedHeaders.GATEWAY_AUTH, "guessed-secret")
+                .build());
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertThat(headers.get(TrustedHeaders.USER_ID)).containsExactly("user-1");
+        assertThat(headers.get(TrustedHeaders.USERNAME)).containsExactly("alice");
+        assertThat(headers.get(TrustedHeaders.GATEWAY_AUTH)).containsExactly(GATEWAY_SECRET);
+    }
+
+    @Test
+    @DisplayName("Should not forward a gateway secret when none is configured")
+    void shouldDropClientGatewayAuthWithoutSecret() {
+        run(filter(""), MockServerHttpRequest.get("/api/habits")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken())
+                .header(TrustedHeaders.GATEWAY_AUTH, "guessed-secret")
+                .build());
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertThat(headers.get(TrustedHeaders.USER_ID)).containsExactly("user-1");
+        assertThat(headers.containsKey(TrustedHeaders.GATEWAY_AUTH)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should strip identity headers on public paths too")
+    void shouldStripIdentityHeadersOnPublicPaths() {
+        run(filter(GATEWAY_SECRET), MockServerHttpRequest.post("/api/v1/auth/login")
+                .header(TrustedHeaders.USER_ID, "someone-else")
+                .header(TrustedHeaders.USERNAME, "mallory")
+                .header(TrustedHeaders.GATEWAY_AUTH, GATEWAY_SECRET)
+                .build());
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertThat(headers.containsKey(TrustedHeaders.USER_ID)).isFalse();
+        assertThat(headers.containsKey(TrustedHeaders.USERNAME)).isFalse();
+        assertThat(headers.containsKey(TrustedHeaders.GATEWAY_AUTH)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject requests without a bearer token")
+    void shouldRejectMissingToken() {
+        MockServerWebExchange exchange = run(filter(GATEWAY_SECRET), MockServerHttpRequest.get("/api/habits")
+                .header(TrustedHeaders.USER_ID, "user-1")
+                .header(TrustedHeaders.GATEWAY_AUTH, GATEWAY_SECRET)
+                .build());
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject requests with an invalid token")
+    void shouldRejectInvalidToken() {
+        MockServerWebExchange exchange = run(filter(GATEWAY_SECRET), MockServerHttpRequest.get("/api/habits")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken() + "x")
+                .build());
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should require a token on auth routes that are not public")
+    void shouldProtectLogout() {
+        MockServerWebExchange exchange = run(filter(GATEWAY_SECRET), MockServerHttpRequest.post("/api/v1/auth/logout")
+                .build());
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+}
@@ -0,0 +1,100 @@
+package com.habitsystem.gateway.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    static final String SECRET = "gateway-test-secret-that-is-at-least-256-bits-long";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, 100);
+
+    static String token(String secret, String type, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", "user-1")
+                .claim("username", "alice")
+                .claim("type", type)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should return the identity of a valid access token")
+    void shouldVerifyAccessToken() {
+        Instant expiresAt = Instant.now().plus(15, ChronoUnit.MINUTES);
+
+        Optional<VerifiedToken> verified = verifier.verify(token(SECRET, "access", expiresAt));
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().userId()).isEqualTo("user-1");
+        assertThat(verified.get().username()).isEqualTo("alice");
+        assertThat(verified.get().expiresAt()).isEqualTo(expiresAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with another key")
+    void shouldRejectForgedSignature() {
+        String forged = token("attacker-secret-that-is-also-at-least-256-bits-long", "access",
+                Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        assertThat(verifier.verify(forged)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a token whose payload was altered after signing")
+    void shouldRejectTamperedPayload() {
+        String[] parts = token(SECRET, "access", Instant.now().plus(15, ChronoUnit.MINUTES)).split("\\.");
+        String otherPayload = token(SECRET, "refresh", Instant.now().plus(15, ChronoUnit.MINUTES)).split("\\.")[1];
+
+        assertThat(verifier.verify(parts[0] + "." + otherPayload + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void shouldRejectExpiredToken() {
+        assertThat(verifier.verify(token(SECRET, "access", Instant.now().minus(1, ChronoUnit.MINUTES)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a refresh token presented as an access token")
+    void shouldRejectRefreshToken() {
+        assertThat(verifier.verify(token(SECRET, "refresh", Instant.now().plus(7, ChronoUnit.DAYS)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void shouldRejectMalformedToken() {
+        assertThat(verifier.verify("not-a-jwt")).isEmpty();
+        assertThat(verifier.verify("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop accepting a cached token once it reaches its expiry")
+    void shouldExpireCachedTokenAtExp() throws InterruptedException {
+        // exp has second precision, so round up to the next whole second
+        Instant expiresAt = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        String token = token(SECRET, "access", expiresAt);
+
+        assertThat(verifier.verify(token)).isPresent();
+        // Served from the cache this time
+        assertThat(verifier.verify(token)).isPresent();
+
+        Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 50);
+
+        assertThat(verifier.verify(token)).isEmpty();
+    }
+}
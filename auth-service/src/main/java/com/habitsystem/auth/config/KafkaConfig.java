@@ -1,26 +1,40 @@
 package com.habitsystem.auth.config;
 
+import com.habitsystem.auth.event.TokenRevokedEvent;
 import com.habitsystem.auth.event.UserRegisteredEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.kafka.support.ProducerListener;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableKafka
 @EnableTransactionManagement
 @Slf4j
 public class KafkaConfig {
@@ -31,6 +45,60 @@ public class KafkaConfig {
     @Value("${spring.kafka.producer.transaction-id-prefix:auth-tx-}")
     private String transactionIdPrefix;
 
+    @Value("${kafka.topics.token-revoked:token-revoked}")
+    private String tokenRevokedTopic;
+
+    @Value("${kafka.topics.token-revoked-partitions:3}")
+    private int tokenRevokedPartitions;
+
+    @Value("${kafka.topics.token-revoked-replicas:1}")
+    private int tokenRevokedReplicas;
+
+    @Value("${jwt.refresh-token.expiration}")
+    private long refreshTokenExpirationMinutes;
+
+    @Bean
+    public NewTopic tokenRevokedTopic() {
+        // Compacted by token hash, and records older than any refresh token's lifetime are deleted,
+        // so the topic holds exactly the revocations that still matter
+        return TopicBuilder.name(tokenRevokedTopic)
+                .partitions(tokenRevokedPartitions)
+                .replicas(tokenRevokedReplicas)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG,
+                        TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+                .config(TopicConfig.RETENTION_MS_CONFIG,
+                        String.valueOf(Duration.ofMinutes(refreshTokenExpirationMinutes).plusDays(1).toMillis()))
+                .build();
+    }
+
+    @Bean
+    public ConsumerFactory<String, TokenRevokedEvent> tokenRevokedConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        // Each instance replays the whole compacted topic on startup to rebuild its revocation set
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        JsonDeserializer<TokenRevokedEvent> jsonDeserializer = new JsonDeserializer<>(TokenRevokedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("com.habitsystem.auth.event");
+
+        return new DefaultKafkaConsumerFactory<>(
+            props,
+            new ErrorHandlingDeserializer<>(new StringDeserializer()),
+            new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TokenRevokedEvent> tokenRevokedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TokenRevokedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(tokenRevokedConsumerFactory());
+        return factory;
+    }
+
     @Bean
     public ProducerFactory<String, UserRegisteredEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -69,6 +137,15 @@ public class KafkaConfig {
         return template;
     }
     
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KafkaTemplate<String, TokenRevokedEvent> tokenRevokedKafkaTemplate() {
+        // Shares the transactional producer so revocations join the transaction that blacklists the token
+        KafkaTemplate<String, TokenRevokedEvent> template = new KafkaTemplate<>((ProducerFactory) producerFactory());
+        template.setProducerListener((ProducerListener) producerListener());
+        return template;
+    }
+    
     @Bean(name = "transactionManager")
     public KafkaTransactionManager<String, UserRegisteredEvent> kafkaTransactionManager() {
         return new KafkaTransactionManager<>(producerFactory());
@@ -0,0 +1,20 @@
+package com.habitsystem.auth.config;
+
+import com.habitsystem.common.security.RevocationSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RevocationConfig {
+
+    @Bean
+    public RevocationSet revocationSet(
+            @Value("${security.revocation.expected-insertions:100000}") long expectedInsertions,
+            @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.revocation.prune-interval:10m}") Duration pruneInterval) {
+        return new RevocationSet(expectedInsertions, falsePositiveRate, pruneInterval);
+    }
+}
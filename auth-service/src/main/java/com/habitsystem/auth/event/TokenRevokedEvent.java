@@ -0,0 +1,20 @@
+package com.habitsystem.auth.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRevokedEvent {
+    private String userId;
+    // SHA-256 hex of the revoked refresh token; the raw token never leaves auth-service
+    private String tokenHash;
+    private String reason;
+    private Instant revokedAt;
+    // When the revoked token would have expired; consumers can forget it after that
+    private Instant expiresAt;
+}
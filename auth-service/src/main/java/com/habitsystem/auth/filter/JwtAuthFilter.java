@@ -1,12 +1,13 @@
 package com.habitsystem.auth.filter;
 
 import com.habitsystem.auth.service.JwtService;
+import com.habitsystem.common.security.GatewayTrust;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,13 +17,20 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final GatewayTrust gatewayTrust;
     private static final String BEARER_PREFIX = "Bearer ";
 
+    public JwtAuthFilter(JwtService jwtService,
+                         @Value("${security.gateway-trust.enabled:false}") boolean gatewayTrustEnabled,
+                         @Value("${security.gateway-trust.shared-secret:}") String gatewaySecret) {
+        this.jwtService = jwtService;
+        this.gatewayTrust = new GatewayTrust(gatewayTrustEnabled, gatewaySecret);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -30,6 +38,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
 
+        String gatewayUsername = request.getHeader(GatewayTrust.USERNAME_HEADER);
+        if (gatewayTrust.isVerifiedByGateway(gatewayUsername, request.getHeader(GatewayTrust.GATEWAY_AUTH_HEADER))) {
+            authenticate(request, gatewayUsername);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
@@ -38,22 +53,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            if (jwtService.isTokenValid(jwt)) {
-                String userId = jwtService.getUserIdFromToken(jwt);
-                String username = jwtService.getUsernameFromToken(jwt);
-                
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username,
-                    null,
-                    null
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            jwtService.verify(jwt).ifPresent(token -> authenticate(request, token.username()));
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, String username) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            username,
+            null,
+            null
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.habitsystem.auth.listener;
+
+import com.habitsystem.auth.event.TokenRevokedEvent;
+import com.habitsystem.common.security.RevocationSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationListener {
+
+    private final RevocationSet revocationSet;
+
+    // Every instance reads every partition from the start of the topic. The partitions are
+    // assigned directly, without a consumer group, so no offsets are committed and restarts leave
+    // no groups behind on the broker
+    @KafkaListener(
+        topicPartitions = @TopicPartition(
+            topic = "${kafka.topics.token-revoked:token-revoked}",
+            partitions = "0-#{${kafka.topics.token-revoked-partitions:3} - 1}"
+        ),
+        containerFactory = "tokenRevokedListenerContainerFactory"
+    )
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        if (event == null || event.getTokenHash() == null) {
+            return;
+        }
+        revocationSet.add(event.getTokenHash(), event.getExpiresAt());
+        log.debug("Recorded {} revocation for user {}; {} revoked tokens tracked",
+                event.getReason(), event.getUserId(), revocationSet.size());
+    }
+}
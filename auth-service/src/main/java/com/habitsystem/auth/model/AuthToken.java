@@ -19,9 +19,13 @@ public class AuthToken {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
-    @Column(name = "refresh_token", nullable = false, unique = true)
+    @Column(name = "refresh_token", nullable = false)
     private String refreshToken;
 
+    // SHA-256 hex of refreshToken; lookups go through this fixed-size column
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
     @Column(name = "is_blacklisted")
     private boolean isBlacklisted = false;
 
@@ -9,6 +9,6 @@ import java.util.UUID;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, String> {
-    Optional<AuthToken> findByRefreshToken(String refreshToken);
+    Optional<AuthToken> findByTokenHash(String tokenHash);
     void deleteByUserId(UUID userId);
 }
@@ -10,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Optional;
+
 @GrpcService
 @RequiredArgsConstructor
 @Slf4j
@@ -68,19 +70,11 @@ public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
     public void validateAuth(ValidateAuthRequest request, StreamObserver<ValidateAuthResponse> responseObserver) {
         try {
             log.info("Validating token");
-            boolean isValid = jwtService.isTokenValid(request.getToken());
-            String userId = isValid ? jwtService.getUserIdFromToken(request.getToken()) : "";
-            String username = isValid ? jwtService.getUsernameFromToken(request.getToken()) : "";
-            
-            ValidateAuthResponse response = ValidateAuthResponse.newBuilder()
-                .setValid(isValid)
-                .setUserId(userId)
-                .setUsername(username)
-                .build();
+            ValidateAuthResponse response = toValidateAuthResponse(request.getToken());
                 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
-            log.info("Token validation completed. Valid: {}", isValid);
+            log.info("Token validation completed. Valid: {}", response.getValid());
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage(), e);
             responseObserver.onError(Status.INTERNAL
@@ -89,4 +83,59 @@ public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
                 .asRuntimeException());
         }
     }
+
+    @Override
+    public void validateAuthBatch(ValidateAuthBatchRequest request, StreamObserver<ValidateAuthBatchResponse> responseObserver) {
+        try {
+            responseObserver.onNext(validateBatch(request));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Batch token validation failed: {}", e.getMessage(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Token validation failed")
+                .withCause(e)
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<ValidateAuthBatchRequest> validateAuthStream(StreamObserver<ValidateAuthBatchResponse> responseObserver) {
+        // gRPC delivers the messages of one call sequentially, so batches are answered in arrival order
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateAuthBatchRequest request) {
+                responseObserver.onNext(validateBatch(request));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Validation stream closed by client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private ValidateAuthBatchResponse validateBatch(ValidateAuthBatchRequest request) {
+        ValidateAuthBatchResponse.Builder response = ValidateAuthBatchResponse.newBuilder()
+            .setBatchId(request.getBatchId());
+        for (String token : request.getTokensList()) {
+            response.addResults(toValidateAuthResponse(token));
+        }
+        log.debug("Validated batch {} of {} tokens", request.getBatchId(), request.getTokensCount());
+        return response.build();
+    }
+
+    private ValidateAuthResponse toValidateAuthResponse(String token) {
+        Optional<JwtService.VerifiedToken> verified = jwtService.verify(token);
+        return ValidateAuthResponse.newBuilder()
+            .setValid(verified.isPresent())
+            .setUserId(verified.map(JwtService.VerifiedToken::userId).orElse(""))
+            .setUsername(verified.map(JwtService.VerifiedToken::username).orElse(""))
+            .setExpiresAt(verified.map(claims -> claims.expiresAt().getEpochSecond()).orElse(0L))
+            .build();
+    }
 }
@@ -10,6 +10,7 @@ import com.habitsystem.auth.model.AuthToken;
 import com.habitsystem.auth.model.VerificationToken;
 import com.habitsystem.auth.repository.AuthTokenRepository;
 import com.habitsystem.auth.repository.VerificationTokenRepository;
+import com.habitsystem.common.security.RevocationSet;
 import com.habitsystem.proto.user.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,8 @@ public class AuthService {
     private final AuthTokenRepository authTokenRepository;
     private final VerificationTokenRepository verificationTokenRepository;
     private final KafkaTemplate<String, UserRegisteredEvent> kafkaTemplate;
+    private final TokenRevocationPublisher revocationPublisher;
+    private final RevocationSet revocationSet;
 
     @Value("${verification.token.expiration:1440}") // Added default value of 1440 minutes (24 hours)
     private long verificationTokenExpiration;
@@ -194,6 +197,7 @@ public class AuthService {
         AuthToken token = new AuthToken();
         token.setUserId(UUID.fromString(user.getUserId()));
         token.setRefreshToken(refreshToken);
+        token.setTokenHash(TokenHashes.sha256Hex(refreshToken));
         token.setExpiresAt(LocalDateTime.now().plusDays(7));
         authTokenRepository.save(token);
 
@@ -223,14 +227,21 @@ public class AuthService {
             throw new AuthenticationException("Invalid refresh token");
         }
 
+        // Revocations arrive from the token-revoked topic, so revoked tokens are rejected without a database read
+        String tokenHash = TokenHashes.sha256Hex(refreshToken);
+        if (revocationSet.isRevoked(tokenHash)) {
+            log.warn("Attempt to use blacklisted refresh token");
+            throw new AuthenticationException("Token has been revoked");
+        }
+
         // Check if token exists in database
-        AuthToken token = authTokenRepository.findByRefreshToken(refreshToken)
+        AuthToken token = authTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> {
                     log.warn("Refresh token not found in database");
                     return new AuthenticationException("Invalid refresh token");
                 });
 
-        // Validate token status
+        // Validate token status; also covers revocations this instance has not consumed yet
         if (token.isBlacklisted()) {
             log.warn("Attempt to use blacklisted refresh token");
             throw new AuthenticationException("Token has been revoked");
@@ -256,11 +267,13 @@ public class AuthService {
             // Invalidate old refresh token
             token.setBlacklisted(true);
             authTokenRepository.save(token);
+            revocationPublisher.publish(token, TokenRevocationPublisher.REASON_ROTATED);
 
             // Save new refresh token
             AuthToken newToken = new AuthToken();
             newToken.setUserId(UUID.fromString(user.getUserId()));
             newToken.setRefreshToken(newRefreshToken);
+            newToken.setTokenHash(TokenHashes.sha256Hex(newRefreshToken));
             newToken.setExpiresAt(LocalDateTime.now().plusDays(7));
             authTokenRepository.save(newToken);
 
@@ -283,11 +296,12 @@ public class AuthService {
 
     @Transactional
     public void logout(String refreshToken) {
-        AuthToken token = authTokenRepository.findByRefreshToken(refreshToken)
+        AuthToken token = authTokenRepository.findByTokenHash(TokenHashes.sha256Hex(refreshToken))
                 .orElseThrow(() -> new AuthenticationException("Refresh token not found"));
 
         token.setBlacklisted(true);
         authTokenRepository.save(token);
+        revocationPublisher.publish(token, TokenRevocationPublisher.REASON_LOGOUT);
     }
 
     @Transactional
@@ -1,6 +1,7 @@
 package com.habitsystem.auth.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,25 +10,40 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class JwtService {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Long accessTokenExpiration;
     
-    @Value("${jwt.access-token.expiration}")
-    private Long accessTokenExpiration;
+    private final Long refreshTokenExpiration;
     
-    @Value("${jwt.refresh-token.expiration}")
-    private Long refreshTokenExpiration;
+    // Both are immutable and thread-safe, so they are built once instead of per sign or parse
+    private final SecretKey signingKey;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtParser parser;
+    
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.access-token.expiration}") Long accessTokenExpiration,
+                      @Value("${jwt.refresh-token.expiration}") Long refreshTokenExpiration) {
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
+    /**
+     * Claims of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String userId, String username, String type, Instant expiresAt) {
     }
     
     public String generateAccessToken(String userId, String username) {
@@ -55,29 +71,33 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public boolean isTokenValid(String token) {
+    /**
+     * Verifies the token once and returns its claims, or empty if it is malformed, forged or expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = getClaims(token);
+            return Optional.of(new VerifiedToken(
+                    claims.get("userId", String.class),
+                    claims.get("username", String.class),
+                    claims.get("type", String.class),
+                    claims.getExpiration().toInstant()));
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
     
+    public boolean isTokenValid(String token) {
+        return verify(token).isPresent();
+    }
+    
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
     
     public String getUserIdFromToken(String token) {
@@ -0,0 +1,46 @@
+package com.habitsystem.auth.service;
+
+import com.habitsystem.auth.event.TokenRevokedEvent;
+import com.habitsystem.auth.model.AuthToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Announces revoked refresh tokens so other services can drop state derived from the user's
+ * session. Called inside the transaction that blacklists the token, so the event is only
+ * committed together with the blacklisting. Events are keyed by token hash on a compacted
+ * topic, so a consumer that reads it from the start rebuilds the full set of revocations.
+ */
+@Service
+@Slf4j
+public class TokenRevocationPublisher {
+
+    public static final String REASON_LOGOUT = "LOGOUT";
+    public static final String REASON_ROTATED = "ROTATED";
+
+    private final KafkaTemplate<String, TokenRevokedEvent> kafkaTemplate;
+    private final String topic;
+
+    public TokenRevocationPublisher(KafkaTemplate<String, TokenRevokedEvent> kafkaTemplate,
+                                    @Value("${kafka.topics.token-revoked:token-revoked}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    public void publish(AuthToken token, String reason) {
+        TokenRevokedEvent event = new TokenRevokedEvent(
+            token.getUserId().toString(),
+            token.getTokenHash(),
+            reason,
+            Instant.now(),
+            token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant()
+        );
+        kafkaTemplate.send(topic, event.getTokenHash(), event);
+        log.debug("Published revocation of a refresh token for user {} ({})", event.getUserId(), reason);
+    }
+}
@@ -0,0 +1,11 @@
+-- Look refresh tokens up by a fixed-size SHA-256 digest instead of the full JWT text
+ALTER TABLE auth_tokens ADD COLUMN token_hash VARCHAR(64);
+
+UPDATE auth_tokens SET token_hash = encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex');
+
+ALTER TABLE auth_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE auth_tokens ADD CONSTRAINT uk_auth_tokens_token_hash UNIQUE (token_hash);
+
+-- Nothing queries the token text any more; its unique constraint and index only cost writes
+ALTER TABLE auth_tokens DROP CONSTRAINT uk_auth_tokens_refresh_token;
+DROP INDEX idx_auth_tokens_refresh_token;
@@ -0,0 +1,81 @@
+package com.habitsystem.auth.filter;
+
+import com.habitsystem.auth.service.JwtService;
+import com.habitsystem.common.security.GatewayTrust;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtAuthFilterTest {
+
+    private static final String JWT_SECRET = "auth-test-secret-that-is-at-least-256-bits-long";
+    private static final String GATEWAY_SECRET = "gateway-shared-secret";
+
+    private final JwtService jwtService = new JwtService(JWT_SECRET, 15L, 10080L);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void run(JwtAuthFilter filter, MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static MockHttpServletRequest gatewayRequest(String presentedSecret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/logout");
+        request.addHeader(GatewayTrust.USER_ID_HEADER, "user-1");
+        request.addHeader(GatewayTrust.USERNAME_HEADER, "alice");
+        request.addHeader(GatewayTrust.GATEWAY_AUTH_HEADER, presentedSecret);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should authenticate from gateway headers when the shared secret matches")
+    void shouldTrustGatewayHeaders() throws Exception {
+        run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET), gatewayRequest(GATEWAY_SECRET));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers carrying the wrong secret")
+    void shouldRejectWrongSecret() throws Exception {
+        run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET), gatewayRequest("guessed-secret"));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers when trust mode has no secret configured")
+    void shouldRejectWhenSecretMissing() throws Exception {
+        run(new JwtAuthFilter(jwtService, true, ""), gatewayRequest(""));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers when trust mode is off")
+    void shouldRejectWhenDisabled() throws Exception {
+        run(new JwtAuthFilter(jwtService, false, GATEWAY_SECRET), gatewayRequest(GATEWAY_SECRET));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the bearer token's identity when the gateway secret is wrong")
+    void shouldPreferTokenOverSpoofedHeaders() throws Exception {
+        MockHttpServletRequest request = gatewayRequest("guessed-secret");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateAccessToken("user-2", "bob"));
+
+        run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET), request);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("bob");
+    }
+}
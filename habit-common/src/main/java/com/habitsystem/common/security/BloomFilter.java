@@ -0,0 +1,71 @@
+package com.habitsystem.common.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over SHA-256 hex digests. The digest is already uniformly
+ * distributed, so its first 128 bits serve directly as the two base hashes for double hashing
+ * instead of hashing again.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be at least 1");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = Math.toIntExact(Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String sha256Hex) {
+        long h1 = firstHash(sha256Hex);
+        long h2 = secondHash(sha256Hex);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String sha256Hex) {
+        long h1 = firstHash(sha256Hex);
+        long h2 = secondHash(sha256Hex);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long firstHash(String sha256Hex) {
+        requireDigest(sha256Hex);
+        return Long.parseUnsignedLong(sha256Hex, 0, 16, 16);
+    }
+
+    private static long secondHash(String sha256Hex) {
+        // Odd, so the step between probes is never zero
+        return Long.parseUnsignedLong(sha256Hex, 16, 32, 16) | 1;
+    }
+
+    private static void requireDigest(String sha256Hex) {
+        if (sha256Hex == null || sha256Hex.length() != 64) {
+            throw new IllegalArgumentException("Expected a SHA-256 hex digest");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.habitsystem.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Gateway-trust mode for services behind the api-gateway. The gateway verifies the JWT, strips
+ * any client-supplied identity headers and forwards the verified identity together with a shared
+ * secret. A service in this mode accepts those headers instead of verifying the token again, but
+ * only when the secret matches; with the mode off or no secret configured nothing is trusted.
+ */
+public final class GatewayTrust {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-Username";
+
+    /** Shared secret proving the request passed through the gateway */
+    public static final String GATEWAY_AUTH_HEADER = "X-Gateway-Auth";
+
+    private final boolean enabled;
+    private final byte[] sharedSecret;
+
+    public GatewayTrust(boolean enabled, String sharedSecret) {
+        this.enabled = enabled && sharedSecret != null && !sharedSecret.isEmpty();
+        this.sharedSecret = this.enabled ? sharedSecret.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether a request carrying {@code identity} (the identity header the service relies on)
+     * and {@code presentedSecret} (the X-Gateway-Auth value) was authenticated by the gateway.
+     * The secret is compared in constant time.
+     */
+    public boolean isVerifiedByGateway(String identity, String presentedSecret) {
+        if (!enabled || identity == null || identity.isEmpty() || presentedSecret == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(presentedSecret.getBytes(StandardCharsets.UTF_8), sharedSecret);
+    }
+}
@@ -0,0 +1,76 @@
+package com.habitsystem.common.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked tokens, identified by the SHA-256 hex digest of the token. Lookups
+ * are lock-free: a Bloom filter answers most "not revoked" checks from a few bit probes, and
+ * only its positives are confirmed against the exact set. Entries are dropped once the token
+ * would have expired anyway, and the filter is rebuilt from the remaining entries at the same
+ * time, since a Bloom filter cannot forget.
+ */
+public class RevocationSet {
+
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration pruneInterval;
+    private final Clock clock;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private Instant nextPrune;
+
+    public RevocationSet(long expectedInsertions, double falsePositiveRate, Duration pruneInterval) {
+        this(expectedInsertions, falsePositiveRate, pruneInterval, Clock.systemUTC());
+    }
+
+    public RevocationSet(long expectedInsertions, double falsePositiveRate, Duration pruneInterval, Clock clock) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pruneInterval = pruneInterval;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.nextPrune = clock.instant().plus(pruneInterval);
+    }
+
+    /**
+     * Records a revoked token. {@code expiresAt} is when the token stops being accepted anyway;
+     * null keeps the entry until the process restarts.
+     */
+    public synchronized void add(String tokenHash, Instant expiresAt) {
+        Instant now = clock.instant();
+        if (expiresAt != null && !expiresAt.isAfter(now)) {
+            return;
+        }
+        // Filter first, so a reader that finds the entry in the map also passes the filter
+        filter.put(tokenHash);
+        revoked.put(tokenHash, expiresAt != null ? expiresAt : Instant.MAX);
+        if (!now.isBefore(nextPrune)) {
+            prune(now);
+        }
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return filter.mightContain(tokenHash) && revoked.containsKey(tokenHash);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Drops entries whose tokens have expired and rebuilds the filter from the rest, sized for
+     * at least twice the remaining entries so it keeps its false positive rate as the set grows.
+     */
+    public synchronized void prune(Instant now) {
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, 2L * revoked.size()), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        nextPrune = now.plus(pruneInterval);
+    }
+}
@@ -0,0 +1,69 @@
+package com.habitsystem.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Random random = new Random(20240901L);
+
+    private String randomDigest() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    @Test
+    @DisplayName("Should find every inserted digest")
+    void shouldHaveNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        List<String> inserted = new ArrayList<>();
+        for (int i = 0; i < INSERTIONS; i++) {
+            String digest = randomDigest();
+            filter.put(digest);
+            inserted.add(digest);
+        }
+
+        assertThat(inserted).allMatch(filter::mightContain);
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate when filled to capacity")
+    void shouldKeepFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(randomDigest());
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(randomDigest())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    @DisplayName("Should reject values that are not SHA-256 hex digests")
+    void shouldRejectNonDigests() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        assertThatThrownBy(() -> filter.put("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter.mightContain(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(0, FALSE_POSITIVE_RATE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(INSERTIONS, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
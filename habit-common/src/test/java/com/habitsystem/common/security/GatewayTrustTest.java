@@ -0,0 +1,61 @@
+package com.habitsystem.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GatewayTrustTest {
+
+    private static final String SECRET = "gateway-shared-secret";
+
+    @Test
+    @DisplayName("Should trust identity headers that carry the shared secret")
+    void shouldTrustMatchingSecret() {
+        GatewayTrust trust = new GatewayTrust(true, SECRET);
+
+        assertThat(trust.isEnabled()).isTrue();
+        assertThat(trust.isVerifiedByGateway("user-1", SECRET)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a wrong, truncated or missing secret")
+    void shouldRejectWrongSecret() {
+        GatewayTrust trust = new GatewayTrust(true, SECRET);
+
+        assertThat(trust.isVerifiedByGateway("user-1", "not-the-secret")).isFalse();
+        assertThat(trust.isVerifiedByGateway("user-1", SECRET.substring(1))).isFalse();
+        assertThat(trust.isVerifiedByGateway("user-1", "")).isFalse();
+        assertThat(trust.isVerifiedByGateway("user-1", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject requests without an identity even if the secret matches")
+    void shouldRejectMissingIdentity() {
+        GatewayTrust trust = new GatewayTrust(true, SECRET);
+
+        assertThat(trust.isVerifiedByGateway(null, SECRET)).isFalse();
+        assertThat(trust.isVerifiedByGateway("", SECRET)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should trust nothing when enabled without a secret")
+    void shouldStayOffWithoutSecret() {
+        GatewayTrust blank = new GatewayTrust(true, "");
+        GatewayTrust missing = new GatewayTrust(true, null);
+
+        assertThat(blank.isEnabled()).isFalse();
+        assertThat(blank.isVerifiedByGateway("user-1", "")).isFalse();
+        assertThat(missing.isEnabled()).isFalse();
+        assertThat(missing.isVerifiedByGateway("user-1", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should trust nothing when disabled, even with the right secret")
+    void shouldStayOffWhenDisabled() {
+        GatewayTrust trust = new GatewayTrust(false, SECRET);
+
+        assertThat(trust.isEnabled()).isFalse();
+        assertThat(trust.isVerifiedByGateway("user-1", SECRET)).isFalse();
+    }
+}
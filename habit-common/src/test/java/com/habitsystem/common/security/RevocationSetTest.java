@@ -0,0 +1,175 @@
+package com.habitsystem.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RevocationSetTest {
+
+    private static final Instant START = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    private final Random random = new Random(20240902L);
+
+    private String randomDigest() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    @Test
+    @DisplayName("Should confirm filter positives against the exact set")
+    void shouldNotReportFilterFalsePositives() {
+        // A tiny, overfull filter answers "maybe" for most digests
+        RevocationSet revocations = new RevocationSet(1, 0.5, Duration.ofHours(1), clock);
+        for (int i = 0; i < 100; i++) {
+            revocations.add(randomDigest(), START.plus(Duration.ofDays(1)));
+        }
+        String revoked = randomDigest();
+        revocations.add(revoked, START.plus(Duration.ofDays(1)));
+
+        assertThat(revocations.isRevoked(revoked)).isTrue();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(revocations.isRevoked(randomDigest())).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore a revocation for a token that has already expired")
+    void shouldIgnoreExpiredRevocation() {
+        RevocationSet revocations = new RevocationSet(100, 0.01, Duration.ofHours(1), clock);
+        String expired = randomDigest();
+        String expiringNow = randomDigest();
+
+        revocations.add(expired, START.minusSeconds(1));
+        revocations.add(expiringNow, START);
+
+        assertThat(revocations.size()).isZero();
+        assertThat(revocations.isRevoked(expired)).isFalse();
+        assertThat(revocations.isRevoked(expiringNow)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drop expired entries on prune and keep the rest findable after the rebuild")
+    void shouldPruneExpiredEntries() {
+        RevocationSet revocations = new RevocationSet(100, 0.01, Duration.ofHours(1), clock);
+        String shortLived = randomDigest();
+        String longLived = randomDigest();
+        String forever = randomDigest();
+        revocations.add(shortLived, START.plus(Duration.ofHours(1)));
+        revocations.add(longLived, START.plus(Duration.ofHours(3)));
+        revocations.add(forever, null);
+
+        advance(Duration.ofHours(2));
+        revocations.prune(clock.instant());
+
+        assertThat(revocations.size()).isEqualTo(2);
+        assertThat(revocations.isRevoked(shortLived)).isFalse();
+        assertThat(revocations.isRevoked(longLived)).isTrue();
+        assertThat(revocations.isRevoked(forever)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should prune on add once the prune interval has passed")
+    void shouldPruneOnAddAfterInterval() {
+        RevocationSet revocations = new RevocationSet(100, 0.01, Duration.ofMinutes(10), clock);
+        String shortLived = randomDigest();
+        revocations.add(shortLived, START.plus(Duration.ofMinutes(5)));
+
+        advance(Duration.ofMinutes(10));
+        revocations.add(randomDigest(), START.plus(Duration.ofHours(1)));
+
+        assertThat(revocations.size()).isEqualTo(1);
+        assertThat(revocations.isRevoked(shortLived)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should never miss an added revocation while other threads add and rebuild the filter")
+    void shouldStayConsistentUnderConcurrentAddsAndLookups() throws Exception {
+        // A zero interval rebuilds the filter on every add
+        RevocationSet revocations = new RevocationSet(16, 0.01, Duration.ZERO, clock);
+        List<String> added = new CopyOnWriteArrayList<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        byte[] bytes = new byte[32];
+                        ThreadLocalRandom.current().nextBytes(bytes);
+                        String digest = HexFormat.of().formatHex(bytes);
+                        revocations.add(digest, START.plus(Duration.ofDays(1)));
+                        added.add(digest);
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        int size = added.size();
+                        if (size > 0 && !revocations.isRevoked(added.get(ThreadLocalRandom.current().nextInt(size)))) {
+                            misses.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(misses).hasValue(0);
+        assertThat(revocations.size()).isEqualTo(2_000);
+        assertThat(added).allMatch(revocations::isRevoked);
+    }
+}
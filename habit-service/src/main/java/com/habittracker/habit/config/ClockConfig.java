@@ -0,0 +1,19 @@
+package com.habittracker.habit.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * The clock that streak, reconciliation and reset logic read "now" from, so tests can pin it.
+ * The system default zone matches the {@code LocalDateTime} values stored in the database.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -1,11 +1,16 @@
 package com.habittracker.habit.controller;
 
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.BatchTrackingResponseDTO;
 import com.habittracker.habit.dto.DeleteResponseDTO;
 import com.habittracker.habit.dto.HabitRequestDTO;
 import com.habittracker.habit.dto.HabitResponseDTO;
 import com.habittracker.habit.dto.HabitUpdateDTO;
 import com.habittracker.habit.dto.PagedResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
+import com.habittracker.habit.exception.ForbiddenException;
 import com.habittracker.habit.service.HabitService;
+import com.habittracker.habit.service.HabitTrackingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +26,7 @@ import java.util.UUID;
 public class HabitController {
     
     private final HabitService habitService;
+    private final HabitTrackingService habitTrackingService;
     
     /**
      * Create a new habit
@@ -31,6 +37,22 @@ public class HabitController {
         return new ResponseEntity<>(createdHabit, HttpStatus.CREATED);
     }
     
+    /**
+     * Track a batch of completions across habits, e.g. replayed from an offline client queue;
+     * every habit in the batch must belong to the authenticated user
+     */
+    @PostMapping("/track/batch")
+    public ResponseEntity<BatchTrackingResponseDTO> trackHabitsBatch(
+            @Valid @RequestBody BatchTrackingRequestDTO batchTrackingRequestDTO,
+            @RequestAttribute(name = "userId", required = false) String authenticatedUserId) {
+        if (authenticatedUserId == null) {
+            throw new ForbiddenException("Batch tracking is only available to an authenticated user");
+        }
+        BatchTrackingResponseDTO response = habitTrackingService.trackHabitCompletions(
+                UUID.fromString(authenticatedUserId), batchTrackingRequestDTO);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+    
     /**
      * Get a single habit by ID
      */
@@ -65,6 +87,17 @@ public class HabitController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Get habits by user ID as keyset slices for infinite scrolling, newest first
+     */
+    @GetMapping("/user/{userId}/scroll")
+    public ResponseEntity<SlicedResponseDTO<HabitResponseDTO>> scrollHabitsByUserId(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(habitService.getHabitsByUserIdAfterCursor(userId, cursor, size));
+    }
+    
     /**
      * Get all high priority habits for a user
      */
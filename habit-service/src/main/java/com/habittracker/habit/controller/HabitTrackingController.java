@@ -0,0 +1,70 @@
+package com.habittracker.habit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.habittracker.habit.dto.TrackingRecordResponseDTO;
+import com.habittracker.habit.service.HabitTrackingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/habits")
+@RequiredArgsConstructor
+public class HabitTrackingController {
+
+    private final HabitTrackingService habitTrackingService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Get a habit's tracking history as keyset slices, newest first. Records are written to the
+     * response as they are read, so large limits do not buffer the slice in memory. The body has
+     * the same shape as a SlicedResponseDTO.
+     */
+    @GetMapping("/{habitId}/tracking")
+    public ResponseEntity<StreamingResponseBody> getTrackingHistory(
+            @PathVariable UUID habitId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        // Fail before the response is committed
+        int pageSize = habitTrackingService.prepareTrackingHistory(habitId, cursor, limit);
+
+        // Let the generator's buffer decide when bytes go out instead of flushing after every record
+        ObjectWriter recordWriter = objectMapper.writerFor(TrackingRecordResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("content");
+                int[] written = {0};
+                String nextCursor = habitTrackingService.streamTrackingHistory(habitId, cursor, pageSize, record -> {
+                    try {
+                        recordWriter.writeValue(generator, record);
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeNumberField("size", written[0]);
+                generator.writeBooleanField("hasNext", nextCursor != null);
+                generator.writeStringField("nextCursor", nextCursor);
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
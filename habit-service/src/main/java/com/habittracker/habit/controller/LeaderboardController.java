@@ -0,0 +1,68 @@
+package com.habittracker.habit.controller;
+
+import com.habittracker.habit.dto.LeaderboardEntryDTO;
+import com.habittracker.habit.exception.ForbiddenException;
+import com.habittracker.habit.exception.InvalidRequestException;
+import com.habittracker.habit.exception.ResourceNotFoundException;
+import com.habittracker.habit.model.LeaderboardMetric;
+import com.habittracker.habit.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final LeaderboardService leaderboardService;
+    
+    /**
+     * Get the top users across all users
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(
+            @RequestParam(defaultValue = "CURRENT_STREAK") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(leaderboardService.getTop(metric, limit));
+    }
+    
+    /**
+     * Get a user's global rank
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDTO> getRank(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "CURRENT_STREAK") LeaderboardMetric metric) {
+        return leaderboardService.getRank(metric, userId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Leaderboard entry", "userId", userId));
+    }
+    
+    /**
+     * Rank a user among their friends; the friend list is supplied by the caller, so only the
+     * authenticated user may ask for their own friends leaderboard
+     */
+    @GetMapping("/users/{userId}/friends")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getFriendsLeaderboard(
+            @PathVariable UUID userId,
+            @RequestParam List<UUID> friendIds,
+            @RequestParam(defaultValue = "CURRENT_STREAK") LeaderboardMetric metric,
+            @RequestAttribute(name = "userId", required = false) String authenticatedUserId) {
+        if (authenticatedUserId == null || !userId.toString().equalsIgnoreCase(authenticatedUserId)) {
+            throw new ForbiddenException("Friends leaderboards are only available for the authenticated user");
+        }
+        if (friendIds.size() > MAX_LIMIT) {
+            throw new InvalidRequestException("At most " + MAX_LIMIT + " friends can be ranked at once");
+        }
+        return ResponseEntity.ok(leaderboardService.getFriendsLeaderboard(metric, userId, friendIds));
+    }
+}
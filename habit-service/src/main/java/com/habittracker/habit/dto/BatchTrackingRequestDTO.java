@@ -0,0 +1,22 @@
+package com.habittracker.habit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTrackingRequestDTO {
+    @NotEmpty(message = "At least one completion is required")
+    @Size(max = 1000, message = "A batch may contain at most 1000 completions")
+    private List<@Valid TrackingRecordRequestDTO> completions;
+}
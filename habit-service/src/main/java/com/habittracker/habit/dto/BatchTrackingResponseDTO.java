@@ -0,0 +1,19 @@
+package com.habittracker.habit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTrackingResponseDTO {
+    private int recordsTracked;
+    private int habitsUpdated;
+    private List<UUID> recordIds;  // In the same order as the submitted completions
+}
@@ -33,4 +33,5 @@ public class HabitRequestDTO {
     private String color;
     private Integer targetCompletions;
     private String icon;
+    private String timeZone;
 }
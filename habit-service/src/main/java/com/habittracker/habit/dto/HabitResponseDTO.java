@@ -22,6 +22,7 @@ public class HabitResponseDTO {
     private Integer priority;
     private String color;
     private String icon;
+    private String timeZone;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -31,4 +31,5 @@ public class HabitUpdateDTO {
     private Boolean active;
     private Integer targetCompletions;
     private String timeOfDay;
+    private String timeZone;
 }
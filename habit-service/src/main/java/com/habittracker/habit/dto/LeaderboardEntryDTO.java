@@ -0,0 +1,18 @@
+package com.habittracker.habit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;  // 1-based; equal scores are ordered by user id
+    private UUID userId;
+    private double score;
+}
@@ -0,0 +1,34 @@
+package com.habittracker.habit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackingRecordRequestDTO {
+    @NotNull(message = "Habit ID is required")
+    private UUID habitId;
+    
+    private LocalDateTime completedAt;
+    private String notes;
+    private Integer durationMinutes;
+    
+    @Min(1)
+    @Max(5)
+    private Integer moodRating;
+    
+    @Min(1)
+    @Max(5)
+    private Integer difficultyRating;
+}
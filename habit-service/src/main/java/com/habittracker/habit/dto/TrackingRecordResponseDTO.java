@@ -0,0 +1,22 @@
+package com.habittracker.habit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackingRecordResponseDTO {
+    private UUID id;
+    private LocalDateTime completedAt;
+    private String notes;
+    private Integer durationMinutes;
+    private Integer moodRating;
+    private Integer difficultyRating;
+}
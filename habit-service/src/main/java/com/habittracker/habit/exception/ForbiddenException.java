@@ -0,0 +1,15 @@
+package com.habittracker.habit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an authenticated caller asks for data belonging to another user.
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class ForbiddenException extends RuntimeException {
+    
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.habittracker.habit.filter;
+
+import com.habitsystem.common.security.GatewayTrust;
+import com.habittracker.habit.service.JwtService;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * gRPC counterpart of {@link JwtAuthFilter}: every call must carry a valid bearer token in the
+ * {@code authorization} metadata, or gateway-trust metadata when that mode is enabled. The
+ * verified user id is made available to the service through {@link #currentUserId()}; calls
+ * without one are closed with UNAUTHENTICATED before they reach the service. The standard
+ * {@code grpc.*} services (health, reflection) stay open.
+ */
+@GrpcGlobalServerInterceptor
+@Slf4j
+public class GrpcAuthInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<UUID> USER_ID = Context.key("userId");
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> USER_ID_HEADER =
+            Metadata.Key.of(GatewayTrust.USER_ID_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> GATEWAY_AUTH_HEADER =
+            Metadata.Key.of(GatewayTrust.GATEWAY_AUTH_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final JwtService jwtService;
+    private final GatewayTrust gatewayTrust;
+
+    public GrpcAuthInterceptor(JwtService jwtService,
+                               @Value("${application.security.gateway-trust.enabled:false}") boolean gatewayTrustEnabled,
+                               @Value("${application.security.gateway-trust.shared-secret:}") String gatewaySecret) {
+        this.jwtService = jwtService;
+        this.gatewayTrust = new GatewayTrust(gatewayTrustEnabled, gatewaySecret);
+    }
+
+    /**
+     * The user id of the authenticated caller of the current gRPC call.
+     */
+    public static UUID currentUserId() {
+        UUID userId = USER_ID.get();
+        if (userId == null) {
+            throw Status.UNAUTHENTICATED.withDescription("No authenticated user").asRuntimeException();
+        }
+        return userId;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (call.getMethodDescriptor().getFullMethodName().startsWith("grpc.")) {
+            return next.startCall(call, headers);
+        }
+
+        Optional<UUID> userId = authenticate(headers);
+        if (userId.isEmpty()) {
+            log.debug("Rejecting unauthenticated call to {}", call.getMethodDescriptor().getFullMethodName());
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing or invalid credentials"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return Contexts.interceptCall(Context.current().withValue(USER_ID, userId.get()), call, headers, next);
+    }
+
+    private Optional<UUID> authenticate(Metadata headers) {
+        String gatewayUserId = headers.get(USER_ID_HEADER);
+        if (gatewayTrust.isVerifiedByGateway(gatewayUserId, headers.get(GATEWAY_AUTH_HEADER))) {
+            return parseUserId(gatewayUserId);
+        }
+
+        String authHeader = headers.get(AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        return jwtService.verify(authHeader.substring(BEARER_PREFIX.length()).trim())
+                .flatMap(token -> parseUserId(token.userId()));
+    }
+
+    private static Optional<UUID> parseUserId(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(userId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
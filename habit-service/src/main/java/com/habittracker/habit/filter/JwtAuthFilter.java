@@ -1,12 +1,13 @@
 package com.habittracker.habit.filter;
 
+import com.habitsystem.common.security.GatewayTrust;
 import com.habittracker.habit.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,13 +21,20 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final GatewayTrust gatewayTrust;
     private static final String BEARER_PREFIX = "Bearer ";
 
+    public JwtAuthFilter(JwtService jwtService,
+                         @Value("${application.security.gateway-trust.enabled:false}") boolean gatewayTrustEnabled,
+                         @Value("${application.security.gateway-trust.shared-secret:}") String gatewaySecret) {
+        this.jwtService = jwtService;
+        this.gatewayTrust = new GatewayTrust(gatewayTrustEnabled, gatewaySecret);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -36,6 +44,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         log.debug("Processing request to {}", request.getRequestURI());
 
+        String gatewayUserId = request.getHeader(GatewayTrust.USER_ID_HEADER);
+        if (gatewayTrust.isVerifiedByGateway(gatewayUserId, request.getHeader(GatewayTrust.GATEWAY_AUTH_HEADER))) {
+            authenticate(request, gatewayUserId, request.getHeader(GatewayTrust.USERNAME_HEADER), null);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
@@ -44,36 +59,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            if (jwtService.isTokenValid(jwt)) {
-                String userId = jwtService.getUserIdFromToken(jwt);
-                String username = jwtService.getUsernameFromToken(jwt);
-                List<String> roles = jwtService.getRolesFromToken(jwt);
-                
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                if (roles != null) {
-                    authorities = roles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .collect(Collectors.toList());
-                }
-                
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username,
-                    null,
-                    authorities
-                );
-                
-                // Store the userId in the authentication details for later use in services
-                request.setAttribute("userId", userId);
-                
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                log.debug("Authenticated user: {}, with roles: {}", username, roles);
-            }
+            jwtService.verify(jwt).ifPresent(token ->
+                    authenticate(request, token.userId(), token.username(), token.roles()));
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, String userId, String username, List<String> roles) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        if (roles != null) {
+            authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toList());
+        }
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            username,
+            null,
+            authorities
+        );
+        
+        // Store the userId in the authentication details for later use in services
+        request.setAttribute("userId", userId);
+        
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        
+        log.debug("Authenticated user: {}, with roles: {}", username, roles);
+    }
 }
@@ -45,7 +45,6 @@ public class CategoryMapper {
         }
 
         return Category.builder()
-                .id(UUID.randomUUID())
                 .userId(UUID.fromString(dto.getUserId()))
                 .name(dto.getName())
                 .color(dto.getColor())
@@ -3,8 +3,10 @@ package com.habittracker.habit.mapper;
 import com.habittracker.habit.dto.HabitResponseDTO;
 import com.habittracker.habit.dto.HabitUpdateDTO;
 import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.repository.projection.HabitSummary;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 import org.springframework.stereotype.Component;
 
@@ -29,6 +31,7 @@ public class HabitMapper {
         responseDTO.setPriority(habit.getPriority());
         responseDTO.setColor(habit.getColor());
         responseDTO.setIcon(habit.getIcon());
+        responseDTO.setTimeZone(habit.getTimeZone());
         responseDTO.setCreatedAt(habit.getCreatedAt());
         responseDTO.setUpdatedAt(habit.getUpdatedAt());
         
@@ -47,6 +50,36 @@ public class HabitMapper {
         return responseDTO;
     }
     
+    /**
+     * Converts a listing projection row to a HabitResponseDTO
+     */
+    public HabitResponseDTO toResponseDTO(HabitSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        
+        return HabitResponseDTO.builder()
+                .id(summary.getId())
+                .userId(summary.getUserId())
+                .name(summary.getName())
+                .description(summary.getDescription())
+                .frequency(summary.getFrequency())
+                .schedule(summary.getSchedule())
+                .priority(summary.getPriority())
+                .color(summary.getColor())
+                .icon(summary.getIcon())
+                .timeZone(summary.getTimeZone())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .categoryId(summary.getCategoryId())
+                .categoryName(summary.getCategoryName())
+                .currentStreak(summary.getCurrentStreak())
+                .bestStreak(summary.getBestStreak())
+                .completionRate(summary.getCompletionRate())
+                .nextDueAt(summary.getNextDueAt())
+                .build();
+    }
+    
     /**
      * Updates a Habit entity from a HabitUpdateDTO
      * Note: This doesn't save the entity, just updates its fields
@@ -85,6 +118,10 @@ public class HabitMapper {
             habit.setTimeOfDay(updateDTO.getTimeOfDay());
         }
         
+        if (updateDTO.getTimeZone() != null) {
+            habit.setTimeZone(ZoneId.of(updateDTO.getTimeZone()).getId());
+        }
+        
         // Update the timestamp
         habit.setUpdatedAt(LocalDateTime.now());
     }
@@ -0,0 +1,129 @@
+package com.habittracker.habit.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habitsystem.proto.habit.CreateHabitRequest;
+import com.habitsystem.proto.habit.Frequency;
+import com.habitsystem.proto.habit.Habit;
+import com.habitsystem.proto.habit.UpdateHabitRequest;
+import com.habittracker.habit.dto.HabitRequestDTO;
+import com.habittracker.habit.dto.HabitResponseDTO;
+import com.habittracker.habit.dto.HabitUpdateDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Maps between the habit.proto messages and the REST DTOs so the gRPC and REST paths share
+ * the same service layer.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HabitProtoMapper {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Converts a HabitResponseDTO to a protobuf Habit message
+     */
+    public Habit toProto(HabitResponseDTO dto) {
+        Habit.Builder builder = Habit.newBuilder()
+                .setId(dto.getId().toString())
+                .setUserId(dto.getUserId().toString())
+                .setName(dto.getName())
+                .setFrequency(toProtoFrequency(dto.getFrequency(), dto.getSchedule()));
+        
+        if (dto.getDescription() != null) {
+            builder.setDescription(dto.getDescription());
+        }
+        if (dto.getCurrentStreak() != null) {
+            builder.setCurrentStreak(dto.getCurrentStreak());
+        }
+        if (dto.getBestStreak() != null) {
+            builder.setBestStreak(dto.getBestStreak());
+        }
+        if (dto.getCreatedAt() != null) {
+            builder.setCreatedAt(dto.getCreatedAt().toString());
+        }
+        if (dto.getUpdatedAt() != null) {
+            builder.setUpdatedAt(dto.getUpdatedAt().toString());
+        }
+        
+        return builder.build();
+    }
+
+    /**
+     * Converts a CreateHabitRequest to a HabitRequestDTO
+     */
+    public HabitRequestDTO toRequestDTO(CreateHabitRequest request) {
+        return HabitRequestDTO.builder()
+                .userId(request.getUserId().isEmpty() ? null : UUID.fromString(request.getUserId()))
+                .name(request.getName())
+                .description(request.getDescription().isEmpty() ? null : request.getDescription())
+                .frequency(toFrequency(request.getFrequency()))
+                .schedule(toSchedule(request.getFrequency()))
+                .targetCompletions(request.getTargetCount() > 0 ? request.getTargetCount() : null)
+                .build();
+    }
+
+    /**
+     * Converts an UpdateHabitRequest to a HabitUpdateDTO
+     */
+    public HabitUpdateDTO toUpdateDTO(UpdateHabitRequest request) {
+        return HabitUpdateDTO.builder()
+                .name(request.getName())
+                .description(request.getDescription().isEmpty() ? null : request.getDescription())
+                .frequency(toFrequency(request.getFrequency()))
+                .schedule(toSchedule(request.getFrequency()))
+                .targetCompletions(request.getTargetCount() > 0 ? request.getTargetCount() : null)
+                .build();
+    }
+
+    // Weekly and monthly frequencies with more than one completion become X_TIMES_PER_* habits
+    private String toFrequency(Frequency frequency) {
+        boolean multiple = frequency.getTimes() > 1;
+        switch (frequency.getTimeUnit()) {
+            case WEEKLY:
+                return multiple ? "X_TIMES_PER_WEEK" : "WEEKLY";
+            case MONTHLY:
+                return multiple ? "X_TIMES_PER_MONTH" : "MONTHLY";
+            default:
+                return "DAILY";
+        }
+    }
+
+    private String toSchedule(Frequency frequency) {
+        if (frequency.getTimes() > 1 && frequency.getTimeUnit() != Frequency.TimeUnit.DAILY) {
+            return "{\"times\":" + frequency.getTimes() + "}";
+        }
+        return null;
+    }
+
+    private Frequency toProtoFrequency(String frequency, String schedule) {
+        switch (frequency.toUpperCase()) {
+            case "WEEKLY":
+                return Frequency.newBuilder().setTimeUnit(Frequency.TimeUnit.WEEKLY).setTimes(1).build();
+            case "MONTHLY":
+                return Frequency.newBuilder().setTimeUnit(Frequency.TimeUnit.MONTHLY).setTimes(1).build();
+            case "X_TIMES_PER_WEEK":
+                return Frequency.newBuilder().setTimeUnit(Frequency.TimeUnit.WEEKLY).setTimes(readTimes(schedule)).build();
+            case "X_TIMES_PER_MONTH":
+                return Frequency.newBuilder().setTimeUnit(Frequency.TimeUnit.MONTHLY).setTimes(readTimes(schedule)).build();
+            default:
+                return Frequency.newBuilder().setTimeUnit(Frequency.TimeUnit.DAILY).setTimes(1).build();
+        }
+    }
+
+    private int readTimes(String schedule) {
+        try {
+            JsonNode times = objectMapper.readTree(schedule).get("times");
+            return times != null ? times.asInt() : 1;
+        } catch (Exception e) {
+            log.warn("Could not read times from schedule: {}", schedule);
+            return 1;
+        }
+    }
+}
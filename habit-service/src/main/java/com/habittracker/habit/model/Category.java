@@ -19,7 +19,7 @@ import java.util.UUID;
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @NotNull
@@ -0,0 +1,53 @@
+package com.habittracker.habit.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.util.Objects;
+
+/**
+ * Immutable, pre-parsed form of a habit's frequency and schedule JSON. Built once per habit
+ * version so schedule computations never touch the JSON or the frequency string.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CompiledSchedule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY, X_TIMES_PER_WEEK, X_TIMES_PER_MONTH, SPECIFIC_DAYS, CUSTOM
+    }
+
+    private final Frequency frequency;
+
+    private final int timesPerPeriod;   // X_TIMES_PER_WEEK / X_TIMES_PER_MONTH
+
+    private final int daysMask;         // SPECIFIC_DAYS, bit (dayOfWeek - 1) set for each scheduled day
+
+    private final int intervalDays;     // CUSTOM
+
+    // Source values the schedule was compiled from, used to detect stale cache entries
+    @Getter(AccessLevel.NONE)
+    private final String sourceFrequency;
+
+    @Getter(AccessLevel.NONE)
+    private final String sourceSchedule;
+
+    public static CompiledSchedule of(Frequency frequency, int timesPerPeriod, int daysMask, int intervalDays,
+                                      String sourceFrequency, String sourceSchedule) {
+        return new CompiledSchedule(frequency, timesPerPeriod, daysMask, intervalDays, sourceFrequency, sourceSchedule);
+    }
+
+    public static int maskOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public boolean isScheduledOn(DayOfWeek day) {
+        return (daysMask & maskOf(day)) != 0;
+    }
+
+    public boolean isCompiledFrom(String frequency, String schedule) {
+        return Objects.equals(sourceFrequency, frequency) && Objects.equals(sourceSchedule, schedule);
+    }
+}
@@ -14,6 +14,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "habits")
+@NamedEntityGraph(name = Habit.WITH_CATEGORY_AND_STREAK, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("streak")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,8 +25,14 @@ import java.util.UUID;
 @Builder
 public class Habit {
     
+    /**
+     * Everything HabitMapper.toResponseDTO reads, loaded in one join. The streak is the inverse
+     * side of a one-to-one and cannot be lazy, so without the graph it costs a query per habit.
+     */
+    public static final String WITH_CATEGORY_AND_STREAK = "Habit.withCategoryAndStreak";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @NotNull
@@ -43,6 +53,9 @@ public class Habit {
     @Column(name = "time_of_day")
     private String timeOfDay;  // MORNING, AFTERNOON, EVENING, ANY, or specific time
     
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone;   // IANA zone id of the owner, e.g. Europe/Berlin
+    
     private Integer priority;  // 1-5 scale
     
     private String color;
@@ -57,7 +70,7 @@ public class Habit {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
     
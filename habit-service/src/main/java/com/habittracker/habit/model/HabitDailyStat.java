@@ -0,0 +1,60 @@
+package com.habittracker.habit.model;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per-habit, per-day rollup of tracking records. Maintained incrementally on every
+ * completion so analytics can aggregate days instead of individual records.
+ */
+@Entity
+@Table(name = "habit_daily_stats")
+@IdClass(HabitDailyStat.HabitDailyStatId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HabitDailyStat {
+
+    @Id
+    @Column(name = "habit_id")
+    private UUID habitId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "completion_count", nullable = false)
+    private Integer completionCount;
+
+    @Column(name = "total_duration_minutes", nullable = false)
+    private Integer totalDurationMinutes;
+
+    @Column(name = "mood_rating_sum", nullable = false)
+    private Integer moodRatingSum;
+
+    @Column(name = "mood_rating_count", nullable = false)
+    private Integer moodRatingCount;
+
+    @Column(name = "difficulty_rating_sum", nullable = false)
+    private Integer difficultyRatingSum;
+
+    @Column(name = "difficulty_rating_count", nullable = false)
+    private Integer difficultyRatingCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HabitDailyStatId implements Serializable {
+        private UUID habitId;
+        private LocalDate statDate;
+    }
+}
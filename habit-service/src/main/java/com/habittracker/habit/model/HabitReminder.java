@@ -16,7 +16,7 @@ import java.util.UUID;
 public class HabitReminder {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @ManyToOne
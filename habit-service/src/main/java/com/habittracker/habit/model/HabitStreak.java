@@ -1,8 +1,10 @@
 package com.habittracker.habit.model;
 
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -13,7 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class HabitStreak {
+public class HabitStreak implements Persistable<UUID> {
     
     @Id
     private UUID habitId;
@@ -23,6 +25,9 @@ public class HabitStreak {
     @JoinColumn(name = "habit_id")
     private Habit habit;
     
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;  // Denormalized from the habit for per-user rankings
+    
     @Column(name = "current_streak")
     private Integer currentStreak;
     
@@ -33,8 +38,46 @@ public class HabitStreak {
     private LocalDateTime lastCompletedAt;
     
     @Column(name = "next_due_at")
-    private LocalDateTime nextDueAt;
+    private LocalDateTime nextDueAt;  // Midnight ending the due day in the habit's zone
     
     @Column(name = "completion_rate")
     private Double completionRate;
+    
+    @Column(name = "total_completions")
+    private Integer totalCompletions;  // Every tracking record of the habit, whatever its completedAt
+    
+    @Column(name = "expected_completions")
+    private Integer expectedCompletions;
+    
+    @Column(name = "expected_as_of")
+    private LocalDateTime expectedAsOf;  // Watermark up to which expectedCompletions has been counted
+    
+    @Column(name = "period_start")
+    private LocalDate periodStart;  // Start of the week or month counted by periodCompletions
+    
+    @Column(name = "period_completions")
+    private Integer periodCompletions;
+    
+    // The id is copied from the habit, so Spring Data cannot tell a new streak from a stored one
+    // by a null id; without this every save of a new streak becomes a SELECT followed by a merge
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+    
+    @Override
+    public UUID getId() {
+        return habitId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -18,13 +18,16 @@ import java.util.UUID;
 public class HabitTrackingRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @ManyToOne
     @JoinColumn(name = "habit_id", nullable = false)
     private Habit habit;
     
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;  // Denormalized from the habit for per-user range queries
+    
     @Column(name = "completed_at", nullable = false)
     private LocalDateTime completedAt;
     
@@ -0,0 +1,11 @@
+package com.habittracker.habit.model;
+
+/**
+ * What a leaderboard ranks users by. Each user is scored by their best habit for the streak
+ * metrics and by the average over their habits for the completion rate.
+ */
+public enum LeaderboardMetric {
+    CURRENT_STREAK,
+    BEST_STREAK,
+    COMPLETION_RATE
+}
@@ -0,0 +1,19 @@
+package com.habittracker.habit.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a UUIDv7 identifier in the application when the entity is persisted. Ids are known
+ * before the INSERT, so inserts can be batched, and they sort by creation time, so new rows land
+ * at the right edge of the primary-key index instead of on random pages.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeOrderedUuid {
+}
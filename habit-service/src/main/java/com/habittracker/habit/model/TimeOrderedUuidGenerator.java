@@ -0,0 +1,46 @@
+package com.habittracker.habit.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562): 48 bits of Unix epoch milliseconds, the version, a 12-bit counter and 62
+ * random bits. The counter restarts at a random value each millisecond and keeps ids generated
+ * by this JVM strictly increasing within one; when it overflows the timestamp is borrowed from
+ * the next millisecond.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Last timestamp and counter, packed as (millis << 12) | counter
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID generate() {
+        long millis = System.currentTimeMillis();
+        // Leave half the counter range as headroom for ids generated in the same millisecond
+        long seed = (millis << 12) | RANDOM.nextInt(1 << 11);
+        long state = LAST.updateAndGet(last -> Math.max(seed, last + 1));
+
+        long mostSigBits = ((state >>> 12) << 16) | 0x7000L | (state & 0xFFFL);
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
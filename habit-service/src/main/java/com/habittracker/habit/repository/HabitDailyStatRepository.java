@@ -0,0 +1,90 @@
+package com.habittracker.habit.repository;
+
+import com.habittracker.habit.model.HabitDailyStat;
+import com.habittracker.habit.repository.projection.CategoryCompletionTotals;
+import com.habittracker.habit.repository.projection.HabitStatTotals;
+import com.habittracker.habit.repository.projection.HabitWeeklyCompletions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HabitDailyStatRepository extends JpaRepository<HabitDailyStat, HabitDailyStat.HabitDailyStatId>,
+        HabitDailyStatRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO habit_daily_stats (habit_id, stat_date, user_id, completion_count, " +
+           "total_duration_minutes, mood_rating_sum, mood_rating_count, difficulty_rating_sum, difficulty_rating_count) " +
+           "VALUES (:habitId, :statDate, :userId, 1, :durationMinutes, :moodRating, :moodCount, :difficultyRating, :difficultyCount) " +
+           "ON CONFLICT (habit_id, stat_date) DO UPDATE SET " +
+           "completion_count = habit_daily_stats.completion_count + 1, " +
+           "total_duration_minutes = habit_daily_stats.total_duration_minutes + EXCLUDED.total_duration_minutes, " +
+           "mood_rating_sum = habit_daily_stats.mood_rating_sum + EXCLUDED.mood_rating_sum, " +
+           "mood_rating_count = habit_daily_stats.mood_rating_count + EXCLUDED.mood_rating_count, " +
+           "difficulty_rating_sum = habit_daily_stats.difficulty_rating_sum + EXCLUDED.difficulty_rating_sum, " +
+           "difficulty_rating_count = habit_daily_stats.difficulty_rating_count + EXCLUDED.difficulty_rating_count",
+           nativeQuery = true)
+    void upsertCompletion(UUID habitId, UUID userId, LocalDate statDate, int durationMinutes,
+                          int moodRating, int moodCount, int difficultyRating, int difficultyCount);
+
+    @Modifying
+    @Query("DELETE FROM HabitDailyStat s WHERE s.habitId IN :habitIds")
+    int deleteForHabits(List<UUID> habitIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO habit_daily_stats (habit_id, stat_date, user_id, completion_count, " +
+           "total_duration_minutes, mood_rating_sum, mood_rating_count, difficulty_rating_sum, difficulty_rating_count) " +
+           "SELECT r.habit_id, CAST(r.completed_at AS DATE), h.user_id, COUNT(*), " +
+           "COALESCE(SUM(r.duration_minutes), 0), COALESCE(SUM(r.mood_rating), 0), COUNT(r.mood_rating), " +
+           "COALESCE(SUM(r.difficulty_rating), 0), COUNT(r.difficulty_rating) " +
+           "FROM habit_tracking_records r JOIN habits h ON h.id = r.habit_id " +
+           "WHERE r.habit_id IN (:habitIds) " +
+           "GROUP BY r.habit_id, CAST(r.completed_at AS DATE), h.user_id " +
+           "ON CONFLICT (habit_id, stat_date) DO UPDATE SET " +
+           "completion_count = EXCLUDED.completion_count, " +
+           "total_duration_minutes = EXCLUDED.total_duration_minutes, " +
+           "mood_rating_sum = EXCLUDED.mood_rating_sum, " +
+           "mood_rating_count = EXCLUDED.mood_rating_count, " +
+           "difficulty_rating_sum = EXCLUDED.difficulty_rating_sum, " +
+           "difficulty_rating_count = EXCLUDED.difficulty_rating_count",
+           nativeQuery = true)
+    int rebuildForHabits(List<UUID> habitIds);
+
+    @Query("SELECT COALESCE(SUM(s.completionCount), 0) FROM HabitDailyStat s " +
+           "WHERE s.userId = :userId AND s.statDate BETWEEN :from AND :to")
+    Long sumCompletionsByUserIdBetween(UUID userId, LocalDate from, LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(s.completionCount), 0) FROM HabitDailyStat s " +
+           "WHERE s.habitId = :habitId AND s.statDate BETWEEN :from AND :to")
+    Long sumCompletionsByHabitIdBetween(UUID habitId, LocalDate from, LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(s.completionCount), 0) AS completionCount, " +
+           "COALESCE(SUM(s.totalDurationMinutes), 0) AS totalDurationMinutes, " +
+           "COALESCE(SUM(s.moodRatingSum), 0) AS moodRatingSum, " +
+           "COALESCE(SUM(s.moodRatingCount), 0) AS moodRatingCount, " +
+           "COALESCE(SUM(s.difficultyRatingSum), 0) AS difficultyRatingSum, " +
+           "COALESCE(SUM(s.difficultyRatingCount), 0) AS difficultyRatingCount " +
+           "FROM HabitDailyStat s WHERE s.habitId = :habitId AND s.statDate BETWEEN :from AND :to")
+    HabitStatTotals getTotalsByHabitIdBetween(UUID habitId, LocalDate from, LocalDate to);
+
+    @Query("SELECT c.name AS categoryName, COUNT(DISTINCT h.id) AS habitCount, " +
+           "COALESCE(SUM(s.completionCount), 0) AS completionCount " +
+           "FROM Habit h LEFT JOIN h.category c " +
+           "LEFT JOIN HabitDailyStat s ON s.habitId = h.id AND s.statDate BETWEEN :from AND :to " +
+           "WHERE h.userId = :userId GROUP BY c.name")
+    List<CategoryCompletionTotals> getCategoryTotalsByUserIdBetween(UUID userId, LocalDate from, LocalDate to);
+
+    @Query("SELECT s.habitId AS habitId, " +
+           "SUM(CASE WHEN s.statDate > :previousWeekEnd THEN s.completionCount ELSE 0 END) AS lastWeekCompletions, " +
+           "SUM(CASE WHEN s.statDate <= :previousWeekEnd THEN s.completionCount ELSE 0 END) AS previousWeekCompletions " +
+           "FROM HabitDailyStat s WHERE s.userId = :userId AND s.statDate BETWEEN :from AND :to " +
+           "GROUP BY s.habitId")
+    List<HabitWeeklyCompletions> getWeeklyCompletionsByUserId(UUID userId, LocalDate from, LocalDate previousWeekEnd, LocalDate to);
+}
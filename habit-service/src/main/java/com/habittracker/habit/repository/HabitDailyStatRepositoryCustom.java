@@ -0,0 +1,13 @@
+package com.habittracker.habit.repository;
+
+import com.habittracker.habit.model.HabitDailyStat;
+
+import java.util.List;
+
+public interface HabitDailyStatRepositoryCustom {
+    
+    /**
+     * Adds each increment to its habit/day row, creating missing rows, with JDBC statement batching.
+     */
+    void batchUpsertIncrements(List<HabitDailyStat> increments);
+}
@@ -0,0 +1,45 @@
+package com.habittracker.habit.repository;
+
+import com.habittracker.habit.model.HabitDailyStat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class HabitDailyStatRepositoryCustomImpl implements HabitDailyStatRepositoryCustom {
+
+    private static final String UPSERT_SQL = "INSERT INTO habit_daily_stats (habit_id, stat_date, user_id, " +
+            "completion_count, total_duration_minutes, mood_rating_sum, mood_rating_count, " +
+            "difficulty_rating_sum, difficulty_rating_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (habit_id, stat_date) DO UPDATE SET " +
+            "completion_count = habit_daily_stats.completion_count + EXCLUDED.completion_count, " +
+            "total_duration_minutes = habit_daily_stats.total_duration_minutes + EXCLUDED.total_duration_minutes, " +
+            "mood_rating_sum = habit_daily_stats.mood_rating_sum + EXCLUDED.mood_rating_sum, " +
+            "mood_rating_count = habit_daily_stats.mood_rating_count + EXCLUDED.mood_rating_count, " +
+            "difficulty_rating_sum = habit_daily_stats.difficulty_rating_sum + EXCLUDED.difficulty_rating_sum, " +
+            "difficulty_rating_count = habit_daily_stats.difficulty_rating_count + EXCLUDED.difficulty_rating_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.tracking.batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public void batchUpsertIncrements(List<HabitDailyStat> increments) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, increments, batchSize, (ps, stat) -> {
+            ps.setObject(1, stat.getHabitId());
+            ps.setDate(2, Date.valueOf(stat.getStatDate()));
+            ps.setObject(3, stat.getUserId());
+            ps.setInt(4, stat.getCompletionCount());
+            ps.setInt(5, stat.getTotalDurationMinutes());
+            ps.setInt(6, stat.getMoodRatingSum());
+            ps.setInt(7, stat.getMoodRatingCount());
+            ps.setInt(8, stat.getDifficultyRatingSum());
+            ps.setInt(9, stat.getDifficultyRatingCount());
+        });
+    }
+}
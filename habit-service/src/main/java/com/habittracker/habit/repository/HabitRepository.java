@@ -1,29 +1,67 @@
 package com.habittracker.habit.repository;
 
 import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.repository.projection.HabitSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface HabitRepository extends JpaRepository<Habit, UUID> {
     
+    String SUMMARY_SELECT = "SELECT h.id AS id, h.userId AS userId, h.name AS name, h.description AS description, " +
+            "h.frequency AS frequency, h.schedule AS schedule, h.priority AS priority, h.color AS color, " +
+            "h.icon AS icon, h.timeZone AS timeZone, h.createdAt AS createdAt, h.updatedAt AS updatedAt, " +
+            "c.id AS categoryId, c.name AS categoryName, s.currentStreak AS currentStreak, " +
+            "s.bestStreak AS bestStreak, s.completionRate AS completionRate, s.nextDueAt AS nextDueAt " +
+            "FROM Habit h LEFT JOIN h.category c LEFT JOIN h.streak s ";
+    
+    @Override
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
+    Optional<Habit> findById(UUID id);
+    
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
     List<Habit> findAllByUserId(UUID userId);
     
+    long countByUserId(UUID userId);
+    
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
+    @Query("SELECT h FROM Habit h WHERE h.userId = :userId")
+    List<Habit> findAllWithCategoryAndStreakByUserId(UUID userId);
+    
     List<Habit> findAllByUserIdAndCategoryId(UUID userId, UUID categoryId);
     
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
     @Query("SELECT h FROM Habit h WHERE h.userId = :userId")
     Page<Habit> findAllByUserIdPaged(UUID userId, Pageable pageable);
     
+    @Query(value = SUMMARY_SELECT + "WHERE h.userId = :userId",
+           countQuery = "SELECT COUNT(h) FROM Habit h WHERE h.userId = :userId")
+    Page<HabitSummary> findSummariesByUserId(UUID userId, Pageable pageable);
+    
+    // Keyset slices, newest first; backed by idx_habits_user_created
+    @Query(SUMMARY_SELECT + "WHERE h.userId = :userId ORDER BY h.createdAt DESC, h.id DESC")
+    List<HabitSummary> findLatestSummariesByUserId(UUID userId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE h.userId = :userId " +
+           "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+           "ORDER BY h.createdAt DESC, h.id DESC")
+    List<HabitSummary> findSummariesByUserIdBefore(UUID userId, LocalDateTime createdAt, UUID id, Pageable pageable);
+    
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
     @Query("SELECT h FROM Habit h WHERE h.userId = :userId AND h.category.id = :categoryId")
     Page<Habit> findAllByUserIdAndCategoryIdPaged(UUID userId, UUID categoryId, Pageable pageable);
     
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
     @Query("SELECT h FROM Habit h JOIN h.streak s WHERE h.userId = :userId AND s.nextDueAt <= :currentTime")
     List<Habit> findDueHabits(UUID userId, LocalDateTime currentTime);
     
@@ -33,10 +71,20 @@ public interface HabitRepository extends JpaRepository<Habit, UUID> {
     @Query("SELECT h FROM Habit h WHERE h.userId = :userId AND h.createdAt BETWEEN :startDate AND :endDate")
     List<Habit> findByUserIdAndCreatedAtBetween(UUID userId, LocalDateTime startDate, LocalDateTime endDate);
     
+    @EntityGraph(Habit.WITH_CATEGORY_AND_STREAK)
     @Query("SELECT h FROM Habit h WHERE h.userId = :userId AND h.priority >= :minPriority ORDER BY h.priority DESC")
     List<Habit> findByUserIdAndMinimumPriority(UUID userId, Integer minPriority);
     
     @Query("SELECT h FROM Habit h LEFT JOIN h.trackingRecords r WHERE h.userId = :userId " +
            "GROUP BY h HAVING COUNT(r) = 0")
     List<Habit> findUnusedHabitsByUserId(UUID userId);
+    
+    @Query("SELECT h.id FROM Habit h WHERE h.id > :afterId ORDER BY h.id ASC")
+    List<UUID> findIdsAfter(UUID afterId, Pageable pageable);
+    
+    @Query("SELECT DISTINCT h.timeZone FROM Habit h")
+    List<String> findDistinctTimeZones();
+    
+    @Query("SELECT DISTINCT h.userId FROM Habit h WHERE h.id IN :habitIds")
+    List<UUID> findDistinctUserIdsByIdIn(Collection<UUID> habitIds);
 }
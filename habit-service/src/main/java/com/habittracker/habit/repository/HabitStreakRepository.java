@@ -1,11 +1,16 @@
 package com.habittracker.habit.repository;
 
 import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.repository.projection.HabitStreakRanking;
+import com.habittracker.habit.repository.projection.UserStreakScores;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,28 +18,65 @@ import java.util.UUID;
 @Repository
 public interface HabitStreakRepository extends JpaRepository<HabitStreak, UUID> {
     
+    String RANKING_SELECT = "SELECT s.habitId AS habitId, h.name AS habitName, s.currentStreak AS currentStreak, " +
+            "s.bestStreak AS bestStreak, s.completionRate AS completionRate, s.lastCompletedAt AS lastCompletedAt " +
+            "FROM HabitStreak s JOIN s.habit h ";
+    
     Optional<HabitStreak> findByHabitId(UUID habitId);
     
     @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId")
     List<HabitStreak> findByUserId(UUID userId);
     
-    @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId ORDER BY s.currentStreak DESC")
-    List<HabitStreak> findByUserIdOrderByCurrentStreakDesc(UUID userId);
+    @Query(RANKING_SELECT + "WHERE s.userId = :userId ORDER BY s.currentStreak DESC")
+    List<HabitStreakRanking> findTopByCurrentStreak(UUID userId, Pageable pageable);
+    
+    @Query(RANKING_SELECT + "WHERE s.userId = :userId ORDER BY s.bestStreak DESC")
+    List<HabitStreakRanking> findTopByBestStreak(UUID userId, Pageable pageable);
     
-    @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId ORDER BY s.bestStreak DESC")
-    List<HabitStreak> findByUserIdOrderByBestStreakDesc(UUID userId);
+    @Query("SELECT s.habitId FROM HabitStreak s JOIN s.habit h WHERE h.timeZone IN :timeZones " +
+           "AND s.habitId > :afterId AND s.currentStreak > 0 AND s.nextDueAt <= :currentTime ORDER BY s.habitId ASC")
+    List<UUID> findExpiredHabitIdsAfter(List<String> timeZones, UUID afterId, LocalDateTime currentTime, Pageable pageable);
     
-    @Query("SELECT s FROM HabitStreak s WHERE s.nextDueAt < :currentTime AND s.currentStreak > 0")
-    List<HabitStreak> findStreaksToReset(LocalDateTime currentTime);
+    @Modifying
+    @Query("UPDATE HabitStreak s SET s.currentStreak = 0 WHERE s.habitId IN :habitIds " +
+           "AND s.currentStreak > 0 AND s.nextDueAt <= :currentTime")
+    int resetExpiredStreaks(List<UUID> habitIds, LocalDateTime currentTime);
     
-    @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId AND s.completionRate BETWEEN :minRate AND :maxRate")
-    List<HabitStreak> findByCompletionRateRange(UUID userId, Double minRate, Double maxRate);
+    @Query(RANKING_SELECT + "WHERE s.userId = :userId AND s.completionRate BETWEEN :minRate AND :maxRate " +
+           "ORDER BY s.completionRate ASC")
+    List<HabitStreakRanking> findTopByCompletionRateRange(UUID userId, Double minRate, Double maxRate, Pageable pageable);
     
     @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId AND s.currentStreak = 0 " +
            "AND s.lastCompletedAt > :since")
     List<HabitStreak> findRecentlyBrokenStreaks(UUID userId, LocalDateTime since);
     
-    @Query("SELECT s FROM HabitStreak s JOIN s.habit h WHERE h.userId = :userId " +
-           "ORDER BY (s.currentStreak * 1.0 / h.priority) DESC")
-    List<HabitStreak> findStreaksByEfficiency(UUID userId);
+    // Habits without a priority have no efficiency and rank last
+    @Query(RANKING_SELECT + "WHERE s.userId = :userId " +
+           "ORDER BY (s.currentStreak * 1.0 / NULLIF(h.priority, 0)) DESC NULLS LAST")
+    List<HabitStreakRanking> findTopByEfficiency(UUID userId, Pageable pageable);
+    
+    @Query("SELECT s.userId AS userId, MAX(s.currentStreak) AS currentStreak, MAX(s.bestStreak) AS bestStreak, " +
+           "AVG(s.completionRate) AS completionRate FROM HabitStreak s WHERE s.userId IN :userIds GROUP BY s.userId")
+    List<UserStreakScores> findScoresByUserIdIn(Collection<UUID> userIds);
+    
+    @Query("SELECT s.userId AS userId, MAX(s.currentStreak) AS currentStreak, MAX(s.bestStreak) AS bestStreak, " +
+           "AVG(s.completionRate) AS completionRate FROM HabitStreak s WHERE s.userId > :afterId " +
+           "GROUP BY s.userId ORDER BY s.userId ASC")
+    List<UserStreakScores> findScoresAfter(UUID afterId, Pageable pageable);
+    
+    @Query("SELECT s.habitId FROM HabitStreak s WHERE s.habitId > :afterId ORDER BY s.habitId ASC")
+    List<UUID> findHabitIdsAfter(UUID afterId, Pageable pageable);
+    
+    @Query("SELECT s FROM HabitStreak s JOIN FETCH s.habit WHERE s.habitId IN :habitIds")
+    List<HabitStreak> findAllWithHabitByHabitIdIn(List<UUID> habitIds);
+    
+    // Writes only the counter columns, and only while the watermark is the one that was read,
+    // so a check-in committed in the meantime keeps its streak fields and its counters
+    @Modifying
+    @Query("UPDATE HabitStreak s SET s.totalCompletions = :totalCompletions, " +
+           "s.expectedCompletions = :expectedCompletions, s.expectedAsOf = :expectedAsOf, " +
+           "s.completionRate = :completionRate WHERE s.habitId = :habitId " +
+           "AND (s.expectedAsOf = :readAsOf OR (s.expectedAsOf IS NULL AND :readAsOf IS NULL))")
+    int updateCompletionCounters(UUID habitId, int totalCompletions, int expectedCompletions,
+                                 LocalDateTime expectedAsOf, double completionRate, LocalDateTime readAsOf);
 }
@@ -1,35 +1,72 @@
 package com.habittracker.habit.repository;
 
 import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.projection.TrackingRecordSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface HabitTrackingRecordRepository extends JpaRepository<HabitTrackingRecord, String> {
+public interface HabitTrackingRecordRepository extends JpaRepository<HabitTrackingRecord, String>,
+        HabitTrackingRecordRepositoryCustom {
+    
+    String HISTORY_SELECT = "SELECT r.id AS id, r.completedAt AS completedAt, r.notes AS notes, " +
+            "r.durationMinutes AS durationMinutes, r.moodRating AS moodRating, " +
+            "r.difficultyRating AS difficultyRating FROM HabitTrackingRecord r WHERE r.habit.id = :habitId ";
     
     List<HabitTrackingRecord> findByHabitId(UUID habitId);
     
+    long countByHabitId(UUID habitId);
+    
     @Query("SELECT r FROM HabitTrackingRecord r WHERE r.habit.id = :habitId AND r.completedAt BETWEEN :start AND :end ORDER BY r.completedAt DESC")
     List<HabitTrackingRecord> findByHabitIdAndCompletedAtBetween(UUID habitId, LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT r FROM HabitTrackingRecord r WHERE r.habit.userId = :userId AND r.completedAt BETWEEN :start AND :end ORDER BY r.completedAt DESC")
+    @Query("SELECT r FROM HabitTrackingRecord r WHERE r.userId = :userId AND r.completedAt BETWEEN :start AND :end ORDER BY r.completedAt DESC")
     List<HabitTrackingRecord> findByUserIdAndCompletedAtBetween(UUID userId, LocalDateTime start, LocalDateTime end);
     
     @Query("SELECT COUNT(r) FROM HabitTrackingRecord r WHERE r.habit.id = :habitId AND r.completedAt BETWEEN :start AND :end")
     Long countCompletionsInRange(UUID habitId, LocalDateTime start, LocalDateTime end);
     
+    @Query("SELECT r.habit.id, COUNT(r) FROM HabitTrackingRecord r WHERE r.habit.id IN :habitIds GROUP BY r.habit.id")
+    List<Object[]> countCompletionsByHabitIds(List<UUID> habitIds);
+    
     @Query("SELECT r FROM HabitTrackingRecord r WHERE r.habit.id = :habitId ORDER BY r.completedAt DESC LIMIT 1")
     Optional<HabitTrackingRecord> findMostRecentByHabitId(UUID habitId);
     
-    @Query("SELECT r.habit.id, COUNT(r) as count, AVG(r.difficultyRating) as avgDifficulty, AVG(r.moodRating) as avgMood " +
+    @Query("SELECT r.habit.id, COUNT(*) as count, AVG(r.difficultyRating) as avgDifficulty, AVG(r.moodRating) as avgMood " +
            "FROM HabitTrackingRecord r " +
-           "WHERE r.habit.userId = :userId AND r.completedAt BETWEEN :start AND :end " +
+           "WHERE r.userId = :userId AND r.completedAt BETWEEN :start AND :end " +
            "GROUP BY r.habit.id")
     List<Object[]> getCompletionStatsByUserIdBetweenDates(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT EXTRACT(HOUR FROM r.completedAt), COUNT(*) FROM HabitTrackingRecord r " +
+           "WHERE r.userId = :userId AND r.completedAt BETWEEN :start AND :end " +
+           "GROUP BY EXTRACT(HOUR FROM r.completedAt)")
+    List<Object[]> countCompletionsByHourOfDay(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT CAST(r.completedAt AS LocalDate), COUNT(*) FROM HabitTrackingRecord r " +
+           "WHERE r.userId = :userId AND r.completedAt BETWEEN :start AND :end " +
+           "GROUP BY CAST(r.completedAt AS LocalDate)")
+    Stream<Object[]> streamDailyCompletionCounts(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    // Keyset slices of a habit's history, newest first; backed by idx_records_habit_completed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HISTORY_SELECT + "ORDER BY r.completedAt DESC, r.id DESC")
+    Stream<TrackingRecordSummary> streamLatestHistory(UUID habitId, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HISTORY_SELECT + "AND (r.completedAt < :completedAt OR (r.completedAt = :completedAt AND r.id < :id)) " +
+           "ORDER BY r.completedAt DESC, r.id DESC")
+    Stream<TrackingRecordSummary> streamHistoryBefore(UUID habitId, LocalDateTime completedAt, UUID id, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.habittracker.habit.repository;
+
+import com.habittracker.habit.model.HabitTrackingRecord;
+
+import java.util.List;
+
+public interface HabitTrackingRecordRepositoryCustom {
+    
+    /**
+     * Inserts records with JDBC statement batching. Records must already carry their id and habit.
+     */
+    void batchInsert(List<HabitTrackingRecord> records);
+}
@@ -0,0 +1,37 @@
+package com.habittracker.habit.repository;
+
+import com.habittracker.habit.model.HabitTrackingRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class HabitTrackingRecordRepositoryCustomImpl implements HabitTrackingRecordRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO habit_tracking_records " +
+            "(id, habit_id, user_id, completed_at, notes, duration_minutes, mood_rating, difficulty_rating) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.tracking.batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public void batchInsert(List<HabitTrackingRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, batchSize, (ps, record) -> {
+            ps.setObject(1, record.getId());
+            ps.setObject(2, record.getHabit().getId());
+            ps.setObject(3, record.getUserId());
+            ps.setTimestamp(4, Timestamp.valueOf(record.getCompletedAt()));
+            ps.setString(5, record.getNotes());
+            ps.setObject(6, record.getDurationMinutes(), Types.INTEGER);
+            ps.setObject(7, record.getMoodRating(), Types.INTEGER);
+            ps.setObject(8, record.getDifficultyRating(), Types.INTEGER);
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.habittracker.habit.repository.projection;
+
+/**
+ * Habit and completion counts for one of a user's categories; a {@code null} category name
+ * stands for habits without a category.
+ */
+public interface CategoryCompletionTotals {
+
+    String getCategoryName();
+
+    Long getHabitCount();
+
+    Long getCompletionCount();
+}
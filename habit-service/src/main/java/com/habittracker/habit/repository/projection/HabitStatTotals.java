@@ -0,0 +1,19 @@
+package com.habittracker.habit.repository.projection;
+
+/**
+ * Aggregated totals over a range of {@code habit_daily_stats} rows.
+ */
+public interface HabitStatTotals {
+
+    Long getCompletionCount();
+
+    Long getTotalDurationMinutes();
+
+    Long getMoodRatingSum();
+
+    Long getMoodRatingCount();
+
+    Long getDifficultyRatingSum();
+
+    Long getDifficultyRatingCount();
+}
@@ -0,0 +1,22 @@
+package com.habittracker.habit.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Streak columns and habit name of one row in a per-user streak ranking.
+ */
+public interface HabitStreakRanking {
+
+    UUID getHabitId();
+
+    String getHabitName();
+
+    Integer getCurrentStreak();
+
+    Integer getBestStreak();
+
+    Double getCompletionRate();
+
+    LocalDateTime getLastCompletedAt();
+}
@@ -0,0 +1,47 @@
+package com.habittracker.habit.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row of the habit listing: exactly the HabitResponseDTO columns, selected from the
+ * habit joined with its category and streak.
+ */
+public interface HabitSummary {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    String getName();
+
+    String getDescription();
+
+    String getFrequency();
+
+    String getSchedule();
+
+    Integer getPriority();
+
+    String getColor();
+
+    String getIcon();
+
+    String getTimeZone();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+
+    Integer getCurrentStreak();
+
+    Integer getBestStreak();
+
+    Double getCompletionRate();
+
+    LocalDateTime getNextDueAt();
+}
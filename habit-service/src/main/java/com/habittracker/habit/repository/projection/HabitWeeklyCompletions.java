@@ -0,0 +1,15 @@
+package com.habittracker.habit.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Per-habit completions for the last seven days and the seven days before them.
+ */
+public interface HabitWeeklyCompletions {
+
+    UUID getHabitId();
+
+    Long getLastWeekCompletions();
+
+    Long getPreviousWeekCompletions();
+}
@@ -0,0 +1,22 @@
+package com.habittracker.habit.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row of a habit's tracking history, selected without loading the habit.
+ */
+public interface TrackingRecordSummary {
+
+    UUID getId();
+
+    LocalDateTime getCompletedAt();
+
+    String getNotes();
+
+    Integer getDurationMinutes();
+
+    Integer getMoodRating();
+
+    Integer getDifficultyRating();
+}
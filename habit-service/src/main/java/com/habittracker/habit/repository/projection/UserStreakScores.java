@@ -0,0 +1,17 @@
+package com.habittracker.habit.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A user's leaderboard scores aggregated over all of their habit streaks.
+ */
+public interface UserStreakScores {
+
+    UUID getUserId();
+
+    Integer getCurrentStreak();
+
+    Integer getBestStreak();
+
+    Double getCompletionRate();
+}
@@ -0,0 +1,69 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.service.HabitStreakService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recomputes the running completion counters on every streak from the tracking history,
+ * repairing any drift left by the incremental check-in path. Each chunk of streaks is
+ * reconciled in its own transaction, and only the replica holding the lease runs the job.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompletionRateReconciliationJob {
+
+    static final String LOCK_NAME = "completion-rate-reconciliation";
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final HabitStreakRepository streakRepository;
+    private final HabitStreakService streakService;
+    private final SchedulerLock schedulerLock;
+
+    @Value("${application.streaks.reconciliation.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${application.streaks.reconciliation.lease-minutes:60}")
+    private long leaseMinutes;
+
+    @Scheduled(cron = "${application.streaks.reconciliation.cron:0 30 3 * * ?}")
+    public void reconcile() {
+        if (!schedulerLock.tryAcquire(LOCK_NAME, Duration.ofMinutes(leaseMinutes))) {
+            log.info("Skipping completion counter reconciliation, another instance holds the lease");
+            return;
+        }
+        
+        try {
+            reconcileAll();
+        } finally {
+            schedulerLock.release(LOCK_NAME);
+        }
+    }
+
+    private void reconcileAll() {
+        int processed = 0;
+        int repaired = 0;
+        
+        List<UUID> habitIds = streakRepository.findHabitIdsAfter(MIN_UUID, PageRequest.of(0, chunkSize));
+        while (!habitIds.isEmpty()) {
+            repaired += streakService.reconcileCompletionCounters(habitIds);
+            processed += habitIds.size();
+            
+            UUID lastId = habitIds.get(habitIds.size() - 1);
+            habitIds = streakRepository.findHabitIdsAfter(lastId, PageRequest.of(0, chunkSize));
+        }
+        
+        log.info("Completion counter reconciliation finished: {} streaks checked, {} repaired", processed, repaired);
+    }
+}
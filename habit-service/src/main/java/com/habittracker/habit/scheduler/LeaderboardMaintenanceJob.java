@@ -0,0 +1,30 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snapshots the in-memory leaderboard to local disk and periodically rebuilds it from the streak
+ * table. Every replica holds its own leaderboard, so no lease is taken.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardMaintenanceJob {
+
+    private final LeaderboardService leaderboardService;
+
+    @Scheduled(cron = "${application.leaderboard.snapshot-cron:0 0/5 * * * ?}")
+    public void writeSnapshot() {
+        leaderboardService.writeSnapshot();
+    }
+
+    /**
+     * Picks up streak changes made on other replicas and heals any refresh applied out of order.
+     */
+    @Scheduled(cron = "${application.leaderboard.rebuild-cron:0 45 * * * ?}")
+    public void rebuild() {
+        leaderboardService.rebuild();
+    }
+}
@@ -0,0 +1,71 @@
+package com.habittracker.habit.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease-based lock backed by the scheduler_locks table. A replica holds a named lease until it
+ * releases it or the lease expires, so a crashed node never blocks the job for longer than the
+ * lease duration. Statements run outside any surrounding transaction and commit immediately.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLock {
+
+    private static final String ACQUIRE_SQL =
+            "UPDATE scheduler_locks SET locked_until = ?, locked_at = ?, locked_by = ? " +
+            "WHERE name = ? AND locked_until <= ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String instanceId = resolveInstanceId();
+
+    public boolean tryAcquire(String name, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp until = Timestamp.valueOf(now.plus(leaseTime));
+        
+        if (jdbcTemplate.update(ACQUIRE_SQL, until, nowTs, instanceId, name, nowTs) == 1) {
+            return true;
+        }
+        
+        try {
+            jdbcTemplate.update(INSERT_SQL, name, until, nowTs, instanceId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Another replica holds an unexpired lease
+            log.debug("Lock {} is held by another instance", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        jdbcTemplate.update(RELEASE_SQL, Timestamp.valueOf(LocalDateTime.now()), name, instanceId);
+    }
+
+    private static String resolveInstanceId() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + suffix;
+        } catch (UnknownHostException e) {
+            return "habit-service-" + suffix;
+        }
+    }
+}
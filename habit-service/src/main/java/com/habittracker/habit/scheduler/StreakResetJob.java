@@ -0,0 +1,165 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.repository.HabitRepository;
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.HabitStreakService;
+import com.habittracker.habit.service.LeaderboardService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resets the current streak of every habit whose next due date has passed, at local midnight in
+ * the habit's time zone. Due dates end at a local midnight of the habit's zone, so every 15
+ * minutes the job picks the zones that have just crossed midnight and resets the streaks of those
+ * zones due up to the end of the slice, spreading the daily load over 96 slices.
+ * Within a slice, expired streaks are walked by habit id and reset with one bulk UPDATE per
+ * chunk, each in its own short transaction, and the cached analytics and leaderboard scores of
+ * the affected users are refreshed. Only the replica holding the lease runs a slice.
+ */
+@Component
+@Slf4j
+public class StreakResetJob {
+
+    static final String LOCK_NAME = "streak-reset";
+
+    static final Duration SLICE = Duration.ofMinutes(15);
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final HabitRepository habitRepository;
+    private final HabitStreakRepository streakRepository;
+    private final HabitStreakService streakService;
+    private final SchedulerLock schedulerLock;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final LeaderboardService leaderboardService;
+    private final Clock clock;
+
+    private final Counter streaksReset;
+    private final Counter chunksProcessed;
+    private final Counter runsSkipped;
+    private final Timer sliceTimer;
+    private final DistributionSummary sliceRows;
+
+    @Value("${application.streaks.reset.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${application.streaks.reset.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public StreakResetJob(HabitRepository habitRepository,
+                          HabitStreakRepository streakRepository,
+                          HabitStreakService streakService,
+                          SchedulerLock schedulerLock,
+                          AnalyticsResultCache analyticsResultCache,
+                          LeaderboardService leaderboardService,
+                          MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.habitRepository = habitRepository;
+        this.streakRepository = streakRepository;
+        this.streakService = streakService;
+        this.schedulerLock = schedulerLock;
+        this.analyticsResultCache = analyticsResultCache;
+        this.leaderboardService = leaderboardService;
+        this.clock = clock;
+        this.streaksReset = meterRegistry.counter("habit.streaks.reset");
+        this.chunksProcessed = meterRegistry.counter("habit.streaks.reset.chunks");
+        this.runsSkipped = meterRegistry.counter("habit.streaks.reset.skipped");
+        this.sliceTimer = meterRegistry.timer("habit.streaks.reset.slice.duration");
+        this.sliceRows = DistributionSummary.builder("habit.streaks.reset.slice.rows")
+                .description("Streaks reset per 15-minute slice")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${application.streaks.reset.cron:0 0/15 * * * ?}")
+    public void resetExpiredStreaks() {
+        if (!schedulerLock.tryAcquire(LOCK_NAME, Duration.ofMinutes(leaseMinutes))) {
+            runsSkipped.increment();
+            log.debug("Skipping streak reset slice, another instance holds the lease");
+            return;
+        }
+        
+        try {
+            Instant sliceEnd = Instant.now(clock).truncatedTo(ChronoUnit.MINUTES);
+            sliceEnd = sliceEnd.minusSeconds(sliceEnd.getEpochSecond() % SLICE.getSeconds());
+            
+            List<String> timeZones = zonesCrossingMidnight(habitRepository.findDistinctTimeZones(), sliceEnd);
+            if (timeZones.isEmpty()) {
+                return;
+            }
+            
+            Timer.Sample sample = Timer.start();
+            // The slice end is the midnight these zones just crossed, on the stored timestamps' timeline
+            int reset = resetExpiredStreaks(timeZones, LocalDateTime.ofInstant(sliceEnd, clock.getZone()));
+            sample.stop(sliceTimer);
+            sliceRows.record(reset);
+            
+            log.info("Streak reset slice {} finished: {} streaks reset across zones {}", sliceEnd, reset, timeZones);
+        } finally {
+            schedulerLock.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Zones whose local date changed within the slice ending at {@code sliceEnd}. All current
+     * UTC offsets are multiples of 15 minutes, so each zone's midnight lands in exactly one slice,
+     * including on DST transition days.
+     */
+    static List<String> zonesCrossingMidnight(List<String> timeZones, Instant sliceEnd) {
+        Instant sliceStart = sliceEnd.minus(SLICE);
+        List<String> crossing = new ArrayList<>();
+        
+        for (String timeZone : timeZones) {
+            try {
+                ZoneId zone = ZoneId.of(timeZone);
+                if (!sliceStart.atZone(zone).toLocalDate().equals(sliceEnd.atZone(zone).toLocalDate())) {
+                    crossing.add(timeZone);
+                }
+            } catch (DateTimeException e) {
+                log.warn("Ignoring unknown time zone {}", timeZone);
+            }
+        }
+        
+        return crossing;
+    }
+
+    int resetExpiredStreaks(List<String> timeZones, LocalDateTime currentTime) {
+        int reset = 0;
+        
+        List<UUID> habitIds = streakRepository.findExpiredHabitIdsAfter(
+                timeZones, MIN_UUID, currentTime, PageRequest.of(0, chunkSize));
+        while (!habitIds.isEmpty()) {
+            int updated = streakService.resetExpiredStreaks(habitIds, currentTime);
+            List<UUID> userIds = habitRepository.findDistinctUserIdsByIdIn(habitIds);
+            analyticsResultCache.invalidateAll(userIds);
+            leaderboardService.refreshUsers(userIds);
+            reset += updated;
+            streaksReset.increment(updated);
+            chunksProcessed.increment();
+            
+            UUID lastId = habitIds.get(habitIds.size() - 1);
+            habitIds = streakRepository.findExpiredHabitIdsAfter(
+                    timeZones, lastId, currentTime, PageRequest.of(0, chunkSize));
+        }
+        
+        return reset;
+    }
+}
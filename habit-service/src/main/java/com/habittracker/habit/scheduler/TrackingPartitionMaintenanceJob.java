@@ -0,0 +1,159 @@
+package com.habittracker.habit.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps monthly partitions of habit_tracking_records created ahead of time, so new records
+ * never land in the default partition. Creating a partition is idempotent, and only the replica
+ * holding the lease runs the job.
+ * <p>
+ * Postgres refuses to create a partition while the default partition holds rows in its range.
+ * When that happens the default partition is detached, the partition created, the rows moved
+ * into it and the default re-attached, all in one transaction. A month that still fails is
+ * logged and counted without stopping the others, and the rows left in the default partition
+ * are exported as a gauge to alert on.
+ */
+@Component
+@Slf4j
+public class TrackingPartitionMaintenanceJob {
+
+    static final String LOCK_NAME = "tracking-partition-maintenance";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITION_EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF habit_tracking_records " +
+            "FOR VALUES FROM ('%s') TO ('%s')";
+
+    private static final String DEFAULT_HAS_ROWS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM habit_tracking_records_default WHERE completed_at >= ? AND completed_at < ?)";
+
+    private static final String COUNT_DEFAULT_ROWS_SQL = "SELECT COUNT(*) FROM habit_tracking_records_default";
+
+    private static final String DETACH_DEFAULT_SQL =
+            "ALTER TABLE habit_tracking_records DETACH PARTITION habit_tracking_records_default";
+
+    private static final String ATTACH_DEFAULT_SQL =
+            "ALTER TABLE habit_tracking_records ATTACH PARTITION habit_tracking_records_default DEFAULT";
+
+    private static final String RECORD_COLUMNS =
+            "id, habit_id, user_id, completed_at, notes, duration_minutes, mood_rating, difficulty_rating";
+
+    // With the default detached, rows inserted through the parent are routed to the new partition
+    private static final String MOVE_ROWS_SQL =
+            "INSERT INTO habit_tracking_records (" + RECORD_COLUMNS + ") " +
+            "SELECT " + RECORD_COLUMNS + " FROM habit_tracking_records_default " +
+            "WHERE completed_at >= ? AND completed_at < ?";
+
+    private static final String DELETE_MOVED_ROWS_SQL =
+            "DELETE FROM habit_tracking_records_default WHERE completed_at >= ? AND completed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter partitionFailures;
+    private final Counter rowsMoved;
+    private final AtomicLong defaultRows = new AtomicLong();
+
+    @Value("${application.tracking.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    public TrackingPartitionMaintenanceJob(JdbcTemplate jdbcTemplate,
+                                           SchedulerLock schedulerLock,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLock = schedulerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionFailures = meterRegistry.counter("habit.tracking.partitions.failures");
+        this.rowsMoved = meterRegistry.counter("habit.tracking.partitions.default.rows.moved");
+        meterRegistry.gauge("habit.tracking.partitions.default.rows", defaultRows);
+    }
+
+    @Scheduled(cron = "${application.tracking.partitions.cron:0 15 2 * * ?}")
+    public void createUpcomingPartitions() {
+        if (!schedulerLock.tryAcquire(LOCK_NAME, Duration.ofMinutes(10))) {
+            log.info("Skipping partition maintenance, another instance holds the lease");
+            return;
+        }
+
+        try {
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                try {
+                    ensurePartition(month);
+                } catch (DataAccessException e) {
+                    partitionFailures.increment();
+                    log.error("Could not create tracking partition for {}: {}", month, e.getMessage(), e);
+                }
+            }
+            checkDefaultPartition();
+        } finally {
+            schedulerLock.release(LOCK_NAME);
+        }
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String partition = "habit_tracking_records_" + month.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITION_EXISTS_SQL, Boolean.class, partition))) {
+            return;
+        }
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Timestamp fromTs = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(to.atStartOfDay());
+        // Values come from YearMonth, never from user input
+        String createSql = String.format(CREATE_PARTITION_SQL, partition, from, to);
+
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS_SQL, Boolean.class, fromTs, toTs))) {
+            jdbcTemplate.execute(createSql);
+            log.debug("Created tracking partition for {}", month);
+            return;
+        }
+
+        // DETACH takes an exclusive lock on the parent, so inserts wait until the move commits
+        int moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(DETACH_DEFAULT_SQL);
+            jdbcTemplate.execute(createSql);
+            int copied = jdbcTemplate.update(MOVE_ROWS_SQL, fromTs, toTs);
+            jdbcTemplate.update(DELETE_MOVED_ROWS_SQL, fromTs, toTs);
+            jdbcTemplate.execute(ATTACH_DEFAULT_SQL);
+            return copied;
+        });
+        rowsMoved.increment(moved);
+        log.warn("Created tracking partition for {} and moved {} rows into it from the default partition", month, moved);
+    }
+
+    private void checkDefaultPartition() {
+        try {
+            Long remaining = jdbcTemplate.queryForObject(COUNT_DEFAULT_ROWS_SQL, Long.class);
+            defaultRows.set(remaining != null ? remaining : 0);
+            if (defaultRows.get() > 0) {
+                log.warn("{} tracking records are still in the default partition", defaultRows.get());
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not count rows in the default tracking partition: {}", e.getMessage());
+        }
+    }
+}
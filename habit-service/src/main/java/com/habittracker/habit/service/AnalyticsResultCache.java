@@ -0,0 +1,20 @@
+package com.habittracker.habit.service;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface AnalyticsResultCache {
+    
+    /**
+     * Cached result of the named analytics view for the user, computing it with the loader on a miss.
+     */
+    <T> T get(UUID userId, String view, Supplier<T> loader);
+    
+    /**
+     * Drops every cached view of the user, again once the surrounding transaction commits.
+     */
+    void invalidate(UUID userId);
+    
+    void invalidateAll(Collection<UUID> userIds);
+}
@@ -0,0 +1,16 @@
+package com.habittracker.habit.service;
+
+import com.habittracker.habit.model.CompiledSchedule;
+import com.habittracker.habit.model.Habit;
+
+import java.util.UUID;
+
+public interface CompiledScheduleCache {
+    
+    /**
+     * Compiled schedule for the habit's current frequency and schedule, compiling it on a miss.
+     */
+    CompiledSchedule get(Habit habit);
+    
+    void invalidate(UUID habitId);
+}
@@ -5,9 +5,11 @@ import com.habittracker.habit.dto.HabitRequestDTO;
 import com.habittracker.habit.dto.HabitResponseDTO;
 import com.habittracker.habit.dto.HabitUpdateDTO;
 import com.habittracker.habit.dto.PagedResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
 import com.habittracker.habit.model.Habit;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,11 @@ public interface HabitService {
     
     Optional<Habit> getHabitById(UUID id);
     
+    /**
+     * Distinct owners of the given habits. Ids that do not exist are ignored.
+     */
+    List<UUID> getHabitOwnerIds(Collection<UUID> habitIds);
+    
     HabitResponseDTO createHabit(HabitRequestDTO habitRequestDTO);
     
     // Existing method retained for backward compatibility
@@ -45,9 +52,17 @@ public interface HabitService {
     PagedResponseDTO<HabitResponseDTO> getHabitsByUserIdWithPagination(
         UUID userId, int page, int size, String sortBy, String sortDirection);
     
+    /**
+     * Keyset slice of the user's habits, newest first, without a total count. Pass the previous
+     * slice's cursor to continue; a null cursor starts from the newest habit.
+     */
+    SlicedResponseDTO<HabitResponseDTO> getHabitsByUserIdAfterCursor(UUID userId, String cursor, int size);
+    
     PagedResponseDTO<HabitResponseDTO> getHabitsByUserIdAndCategoryWithPagination(
         UUID userId, UUID categoryId, int page, int size, String sortBy, String sortDirection);
     
+    List<HabitResponseDTO> getHabitsResponseByUserId(UUID userId);
+    
     List<HabitResponseDTO> getHighPriorityHabitsResponse(UUID userId, Integer minPriority);
     
     List<HabitResponseDTO> getDueHabitsResponse(UUID userId);
@@ -0,0 +1,14 @@
+package com.habittracker.habit.service;
+
+import com.habittracker.habit.model.HabitTrackingRecord;
+
+import java.util.List;
+
+public interface HabitStatsRollupService {
+    
+    void recordCompletion(HabitTrackingRecord record);
+    
+    void recordCompletions(List<HabitTrackingRecord> records);
+    
+    int backfillRollup();
+}
@@ -1,6 +1,7 @@
 package com.habittracker.habit.service;
 
 import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.repository.projection.HabitStreakRanking;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,13 +15,15 @@ public interface HabitStreakService {
     
     List<HabitStreak> getStreaksByUserId(UUID userId);
     
-    List<HabitStreak> getTopStreaksByUserId(UUID userId, int limit);
+    List<HabitStreakRanking> getTopStreaksByUserId(UUID userId, int limit);
     
-    void resetExpiredStreaks(LocalDateTime currentTime);
+    int resetExpiredStreaks(List<UUID> habitIds, LocalDateTime currentTime);
     
     Map<String, Object> getStreakStatistics(UUID userId);
     
     List<HabitStreak> getRecentlyBrokenStreaks(UUID userId, LocalDateTime since);
     
-    List<HabitStreak> getStreaksByEfficiency(UUID userId);
+    List<HabitStreakRanking> getStreaksByEfficiency(UUID userId, int limit);
+    
+    int reconcileCompletionCounters(List<UUID> habitIds);
 }
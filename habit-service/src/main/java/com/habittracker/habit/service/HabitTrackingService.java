@@ -1,5 +1,8 @@
 package com.habittracker.habit.service;
 
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.BatchTrackingResponseDTO;
+import com.habittracker.habit.dto.TrackingRecordResponseDTO;
 import com.habittracker.habit.model.HabitTrackingRecord;
 
 import java.time.LocalDateTime;
@@ -7,13 +10,32 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface HabitTrackingService {
     
     HabitTrackingRecord trackHabitCompletion(UUID habitId, HabitTrackingRecord record);
     
+    /**
+     * Tracks a batch of the user's completions in one transaction; a habit that is unknown or
+     * belongs to another user rejects the whole batch
+     */
+    BatchTrackingResponseDTO trackHabitCompletions(UUID userId, BatchTrackingRequestDTO request);
+    
     List<HabitTrackingRecord> getTrackingRecordsByHabitId(UUID habitId);
     
+    /**
+     * Validates a tracking-history request before any response is written, so an unknown habit,
+     * malformed cursor or oversized limit is reported as a regular error; returns the page size to use
+     */
+    int prepareTrackingHistory(UUID habitId, String cursor, Integer limit);
+    
+    /**
+     * Streams one keyset slice of a habit's history, newest first, to the consumer row by row
+     * without materializing it; returns the cursor of the following slice, or null on the last one
+     */
+    String streamTrackingHistory(UUID habitId, String cursor, int limit, Consumer<TrackingRecordResponseDTO> consumer);
+    
     List<HabitTrackingRecord> getTrackingRecordsByDateRange(UUID habitId, LocalDateTime start, LocalDateTime end);
     
     List<HabitTrackingRecord> getUserTrackingRecordsByDateRange(UUID userId, LocalDateTime start, LocalDateTime end);
@@ -2,6 +2,7 @@ package com.habittracker.habit.service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -12,44 +13,62 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    // The parser holds the decoded key and is thread-safe, so it is built once rather than per call
+    private final JwtParser parser;
 
-    public boolean isTokenValid(String token) {
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey) {
+        this.parser = Jwts
+                .parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+    }
+
+    /**
+     * Claims of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String userId, String username, List<String> roles, Instant expiresAt) {
+    }
+
+    /**
+     * Verifies the token in a single parse and returns its claims, or empty if it is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<VerifiedToken> verify(String token) {
         try {
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            return Optional.of(new VerifiedToken(
+                    claims.get("userId", String.class),
+                    claims.getSubject(),
+                    claims.get("roles", List.class),
+                    claims.getExpiration().toInstant()));
         } catch (ExpiredJwtException e) {
             log.error("JWT token has expired");
-            return false;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature");
-            return false;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token");
-            return false;
         } catch (UnsupportedJwtException e) {
             log.error("Unsupported JWT token");
-            return false;
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty");
-            return false;
         } catch (Exception e) {
             log.error("JWT validation error: {}", e.getMessage());
-            return false;
         }
+        return Optional.empty();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token) {
+        return verify(token).isPresent();
     }
 
     public String getUserIdFromToken(String token) {
@@ -75,16 +94,6 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,33 @@
+package com.habittracker.habit.service;
+
+import com.habittracker.habit.dto.LeaderboardEntryDTO;
+import com.habittracker.habit.model.LeaderboardMetric;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LeaderboardService {
+    
+    List<LeaderboardEntryDTO> getTop(LeaderboardMetric metric, int limit);
+    
+    Optional<LeaderboardEntryDTO> getRank(LeaderboardMetric metric, UUID userId);
+    
+    /**
+     * Ranks the user among the given friends by their global scores.
+     */
+    List<LeaderboardEntryDTO> getFriendsLeaderboard(LeaderboardMetric metric, UUID userId, Collection<UUID> friendIds);
+    
+    /**
+     * Re-reads the users' scores from their streaks, once the surrounding transaction commits.
+     */
+    void refreshUsers(Collection<UUID> userIds);
+    
+    /**
+     * Reloads every user's scores from the streak table.
+     */
+    int rebuild();
+    
+    void writeSnapshot();
+}
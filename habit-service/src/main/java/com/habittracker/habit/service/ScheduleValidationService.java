@@ -2,6 +2,7 @@ package com.habittracker.habit.service;
 
 import com.habittracker.habit.model.Habit;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -15,5 +16,22 @@ public interface ScheduleValidationService {
     
     int calculateRequiredCompletionsForPeriod(Habit habit, LocalDateTime start, LocalDateTime end);
     
+    /**
+     * Required completions for schedule periods that start after {@code since} and no later than
+     * {@code until}. Additive over adjacent ranges, so running counters can be advanced in steps.
+     */
+    int calculateRequiredCompletionsSince(Habit habit, LocalDateTime since, LocalDateTime until);
+    
+    /**
+     * Required completions from the period containing the habit's creation up to {@code until}.
+     */
+    int calculateRequiredCompletionsSinceCreation(Habit habit, LocalDateTime until);
+    
+    /**
+     * Start of the counted period (week or month) containing {@code time}, or {@code null} when the
+     * habit's frequency has no per-period completion target.
+     */
+    LocalDate getCurrentPeriodStart(Habit habit, LocalDateTime time);
+    
     boolean hasMetFrequencyRequirements(UUID habitId, LocalDateTime start, LocalDateTime end);
 }
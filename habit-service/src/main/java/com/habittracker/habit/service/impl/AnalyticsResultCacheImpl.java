@@ -0,0 +1,96 @@
+package com.habittracker.habit.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Analytics results keyed by user, then by view. Holding all of a user's views under one entry
+ * lets a write drop exactly that user's results with a single invalidation. A result computed
+ * while the user was invalidated is written into the detached map and never served.
+ */
+@Service
+public class AnalyticsResultCacheImpl implements AnalyticsResultCache {
+
+    private final Cache<UUID, Map<String, Object>> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public AnalyticsResultCacheImpl(MeterRegistry meterRegistry,
+                                    @Value("${application.analytics.cache.maximum-users:10000}") long maximumUsers,
+                                    @Value("${application.analytics.cache.ttl-minutes:5}") long ttlMinutes) {
+        this.hits = meterRegistry.counter("habit.analytics.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("habit.analytics.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("habit.analytics.cache.evictions");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .<UUID, Map<String, Object>>removalListener((userId, views, cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        meterRegistry.gaugeMapSize("habit.analytics.cache.users", Tags.empty(), cache.asMap());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String view, Supplier<T> loader) {
+        Map<String, Object> views = cache.get(userId, id -> new ConcurrentHashMap<>());
+        
+        Object result = views.get(view);
+        if (result != null) {
+            hits.increment();
+            return (T) result;
+        }
+        
+        misses.increment();
+        T loaded = loader.get();
+        if (loaded != null) {
+            views.put(view, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void invalidate(UUID userId) {
+        invalidateAll(List.of(userId));
+    }
+
+    @Override
+    public void invalidateAll(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(userIds);
+        
+        // A read between now and the commit would cache the old state, so evict again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> pending = List.copyOf(userIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(pending);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.habittracker.habit.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.habittracker.habit.model.CompiledSchedule;
+import com.habittracker.habit.model.CompiledSchedule.Frequency;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.service.CompiledScheduleCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class CompiledScheduleCacheImpl implements CompiledScheduleCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, CompiledSchedule> cache;
+
+    public CompiledScheduleCacheImpl(ObjectMapper objectMapper,
+                                     @Value("${application.schedules.cache-size:100000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public CompiledSchedule get(Habit habit) {
+        if (habit.getId() == null) {
+            return compile(habit.getFrequency(), habit.getSchedule());
+        }
+        
+        CompiledSchedule compiled = cache.getIfPresent(habit.getId());
+        if (compiled == null || !compiled.isCompiledFrom(habit.getFrequency(), habit.getSchedule())) {
+            compiled = compile(habit.getFrequency(), habit.getSchedule());
+            cache.put(habit.getId(), compiled);
+        }
+        return compiled;
+    }
+
+    @Override
+    public void invalidate(UUID habitId) {
+        cache.invalidate(habitId);
+    }
+
+    /**
+     * Parses the frequency and schedule JSON. A schedule that cannot be read falls back to daily,
+     * matching how the schedule computations have always treated unparseable schedules.
+     */
+    CompiledSchedule compile(String frequency, String schedule) {
+        Frequency parsed;
+        try {
+            parsed = Frequency.valueOf(frequency.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Unknown frequency type: {}, defaulting to daily", frequency);
+            return CompiledSchedule.of(Frequency.DAILY, 0, 0, 1, frequency, schedule);
+        }
+        
+        try {
+            switch (parsed) {
+                case X_TIMES_PER_WEEK:
+                case X_TIMES_PER_MONTH:
+                    int times = objectMapper.readTree(schedule).get("times").asInt();
+                    return CompiledSchedule.of(parsed, times, 0, 1, frequency, schedule);
+                    
+                case SPECIFIC_DAYS:
+                    int daysMask = 0;
+                    for (JsonNode day : objectMapper.readTree(schedule).get("days")) {
+                        daysMask |= CompiledSchedule.maskOf(DayOfWeek.valueOf(day.asText()));
+                    }
+                    return CompiledSchedule.of(parsed, 0, daysMask, 1, frequency, schedule);
+                    
+                case CUSTOM:
+                    JsonNode interval = schedule != null ? objectMapper.readTree(schedule).get("intervalDays") : null;
+                    int intervalDays = interval != null && interval.asInt() > 0 ? interval.asInt() : 1;
+                    return CompiledSchedule.of(parsed, 0, 0, intervalDays, frequency, schedule);
+                    
+                default:
+                    return CompiledSchedule.of(parsed, 0, 0, 1, frequency, schedule);
+            }
+        } catch (Exception e) {
+            log.error("Error parsing {} schedule, defaulting to daily", parsed, e);
+            return CompiledSchedule.of(Frequency.DAILY, 0, 0, 1, frequency, schedule);
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.habittracker.habit.service.impl;
 
 import com.habittracker.habit.model.Habit;
 import com.habittracker.habit.model.HabitStreak;
-import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.HabitDailyStatRepository;
 import com.habittracker.habit.repository.HabitRepository;
 import com.habittracker.habit.repository.HabitStreakRepository;
 import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.repository.projection.CategoryCompletionTotals;
+import com.habittracker.habit.repository.projection.HabitStatTotals;
+import com.habittracker.habit.repository.projection.HabitStreakRanking;
+import com.habittracker.habit.repository.projection.HabitWeeklyCompletions;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.CompiledScheduleCache;
 import com.habittracker.habit.service.HabitAnalyticsService;
 import com.habittracker.habit.service.HabitStreakService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -17,41 +25,48 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.WeekFields;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
 
+    /**
+     * Rankings are cached once per user at this size and sliced per call, so the cache holds
+     * one entry per view whatever limits callers ask for. Larger limits are clamped.
+     */
+    static final int MAX_RANKING_LIMIT = 50;
+
     private final HabitRepository habitRepository;
     private final HabitTrackingRecordRepository trackingRecordRepository;
     private final HabitStreakRepository streakRepository;
     private final HabitStreakService streakService;
+    private final HabitDailyStatRepository dailyStatRepository;
+    private final CompiledScheduleCache compiledScheduleCache;
+    private final AnalyticsResultCache analyticsResultCache;
 
     @Override
     public Map<String, Object> getUserStats(UUID userId) {
+        return analyticsResultCache.get(userId, "userStats", () -> computeUserStats(userId));
+    }
+
+    private Map<String, Object> computeUserStats(UUID userId) {
         Map<String, Object> stats = new HashMap<>();
         
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
-        LocalDateTime startOfWeek = now.with(DayOfWeek.MONDAY).toLocalDate().atStartOfDay();
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
+        LocalDate today = LocalDate.now();
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        LocalDate startOfMonth = today.withDayOfMonth(1);
         
         // Habit counts
-        List<Habit> userHabits = habitRepository.findAllByUserId(userId);
-        stats.put("totalHabits", userHabits.size());
+        stats.put("totalHabits", habitRepository.countByUserId(userId));
         
-        // Completion counts for different time periods
-        List<HabitTrackingRecord> todayRecords = trackingRecordRepository
-                .findByUserIdAndCompletedAtBetween(userId, startOfToday, now);
-        stats.put("completionsToday", todayRecords.size());
-        
-        List<HabitTrackingRecord> weekRecords = trackingRecordRepository
-                .findByUserIdAndCompletedAtBetween(userId, startOfWeek, now);
-        stats.put("completionsThisWeek", weekRecords.size());
-        
-        List<HabitTrackingRecord> monthRecords = trackingRecordRepository
-                .findByUserIdAndCompletedAtBetween(userId, startOfMonth, now);
-        stats.put("completionsThisMonth", monthRecords.size());
+        // Completion counts for different time periods, summed from the daily rollup
+        stats.put("completionsToday", 
+                dailyStatRepository.sumCompletionsByUserIdBetween(userId, today, today).intValue());
+        stats.put("completionsThisWeek", 
+                dailyStatRepository.sumCompletionsByUserIdBetween(userId, startOfWeek, today).intValue());
+        stats.put("completionsThisMonth", 
+                dailyStatRepository.sumCompletionsByUserIdBetween(userId, startOfMonth, today).intValue());
         
         // Streak information
         Map<String, Object> streakStats = streakService.getStreakStatistics(userId);
@@ -64,8 +79,8 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
     public Map<String, Object> getHabitStats(UUID habitId) {
         Map<String, Object> stats = new HashMap<>();
         
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime thirtyDaysAgo = now.minusDays(30);
+        LocalDate today = LocalDate.now();
+        LocalDate thirtyDaysAgo = today.minusDays(30);
         
         // Get habit details
         Habit habit = habitRepository.findById(habitId).orElse(null);
@@ -86,129 +101,128 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
             stats.put("nextDueAt", streak.getNextDueAt());
         }
         
-        // Recent completions
-        List<HabitTrackingRecord> recentRecords = trackingRecordRepository
-                .findByHabitIdAndCompletedAtBetween(habitId, thirtyDaysAgo, now);
-        stats.put("completionsLast30Days", recentRecords.size());
-        
-        // Average ratings if available
-        OptionalDouble avgDifficulty = recentRecords.stream()
-                .filter(r -> r.getDifficultyRating() != null)
-                .mapToInt(HabitTrackingRecord::getDifficultyRating)
-                .average();
-                
-        OptionalDouble avgMood = recentRecords.stream()
-                .filter(r -> r.getMoodRating() != null)
-                .mapToInt(HabitTrackingRecord::getMoodRating)
-                .average();
-                
-        stats.put("avgDifficulty", avgDifficulty.isPresent() ? avgDifficulty.getAsDouble() : null);
-        stats.put("avgMood", avgMood.isPresent() ? avgMood.getAsDouble() : null);
+        // Recent completions and average ratings from the daily rollup
+        HabitStatTotals totals = dailyStatRepository.getTotalsByHabitIdBetween(habitId, thirtyDaysAgo, today);
+        stats.put("completionsLast30Days", totals.getCompletionCount().intValue());
+        stats.put("avgDifficulty", average(totals.getDifficultyRatingSum(), totals.getDifficultyRatingCount()));
+        stats.put("avgMood", average(totals.getMoodRatingSum(), totals.getMoodRatingCount()));
         
         return stats;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserCompletionTrends(UUID userId, LocalDateTime start, LocalDateTime end) {
         Map<String, Object> trends = new HashMap<>();
         
-        List<HabitTrackingRecord> records = trackingRecordRepository
-                .findByUserIdAndCompletedAtBetween(userId, start, end);
+        // Per-day counts indexed by days since the start date, filled from a forward-only stream
+        // of per-day aggregates, so memory is bounded by the number of days, not records
+        LocalDate firstDay = start.toLocalDate();
+        int[] completionsByDay = new int[Math.max(0, (int) ChronoUnit.DAYS.between(firstDay, end.toLocalDate()) + 1)];
         
-        // Group by day
-        Map<LocalDate, Long> completionsByDay = records.stream()
-                .collect(Collectors.groupingBy(
-                    record -> record.getCompletedAt().toLocalDate(),
-                    Collectors.counting()
-                ));
+        try (Stream<Object[]> dailyCounts = trackingRecordRepository.streamDailyCompletionCounts(userId, start, end)) {
+            dailyCounts.forEach(row -> completionsByDay[(int) ChronoUnit.DAYS.between(firstDay, (LocalDate) row[0])] =
+                    ((Number) row[1]).intValue());
+        }
                 
         // Format for output
         DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE;
         Map<String, Long> formattedTrends = new HashMap<>();
         
-        LocalDate current = start.toLocalDate();
-        while (!current.isAfter(end.toLocalDate())) {
-            String dateStr = current.format(formatter);
-            formattedTrends.put(dateStr, completionsByDay.getOrDefault(current, 0L));
-            current = current.plusDays(1);
+        // Weekly averages, keyed by ISO week ("2024-W10"): completions per day over the days of
+        // that week inside the range, for every week with at least one completion
+        Map<String, Integer> weeklyTotals = new HashMap<>();
+        Map<String, Integer> daysInWeek = new HashMap<>();
+        
+        for (int offset = 0; offset < completionsByDay.length; offset++) {
+            LocalDate day = firstDay.plusDays(offset);
+            formattedTrends.put(day.format(formatter), (long) completionsByDay[offset]);
+            
+            String week = isoWeek(day);
+            daysInWeek.merge(week, 1, Integer::sum);
+            if (completionsByDay[offset] > 0) {
+                weeklyTotals.merge(week, completionsByDay[offset], Integer::sum);
+            }
         }
         
-        trends.put("dailyCompletions", formattedTrends);
-        
-        // Calculate weekly averages
-        Map<Integer, Double> weeklyAvg = new HashMap<>();
-        records.stream()
-                .collect(Collectors.groupingBy(
-                    record -> record.getCompletedAt().get(WeekFields.of(Locale.getDefault()).weekOfWeekBasedYear()),
-                    Collectors.averagingInt(record -> 1)
-                ))
-                .forEach((week, avg) -> weeklyAvg.put(week, avg * 7)); // Multiply by 7 to get weekly total
+        Map<String, Double> weeklyAvg = new HashMap<>();
+        weeklyTotals.forEach((week, total) -> weeklyAvg.put(week, (double) total / daysInWeek.get(week)));
         
+        trends.put("dailyCompletions", formattedTrends);
         trends.put("weeklyAverages", weeklyAvg);
         
         return trends;
     }
 
+    // The week-based year keeps late-December and early-January days in the week they belong to,
+    // and keeps the same week number of different years apart
+    private static String isoWeek(LocalDate day) {
+        return String.format("%d-W%02d",
+                day.get(WeekFields.ISO.weekBasedYear()), day.get(WeekFields.ISO.weekOfWeekBasedYear()));
+    }
+
     @Override
     public List<Map<String, Object>> getTopPerformingHabits(UUID userId, int limit) {
-        List<HabitStreak> topStreaks = streakRepository.findByUserIdOrderByCurrentStreakDesc(userId);
+        List<Map<String, Object>> ranked = analyticsResultCache.get(userId, "topPerformingHabits",
+                () -> computeTopPerformingHabits(userId));
+        return firstN(ranked, limit);
+    }
+
+    private List<Map<String, Object>> computeTopPerformingHabits(UUID userId) {
+        List<HabitStreakRanking> topStreaks = streakRepository.findTopByCurrentStreak(
+                userId, PageRequest.of(0, MAX_RANKING_LIMIT));
         
         return topStreaks.stream()
-                .limit(limit)
                 .map(streak -> {
                     Map<String, Object> habitInfo = new HashMap<>();
                     habitInfo.put("habitId", streak.getHabitId());
-                    habitInfo.put("habitName", streak.getHabit().getName());
+                    habitInfo.put("habitName", streak.getHabitName());
                     habitInfo.put("currentStreak", streak.getCurrentStreak());
                     habitInfo.put("bestStreak", streak.getBestStreak());
                     habitInfo.put("completionRate", streak.getCompletionRate());
                     return habitInfo;
                 })
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public List<Map<String, Object>> getHabitsNeedingAttention(UUID userId, int limit) {
+        List<Map<String, Object>> ranked = analyticsResultCache.get(userId, "habitsNeedingAttention",
+                () -> computeHabitsNeedingAttention(userId));
+        return firstN(ranked, limit);
+    }
+
+    private List<Map<String, Object>> computeHabitsNeedingAttention(UUID userId) {
         // Get habits with low completion rates
-        List<HabitStreak> streaks = streakRepository.findByCompletionRateRange(userId, 0.0, 0.5);
+        List<HabitStreakRanking> streaks = streakRepository.findTopByCompletionRateRange(
+                userId, 0.0, 0.5, PageRequest.of(0, MAX_RANKING_LIMIT));
         
         return streaks.stream()
-                .limit(limit)
                 .map(streak -> {
                     Map<String, Object> habitInfo = new HashMap<>();
                     habitInfo.put("habitId", streak.getHabitId());
-                    habitInfo.put("habitName", streak.getHabit().getName());
+                    habitInfo.put("habitName", streak.getHabitName());
                     habitInfo.put("currentStreak", streak.getCurrentStreak());
                     habitInfo.put("completionRate", streak.getCompletionRate());
                     habitInfo.put("lastCompletedAt", streak.getLastCompletedAt());
                     return habitInfo;
                 })
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public Map<String, Object> getCategoryDistribution(UUID userId) {
-        List<Habit> habits = habitRepository.findAllByUserId(userId);
+        LocalDate today = LocalDate.now();
+        LocalDate thirtyDaysAgo = today.minusDays(30);
         
-        // Count habits by category
-        Map<String, Long> distribution = habits.stream()
-                .collect(Collectors.groupingBy(
-                    habit -> habit.getCategory() != null ? habit.getCategory().getName() : "Uncategorized",
-                    Collectors.counting()
-                ));
-                
-        // Count completions by category in the last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        // Habit counts and last-30-day completions per category in one grouped query
+        Map<String, Long> distribution = new HashMap<>();
         Map<String, Long> completionsByCategory = new HashMap<>();
         
-        for (Habit habit : habits) {
-            String categoryName = habit.getCategory() != null ? habit.getCategory().getName() : "Uncategorized";
-            
-            Long completions = trackingRecordRepository.countCompletionsInRange(
-                    habit.getId(), thirtyDaysAgo, LocalDateTime.now());
-                    
-            completionsByCategory.put(categoryName, 
-                    completionsByCategory.getOrDefault(categoryName, 0L) + completions);
+        for (CategoryCompletionTotals totals : dailyStatRepository.getCategoryTotalsByUserIdBetween(userId, thirtyDaysAgo, today)) {
+            String categoryName = totals.getCategoryName() != null ? totals.getCategoryName() : "Uncategorized";
+            distribution.put(categoryName, totals.getHabitCount());
+            completionsByCategory.put(categoryName, totals.getCompletionCount());
         }
         
         Map<String, Object> result = new HashMap<>();
@@ -220,6 +234,10 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
 
     @Override
     public Map<String, Object> getStreakAnalysis(UUID userId) {
+        return analyticsResultCache.get(userId, "streakAnalysis", () -> computeStreakAnalysis(userId));
+    }
+
+    private Map<String, Object> computeStreakAnalysis(UUID userId) {
         List<HabitStreak> streaks = streakRepository.findByUserId(userId);
         
         // Distribution of streak lengths
@@ -258,42 +276,42 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
 
     @Override
     public Map<String, Object> getTimeOfDayAnalysis(UUID userId) {
-        // Get all tracking records for the user
-        List<HabitTrackingRecord> records = trackingRecordRepository
-                .findByUserIdAndCompletedAtBetween(
-                        userId, 
-                        LocalDateTime.now().minusMonths(3), 
-                        LocalDateTime.now());
-                        
-        // Group by hour of day
-        Map<Integer, Long> completionsByHour = records.stream()
-                .collect(Collectors.groupingBy(
-                    record -> record.getCompletedAt().getHour(),
-                    Collectors.counting()
-                ));
+        // 24-slot histogram of the user's completions, bucketed by the database
+        LocalDateTime now = LocalDateTime.now();
+        long[] histogram = new long[24];
+        for (Object[] row : trackingRecordRepository.countCompletionsByHourOfDay(userId, now.minusMonths(3), now)) {
+            histogram[((Number) row[0]).intValue()] = ((Number) row[1]).longValue();
+        }
         
-        // Identify peak times
-        Map.Entry<Integer, Long> peakHour = completionsByHour.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElse(null);
+        // Group by hour of day, identifying the peak hour on the way
+        Map<Integer, Long> completionsByHour = new HashMap<>();
+        int peakHour = -1;
+        for (int hour = 0; hour < histogram.length; hour++) {
+            if (histogram[hour] > 0) {
+                completionsByHour.put(hour, histogram[hour]);
+                if (peakHour < 0 || histogram[hour] > histogram[peakHour]) {
+                    peakHour = hour;
+                }
+            }
+        }
                 
         // Get more granular time periods
         Map<String, Long> completionsByTimePeriod = new HashMap<>();
         completionsByTimePeriod.put("morning", 
-                countCompletionsInHourRange(records, 5, 11)); // 5am-11:59am
+                countCompletionsInHourRange(histogram, 5, 11)); // 5am-11:59am
         completionsByTimePeriod.put("afternoon", 
-                countCompletionsInHourRange(records, 12, 16)); // 12pm-4:59pm
+                countCompletionsInHourRange(histogram, 12, 16)); // 12pm-4:59pm
         completionsByTimePeriod.put("evening", 
-                countCompletionsInHourRange(records, 17, 20)); // 5pm-8:59pm
+                countCompletionsInHourRange(histogram, 17, 20)); // 5pm-8:59pm
         completionsByTimePeriod.put("night", 
-                countCompletionsInHourRange(records, 21, 4)); // 9pm-4:59am
+                countCompletionsInHourRange(histogram, 21, 4)); // 9pm-4:59am
                 
         Map<String, Object> result = new HashMap<>();
         result.put("completionsByHour", completionsByHour);
         result.put("completionsByTimePeriod", completionsByTimePeriod);
-        if (peakHour != null) {
-            result.put("peakHour", peakHour.getKey());
-            result.put("peakHourCount", peakHour.getValue());
+        if (peakHour >= 0) {
+            result.put("peakHour", peakHour);
+            result.put("peakHourCount", histogram[peakHour]);
         }
         
         return result;
@@ -301,20 +319,30 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
 
     @Override
     public Map<String, Double> getPredictedCompletionRates(UUID userId) {
-        List<Habit> habits = habitRepository.findAllByUserId(userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        
+        List<Habit> habits = habitRepository.findAllWithCategoryAndStreakByUserId(userId);
+        
+        // Completions for both weeks of every habit in one grouped query; the rollup is
+        // day-granular, so each week covers the seven calendar days up to and including its end
+        Map<UUID, HabitWeeklyCompletions> weeklyCompletions = dailyStatRepository
+                .getWeeklyCompletionsByUserId(userId, today.minusDays(13), today.minusDays(7), today)
+                .stream()
+                .collect(Collectors.toMap(HabitWeeklyCompletions::getHabitId, completions -> completions));
+        
         Map<String, Double> predictions = new HashMap<>();
         
         for (Habit habit : habits) {
-            // Calculate trend based on recent history
-            LocalDateTime now = LocalDateTime.now();
+            HabitWeeklyCompletions completions = weeklyCompletions.get(habit.getId());
             
             // Last week's completion rate
-            double lastWeekRate = calculateCompletionRateForPeriod(
-                    habit.getId(), now.minusDays(7), now);
+            double lastWeekRate = calculateCompletionRate(habit,
+                    completions != null ? completions.getLastWeekCompletions() : 0L, now.minusDays(7), now);
                     
             // Week before that
-            double previousWeekRate = calculateCompletionRateForPeriod(
-                    habit.getId(), now.minusDays(14), now.minusDays(7));
+            double previousWeekRate = calculateCompletionRate(habit,
+                    completions != null ? completions.getPreviousWeekCompletions() : 0L, now.minusDays(14), now.minusDays(7));
                     
             // Simple linear trend
             double trend = lastWeekRate - previousWeekRate;
@@ -328,47 +356,37 @@ public class HabitAnalyticsServiceImpl implements HabitAnalyticsService {
         return predictions;
     }
     
-    // Helper method to count completions in a specific hour range
-    private long countCompletionsInHourRange(List<HabitTrackingRecord> records, int startHour, int endHour) {
-        if (startHour <= endHour) {
-            return records.stream()
-                    .filter(record -> {
-                        int hour = record.getCompletedAt().getHour();
-                        return hour >= startHour && hour <= endHour;
-                    })
-                    .count();
-        } else {
-            // Handle wraparound (e.g., 21 to 4)
-            return records.stream()
-                    .filter(record -> {
-                        int hour = record.getCompletedAt().getHour();
-                        return hour >= startHour || hour <= endHour;
-                    })
-                    .count();
+    // Helper method to sum an hour-of-day histogram over an hour range (inclusive, may wrap midnight)
+    private long countCompletionsInHourRange(long[] histogram, int startHour, int endHour) {
+        long count = 0;
+        for (int hour = startHour; hour != (endHour + 1) % 24; hour = (hour + 1) % 24) {
+            count += histogram[hour];
         }
+        return count;
     }
     
-    // Helper method to calculate completion rate for a specific period
-    private double calculateCompletionRateForPeriod(UUID habitId, LocalDateTime start, LocalDateTime end) {
-        Habit habit = habitRepository.findById(habitId).orElse(null);
-        if (habit == null) {
-            return 0.0;
-        }
-        
-        // Count actual completions
-        long actualCompletions = trackingRecordRepository.countCompletionsInRange(habitId, start, end);
-        
-        // Calculate expected completions based on frequency
+    // Helper method to serve a caller's limit from a ranking cached at MAX_RANKING_LIMIT
+    private static <T> List<T> firstN(List<T> ranked, int limit) {
+        return ranked.subList(0, Math.max(0, Math.min(limit, ranked.size())));
+    }
+    
+    // Helper method to turn rollup sums into a nullable average
+    private Double average(Long sum, Long count) {
+        return count != null && count > 0 ? (double) sum / count : null;
+    }
+    
+    // Helper method to turn a period's completions into a completion rate for the habit's frequency
+    private double calculateCompletionRate(Habit habit, long actualCompletions, LocalDateTime start, LocalDateTime end) {
         long expectedCompletions;
         
-        switch (habit.getFrequency().toUpperCase()) {
-            case "DAILY":
+        switch (compiledScheduleCache.get(habit).getFrequency()) {
+            case DAILY:
                 expectedCompletions = ChronoUnit.DAYS.between(start, end);
                 break;
-            case "WEEKLY":
+            case WEEKLY:
                 expectedCompletions = ChronoUnit.WEEKS.between(start, end);
                 break;
-            case "MONTHLY":
+            case MONTHLY:
                 expectedCompletions = ChronoUnit.MONTHS.between(start, end);
                 break;
             default:
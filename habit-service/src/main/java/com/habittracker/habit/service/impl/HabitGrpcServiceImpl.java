@@ -0,0 +1,381 @@
+package com.habittracker.habit.service.impl;
+
+import com.habitsystem.proto.habit.CreateHabitRequest;
+import com.habitsystem.proto.habit.DeleteHabitRequest;
+import com.habitsystem.proto.habit.DeleteHabitResponse;
+import com.habitsystem.proto.habit.GetHabitRequest;
+import com.habitsystem.proto.habit.Habit;
+import com.habitsystem.proto.habit.HabitResponse;
+import com.habitsystem.proto.habit.HabitServiceGrpc;
+import com.habitsystem.proto.habit.ListHabitsRequest;
+import com.habitsystem.proto.habit.ListHabitsResponse;
+import com.habitsystem.proto.habit.TrackHabitRequest;
+import com.habitsystem.proto.habit.TrackHabitsResponse;
+import com.habitsystem.proto.habit.UpdateHabitRequest;
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.BatchTrackingResponseDTO;
+import com.habittracker.habit.dto.HabitRequestDTO;
+import com.habittracker.habit.dto.HabitResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
+import com.habittracker.habit.dto.TrackingRecordRequestDTO;
+import com.habittracker.habit.exception.ForbiddenException;
+import com.habittracker.habit.exception.InvalidRequestException;
+import com.habittracker.habit.exception.ResourceNotFoundException;
+import com.habittracker.habit.filter.GrpcAuthInterceptor;
+import com.habittracker.habit.mapper.HabitProtoMapper;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.service.HabitService;
+import com.habittracker.habit.service.HabitTrackingService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * gRPC habit API. Callers are authenticated by {@link GrpcAuthInterceptor}; every RPC acts as
+ * that user. A user id in the request must be empty or match the caller, and habits addressed by
+ * id must belong to the caller.
+ */
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class HabitGrpcServiceImpl extends HabitServiceGrpc.HabitServiceImplBase {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_STREAM_PAGE_SIZE = 50;
+    private static final int MAX_STREAM_PAGE_SIZE = 100;
+
+    private final HabitService habitService;
+    private final HabitTrackingService habitTrackingService;
+    private final HabitProtoMapper habitProtoMapper;
+
+    @Override
+    public void createHabit(CreateHabitRequest request, StreamObserver<HabitResponse> responseObserver) {
+        try {
+            UUID userId = resolveUserId(request.getUserId());
+            log.info("Creating habit for user: {}", userId);
+            
+            HabitRequestDTO habit = habitProtoMapper.toRequestDTO(request);
+            habit.setUserId(userId);
+            HabitResponseDTO created = habitService.createHabit(habit);
+            
+            responseObserver.onNext(toHabitResponse(created));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error creating habit: {}", e.getMessage(), e);
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getHabit(GetHabitRequest request, StreamObserver<HabitResponse> responseObserver) {
+        try {
+            UUID habitId = UUID.fromString(request.getHabitId());
+            requireOwnership(Set.of(habitId));
+            HabitResponseDTO habit = habitService.getHabitResponseById(habitId);
+            
+            responseObserver.onNext(toHabitResponse(habit));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error fetching habit: {}", e.getMessage());
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void updateHabit(UpdateHabitRequest request, StreamObserver<HabitResponse> responseObserver) {
+        try {
+            log.info("Updating habit: {}", request.getHabitId());
+            
+            UUID habitId = UUID.fromString(request.getHabitId());
+            requireOwnership(Set.of(habitId));
+            HabitResponseDTO updated = habitService.updateHabit(habitId, habitProtoMapper.toUpdateDTO(request));
+            
+            responseObserver.onNext(toHabitResponse(updated));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error updating habit: {}", e.getMessage(), e);
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void deleteHabit(DeleteHabitRequest request, StreamObserver<DeleteHabitResponse> responseObserver) {
+        try {
+            log.info("Deleting habit: {}", request.getHabitId());
+            
+            UUID habitId = UUID.fromString(request.getHabitId());
+            requireOwnership(Set.of(habitId));
+            boolean successful = habitService.deleteHabit(habitId).isSuccessful();
+            
+            responseObserver.onNext(DeleteHabitResponse.newBuilder().setSuccess(successful).build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error deleting habit: {}", e.getMessage(), e);
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void trackHabit(TrackHabitRequest request, StreamObserver<HabitResponse> responseObserver) {
+        try {
+            if (request.getCount() < 1 || request.getCount() > MAX_BATCH_SIZE) {
+                throw new InvalidRequestException("Count must be between 1 and " + MAX_BATCH_SIZE);
+            }
+            UUID habitId = UUID.fromString(request.getHabitId());
+            requireOwnership(Set.of(habitId));
+            LocalDateTime completedAt = parseCompletedAt(request.getDate());
+            
+            if (request.getCount() > 1) {
+                TrackingRecordRequestDTO completion = TrackingRecordRequestDTO.builder()
+                        .habitId(habitId)
+                        .completedAt(completedAt)
+                        .build();
+                habitTrackingService.trackHabitCompletions(GrpcAuthInterceptor.currentUserId(),
+                        BatchTrackingRequestDTO.builder()
+                                .completions(Collections.nCopies(request.getCount(), completion))
+                                .build());
+            } else {
+                habitTrackingService.trackHabitCompletion(habitId,
+                        HabitTrackingRecord.builder().completedAt(completedAt).build());
+            }
+            
+            responseObserver.onNext(toHabitResponse(habitService.getHabitResponseById(habitId)));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error tracking habit: {}", e.getMessage(), e);
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void listHabits(ListHabitsRequest request, StreamObserver<ListHabitsResponse> responseObserver) {
+        try {
+            ListHabitsResponse.Builder response = ListHabitsResponse.newBuilder();
+            habitService.getHabitsResponseByUserId(resolveUserId(request.getUserId()))
+                    .forEach(habit -> response.addHabits(habitProtoMapper.toProto(habit)));
+            
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Error listing habits: {}", e.getMessage(), e);
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    /**
+     * Emits the user's habits one message at a time, newest first. Emission follows the client's
+     * flow control: the onReady handler sends while the call is ready and resumes when it becomes
+     * ready again, and the next keyset slice is read only once the previous one has been sent,
+     * so a slow client never makes the server buffer more than one slice.
+     */
+    @Override
+    public void streamHabits(ListHabitsRequest request, StreamObserver<Habit> responseObserver) {
+        ServerCallStreamObserver<Habit> serverObserver = (ServerCallStreamObserver<Habit>) responseObserver;
+        UUID userId;
+        try {
+            userId = resolveUserId(request.getUserId());
+        } catch (Exception e) {
+            serverObserver.onError(toStatus(e).asRuntimeException());
+            return;
+        }
+        int pageSize = request.getPageSize() > 0
+                ? Math.min(request.getPageSize(), MAX_STREAM_PAGE_SIZE)
+                : DEFAULT_STREAM_PAGE_SIZE;
+        
+        HabitStreamer streamer = new HabitStreamer(serverObserver, userId, pageSize);
+        serverObserver.setOnCancelHandler(streamer::cancelled);
+        // Also runs once the call is first ready, so no initial drain is needed here
+        serverObserver.setOnReadyHandler(streamer);
+    }
+
+    @Override
+    public StreamObserver<TrackHabitRequest> trackHabits(StreamObserver<TrackHabitsResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private final List<TrackingRecordRequestDTO> completions = new ArrayList<>();
+            private boolean failed;
+
+            @Override
+            public void onNext(TrackHabitRequest request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    int count = Math.max(request.getCount(), 1);
+                    if (completions.size() + count > MAX_BATCH_SIZE) {
+                        throw new InvalidRequestException("A batch may contain at most " + MAX_BATCH_SIZE + " completions");
+                    }
+                    
+                    TrackingRecordRequestDTO completion = TrackingRecordRequestDTO.builder()
+                            .habitId(UUID.fromString(request.getHabitId()))
+                            .completedAt(parseCompletedAt(request.getDate()))
+                            .build();
+                    for (int i = 0; i < count; i++) {
+                        completions.add(completion);
+                    }
+                } catch (Exception e) {
+                    failed = true;
+                    responseObserver.onError(toStatus(e).asRuntimeException());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("TrackHabits stream cancelled by client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                try {
+                    if (completions.isEmpty()) {
+                        throw new InvalidRequestException("At least one completion is required");
+                    }
+                    requireOwnership(completions.stream().map(TrackingRecordRequestDTO::getHabitId).distinct().toList());
+                    
+                    BatchTrackingResponseDTO result = habitTrackingService.trackHabitCompletions(
+                            GrpcAuthInterceptor.currentUserId(), BatchTrackingRequestDTO.builder().completions(completions).build());
+                    
+                    TrackHabitsResponse.Builder response = TrackHabitsResponse.newBuilder()
+                            .setTrackedCount(result.getRecordsTracked())
+                            .setHabitCount(result.getHabitsUpdated());
+                    result.getRecordIds().forEach(id -> response.addRecordIds(id.toString()));
+                    
+                    responseObserver.onNext(response.build());
+                    responseObserver.onCompleted();
+                    log.info("Tracked {} completions across {} habits", result.getRecordsTracked(), result.getHabitsUpdated());
+                } catch (Exception e) {
+                    log.error("Batch tracking failed: {}", e.getMessage(), e);
+                    responseObserver.onError(toStatus(e).asRuntimeException());
+                }
+            }
+        };
+    }
+
+    /**
+     * Sends one keyset slice at a time while the call is ready. The onReady and onCancel handlers
+     * are invoked serially for a call, so the state needs no locking.
+     */
+    private final class HabitStreamer implements Runnable {
+        private final ServerCallStreamObserver<Habit> observer;
+        private final UUID userId;
+        private final int pageSize;
+        private Iterator<HabitResponseDTO> slice = Collections.emptyIterator();
+        private String nextCursor;
+        private boolean started;
+        private boolean finished;
+        private int emitted;
+
+        HabitStreamer(ServerCallStreamObserver<Habit> observer, UUID userId, int pageSize) {
+            this.observer = observer;
+            this.userId = userId;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public void run() {
+            if (finished) {
+                return;
+            }
+            try {
+                while (true) {
+                    if (!slice.hasNext()) {
+                        if (started && nextCursor == null) {
+                            finished = true;
+                            observer.onCompleted();
+                            return;
+                        }
+                        SlicedResponseDTO<HabitResponseDTO> next =
+                                habitService.getHabitsByUserIdAfterCursor(userId, nextCursor, pageSize);
+                        started = true;
+                        nextCursor = next.isHasNext() ? next.getNextCursor() : null;
+                        slice = next.getContent().iterator();
+                        continue;
+                    }
+                    if (!observer.isReady()) {
+                        // Resumed by the next onReady
+                        return;
+                    }
+                    observer.onNext(habitProtoMapper.toProto(slice.next()));
+                    emitted++;
+                }
+            } catch (Exception e) {
+                finished = true;
+                log.error("Error streaming habits: {}", e.getMessage(), e);
+                observer.onError(toStatus(e).asRuntimeException());
+            }
+        }
+
+        void cancelled() {
+            finished = true;
+            log.info("StreamHabits cancelled by client after {} habits", emitted);
+        }
+    }
+
+    // The caller acts on their own habits only; a user id in the request must be theirs
+    private UUID resolveUserId(String requestedUserId) {
+        UUID caller = GrpcAuthInterceptor.currentUserId();
+        if (!requestedUserId.isEmpty() && !caller.equals(UUID.fromString(requestedUserId))) {
+            throw Status.PERMISSION_DENIED.withDescription("Cannot access another user's habits").asRuntimeException();
+        }
+        return caller;
+    }
+
+    // Unknown ids pass here and fail later with NOT_FOUND
+    private void requireOwnership(Collection<UUID> habitIds) {
+        UUID caller = GrpcAuthInterceptor.currentUserId();
+        if (habitService.getHabitOwnerIds(habitIds).stream().anyMatch(owner -> !owner.equals(caller))) {
+            throw Status.PERMISSION_DENIED.withDescription("Habit belongs to another user").asRuntimeException();
+        }
+    }
+
+    private HabitResponse toHabitResponse(HabitResponseDTO habit) {
+        return HabitResponse.newBuilder().setHabit(habitProtoMapper.toProto(habit)).build();
+    }
+
+    // Accepts either an ISO date-time or a plain ISO date; empty means "now"
+    private LocalDateTime parseCompletedAt(String date) {
+        if (date == null || date.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(date);
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(date).atStartOfDay();
+        }
+    }
+
+    private Status toStatus(Exception e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (e instanceof ResourceNotFoundException || e instanceof EntityNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage());
+        }
+        if (e instanceof ForbiddenException) {
+            return Status.PERMISSION_DENIED.withDescription(e.getMessage());
+        }
+        if (e instanceof InvalidRequestException || e instanceof IllegalArgumentException
+                || e instanceof DateTimeParseException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        return Status.INTERNAL.withDescription("Habit request failed").withCause(e);
+    }
+}
@@ -5,6 +5,7 @@ import com.habittracker.habit.dto.HabitRequestDTO;
 import com.habittracker.habit.dto.HabitResponseDTO;
 import com.habittracker.habit.dto.HabitUpdateDTO;
 import com.habittracker.habit.dto.PagedResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
 import com.habittracker.habit.exception.InvalidRequestException;
 import com.habittracker.habit.exception.ResourceNotFoundException;
 import com.habittracker.habit.mapper.HabitMapper;
@@ -13,7 +14,11 @@ import com.habittracker.habit.model.HabitStreak;
 import com.habittracker.habit.repository.CategoryRepository;
 import com.habittracker.habit.repository.HabitRepository;
 import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.repository.projection.HabitSummary;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.CompiledScheduleCache;
 import com.habittracker.habit.service.HabitService;
+import com.habittracker.habit.service.LeaderboardService;
 import com.habittracker.habit.service.ScheduleValidationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +30,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,11 +42,16 @@ import java.util.stream.Collectors;
 @Transactional
 @Slf4j
 public class HabitServiceImpl implements HabitService {
+    private static final String DEFAULT_TIME_ZONE = "UTC";
+    
     private final HabitRepository habitRepository;
     private final HabitStreakRepository habitStreakRepository;
     private final CategoryRepository categoryRepository;
     private final ScheduleValidationService scheduleValidationService;
     private final HabitMapper habitMapper;
+    private final CompiledScheduleCache compiledScheduleCache;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final LeaderboardService leaderboardService;
 
     @Override
     public List<Habit> getAllHabitsByUserId(UUID userId) {
@@ -56,6 +68,12 @@ public class HabitServiceImpl implements HabitService {
         return habitRepository.findById(id);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> getHabitOwnerIds(Collection<UUID> habitIds) {
+        return habitIds.isEmpty() ? List.of() : habitRepository.findDistinctUserIdsByIdIn(habitIds);
+    }
+    
     @Override
     @Transactional
     public HabitResponseDTO createHabit(HabitRequestDTO dto) {
@@ -64,7 +82,6 @@ public class HabitServiceImpl implements HabitService {
         
         try {
             // Set required fields
-            habit.setId(UUID.randomUUID());
             habit.setUserId(dto.getUserId());
             habit.setName(dto.getName());
             habit.setFrequency(dto.getFrequency());
@@ -75,6 +92,7 @@ public class HabitServiceImpl implements HabitService {
             habit.setSchedule(dto.getSchedule());
             habit.setColor(dto.getColor());
             habit.setIcon(dto.getIcon());
+            habit.setTimeZone(dto.getTimeZone() != null ? ZoneId.of(dto.getTimeZone()).getId() : DEFAULT_TIME_ZONE);
             habit.setCreatedAt(LocalDateTime.now());
             
             // Associate with category if provided
@@ -95,16 +113,27 @@ public class HabitServiceImpl implements HabitService {
             HabitStreak streak = new HabitStreak();
             streak.setHabitId(savedHabit.getId());
             streak.setHabit(savedHabit);
+            streak.setUserId(savedHabit.getUserId());
             streak.setCurrentStreak(0);
             streak.setBestStreak(0);
             streak.setCompletionRate(0.0);
             
+            // Seed the running completion counters used by the check-in path
+            LocalDateTime now = LocalDateTime.now();
+            streak.setTotalCompletions(0);
+            streak.setExpectedCompletions(scheduleValidationService.calculateRequiredCompletionsSinceCreation(savedHabit, now));
+            streak.setExpectedAsOf(now);
+            streak.setPeriodStart(scheduleValidationService.getCurrentPeriodStart(savedHabit, now));
+            streak.setPeriodCompletions(0);
+            savedHabit.setStreak(streak);
+            
             // Calculate next due date
-            LocalDateTime nextDueAt = scheduleValidationService.calculateNextDueDate(savedHabit, LocalDateTime.now());
+            LocalDateTime nextDueAt = scheduleValidationService.calculateNextDueDate(savedHabit, now);
             streak.setNextDueAt(nextDueAt);
             
             habitStreakRepository.save(streak);
-            savedHabit.setStreak(streak);
+            analyticsResultCache.invalidate(savedHabit.getUserId());
+            leaderboardService.refreshUsers(List.of(savedHabit.getUserId()));
             
             // Convert to response DTO
             return habitMapper.toResponseDTO(savedHabit);
@@ -144,8 +173,8 @@ public class HabitServiceImpl implements HabitService {
         // Create pageable instance
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        // Get page of habits
-        Page<Habit> habitPage = habitRepository.findAllByUserIdPaged(userId, pageable);
+        // Get page of listing rows, read as projections rather than managed entities
+        Page<HabitSummary> habitPage = habitRepository.findSummariesByUserId(userId, pageable);
         
         // Map to response DTOs
         List<HabitResponseDTO> habitDTOs = habitPage.getContent().stream()
@@ -156,6 +185,35 @@ public class HabitServiceImpl implements HabitService {
         return buildPagedResponse(habitDTOs, habitPage);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public SlicedResponseDTO<HabitResponseDTO> getHabitsByUserIdAfterCursor(UUID userId, String cursor, int size) {
+        if (size <= 0 || size > 100) {
+            throw new InvalidRequestException("Page size must be between 1 and 100");
+        }
+        
+        // One extra row tells whether another slice follows, so no count query is needed
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<HabitSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = habitRepository.findLatestSummariesByUserId(userId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.parse(cursor);
+            rows = habitRepository.findSummariesByUserIdBefore(userId, position.timestamp(), position.id(), limit);
+        }
+        
+        boolean hasNext = rows.size() > size;
+        List<HabitSummary> slice = hasNext ? rows.subList(0, size) : rows;
+        HabitSummary last = slice.isEmpty() ? null : slice.get(slice.size() - 1);
+        
+        return SlicedResponseDTO.<HabitResponseDTO>builder()
+                .content(slice.stream().map(habitMapper::toResponseDTO).collect(Collectors.toList()))
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new KeysetCursor(last.getCreatedAt(), last.getId()).format() : null)
+                .build();
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public PagedResponseDTO<HabitResponseDTO> getHabitsByUserIdAndCategoryWithPagination(
@@ -188,6 +246,14 @@ public class HabitServiceImpl implements HabitService {
         return buildPagedResponse(habitDTOs, habitPage);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<HabitResponseDTO> getHabitsResponseByUserId(UUID userId) {
+        return habitRepository.findAllByUserId(userId).stream()
+                .map(habitMapper::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<HabitResponseDTO> getHighPriorityHabitsResponse(UUID userId, Integer minPriority) {
@@ -276,14 +342,23 @@ public class HabitServiceImpl implements HabitService {
             boolean scheduleChanged = !originalFrequency.equals(habit.getFrequency()) || 
                     (originalSchedule != null && !originalSchedule.equals(habit.getSchedule()));
                     
+            if (scheduleChanged) {
+                compiledScheduleCache.invalidate(id);
+            }
+            
             if (scheduleChanged && habit.getStreak() != null) {
                 HabitStreak streak = habit.getStreak();
+                // Counters were kept against the old schedule; reseed them on the next check-in
+                streak.setExpectedAsOf(null);
+                streak.setPeriodStart(null);
+                streak.setPeriodCompletions(null);
                 streak.setNextDueAt(scheduleValidationService.calculateNextDueDate(habit, LocalDateTime.now()));
                 habitStreakRepository.save(streak);
             }
             
             // Save the updated habit
             Habit updatedHabit = habitRepository.save(habit);
+            analyticsResultCache.invalidate(updatedHabit.getUserId());
             
             // Return response DTO
             return habitMapper.toResponseDTO(updatedHabit);
@@ -312,6 +387,9 @@ public class HabitServiceImpl implements HabitService {
             
             // Delete the habit (cascading will be handled by JPA annotations)
             habitRepository.delete(habit);
+            compiledScheduleCache.invalidate(id);
+            analyticsResultCache.invalidate(habit.getUserId());
+            leaderboardService.refreshUsers(List.of(habit.getUserId()));
             
             log.info("Habit deleted: ID={}, name={}", id, habitName);
             
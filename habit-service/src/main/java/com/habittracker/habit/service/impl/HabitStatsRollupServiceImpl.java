@@ -0,0 +1,153 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitDailyStat;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.HabitDailyStatRepository;
+import com.habittracker.habit.repository.HabitRepository;
+import com.habittracker.habit.service.HabitStatsRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class HabitStatsRollupServiceImpl implements HabitStatsRollupService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final HabitDailyStatRepository dailyStatRepository;
+    private final HabitRepository habitRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.analytics.rollup.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${application.analytics.rollup.backfill-chunk-size:500}")
+    private int backfillChunkSize;
+
+    public HabitStatsRollupServiceImpl(HabitDailyStatRepository dailyStatRepository,
+                                       HabitRepository habitRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.dailyStatRepository = dailyStatRepository;
+        this.habitRepository = habitRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds a single completion to its habit/day rollup row. Must run inside the
+     * transaction that persists the tracking record so both commit together.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(HabitTrackingRecord record) {
+        Habit habit = record.getHabit();
+        
+        dailyStatRepository.upsertCompletion(
+                habit.getId(),
+                habit.getUserId(),
+                record.getCompletedAt().toLocalDate(),
+                record.getDurationMinutes() != null ? record.getDurationMinutes() : 0,
+                record.getMoodRating() != null ? record.getMoodRating() : 0,
+                record.getMoodRating() != null ? 1 : 0,
+                record.getDifficultyRating() != null ? record.getDifficultyRating() : 0,
+                record.getDifficultyRating() != null ? 1 : 0);
+    }
+
+    /**
+     * Folds a batch of completions into one increment per habit/day and upserts them in a single
+     * JDBC batch. Must run inside the transaction that persists the tracking records.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletions(List<HabitTrackingRecord> records) {
+        Map<HabitDailyStat.HabitDailyStatId, HabitDailyStat> increments = new LinkedHashMap<>();
+        
+        for (HabitTrackingRecord record : records) {
+            Habit habit = record.getHabit();
+            HabitDailyStat increment = increments.computeIfAbsent(
+                    new HabitDailyStat.HabitDailyStatId(habit.getId(), record.getCompletedAt().toLocalDate()),
+                    id -> HabitDailyStat.builder()
+                            .habitId(id.getHabitId())
+                            .statDate(id.getStatDate())
+                            .userId(habit.getUserId())
+                            .completionCount(0)
+                            .totalDurationMinutes(0)
+                            .moodRatingSum(0)
+                            .moodRatingCount(0)
+                            .difficultyRatingSum(0)
+                            .difficultyRatingCount(0)
+                            .build());
+            
+            increment.setCompletionCount(increment.getCompletionCount() + 1);
+            if (record.getDurationMinutes() != null) {
+                increment.setTotalDurationMinutes(increment.getTotalDurationMinutes() + record.getDurationMinutes());
+            }
+            if (record.getMoodRating() != null) {
+                increment.setMoodRatingSum(increment.getMoodRatingSum() + record.getMoodRating());
+                increment.setMoodRatingCount(increment.getMoodRatingCount() + 1);
+            }
+            if (record.getDifficultyRating() != null) {
+                increment.setDifficultyRatingSum(increment.getDifficultyRatingSum() + record.getDifficultyRating());
+                increment.setDifficultyRatingCount(increment.getDifficultyRatingCount() + 1);
+            }
+        }
+        
+        dailyStatRepository.batchUpsertIncrements(new ArrayList<>(increments.values()));
+    }
+
+    /**
+     * Rebuilds the rollup from habit_tracking_records, one chunk of habits per
+     * transaction so the job never holds a table-wide lock. Safe to re-run.
+     * Each chunk's rows are deleted before being recounted, so days whose records
+     * have since been deleted do not keep their old counts.
+     */
+    @Override
+    public int backfillRollup() {
+        int habitsProcessed = 0;
+        int rowsWritten = 0;
+        UUID lastId = MIN_UUID;
+        
+        List<UUID> habitIds = habitRepository.findIdsAfter(lastId, PageRequest.of(0, backfillChunkSize));
+        while (!habitIds.isEmpty()) {
+            rowsWritten += rebuildChunk(habitIds);
+            habitsProcessed += habitIds.size();
+            lastId = habitIds.get(habitIds.size() - 1);
+            
+            log.debug("Rollup backfill progress: {} habits, {} daily rows", habitsProcessed, rowsWritten);
+            habitIds = habitRepository.findIdsAfter(lastId, PageRequest.of(0, backfillChunkSize));
+        }
+        
+        log.info("Rollup backfill finished: {} habits, {} daily rows", habitsProcessed, rowsWritten);
+        return rowsWritten;
+    }
+
+    private int rebuildChunk(List<UUID> habitIds) {
+        Integer written = transactionTemplate.execute(status -> {
+            dailyStatRepository.deleteForHabits(habitIds);
+            return dailyStatRepository.rebuildForHabits(habitIds);
+        });
+        return written != null ? written : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            log.info("Starting habit_daily_stats backfill");
+            backfillRollup();
+        }
+    }
+}
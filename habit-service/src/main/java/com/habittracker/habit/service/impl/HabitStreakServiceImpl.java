@@ -1,16 +1,20 @@
 package com.habittracker.habit.service.impl;
 
+import com.habittracker.habit.model.Habit;
 import com.habittracker.habit.model.HabitStreak;
 import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.repository.projection.HabitStreakRanking;
 import com.habittracker.habit.service.HabitStreakService;
+import com.habittracker.habit.service.ScheduleValidationService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +22,9 @@ import java.util.stream.Collectors;
 public class HabitStreakServiceImpl implements HabitStreakService {
 
     private final HabitStreakRepository streakRepository;
+    private final HabitTrackingRecordRepository trackingRecordRepository;
+    private final ScheduleValidationService scheduleValidationService;
+    private final Clock clock;
     
     @Override
     public Optional<HabitStreak> getStreakByHabitId(UUID habitId) {
@@ -30,35 +37,18 @@ public class HabitStreakServiceImpl implements HabitStreakService {
     }
     
     @Override
-    public List<HabitStreak> getTopStreaksByUserId(UUID userId, int limit) {
-        return streakRepository.findByUserIdOrderByCurrentStreakDesc(userId)
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+    public List<HabitStreakRanking> getTopStreaksByUserId(UUID userId, int limit) {
+        return streakRepository.findTopByCurrentStreak(userId, PageRequest.of(0, limit));
     }
 
-    @Scheduled(cron = "0 0 0 * * ?") // Run daily at midnight
-    @Transactional
-    public void scheduledResetExpiredStreaks() {
-        resetExpiredStreaks(LocalDateTime.now());
-    }
-    
     @Override
     @Transactional
-    public void resetExpiredStreaks(LocalDateTime currentTime) {
-        if (currentTime == null) {
-            currentTime = LocalDateTime.now();
-        }
-        
-        List<HabitStreak> expiredStreaks = streakRepository.findStreaksToReset(currentTime);
-        
-        for (HabitStreak streak : expiredStreaks) {
-            // Only reset if the streak was active
-            if (streak.getCurrentStreak() > 0) {
-                streak.setCurrentStreak(0);
-                streakRepository.save(streak);
-            }
+    public int resetExpiredStreaks(List<UUID> habitIds, LocalDateTime currentTime) {
+        if (habitIds.isEmpty()) {
+            return 0;
         }
+        // The predicate is re-checked so a check-in racing the reset keeps its streak
+        return streakRepository.resetExpiredStreaks(habitIds, currentTime);
     }
     
     @Override
@@ -104,7 +94,40 @@ public class HabitStreakServiceImpl implements HabitStreakService {
     }
     
     @Override
-    public List<HabitStreak> getStreaksByEfficiency(UUID userId) {
-        return streakRepository.findStreaksByEfficiency(userId);
+    public List<HabitStreakRanking> getStreaksByEfficiency(UUID userId, int limit) {
+        return streakRepository.findTopByEfficiency(userId, PageRequest.of(0, limit));
+    }
+    
+    @Override
+    @Transactional
+    public int reconcileCompletionCounters(List<UUID> habitIds) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        
+        Map<UUID, Long> actualCounts = new HashMap<>();
+        for (Object[] row : trackingRecordRepository.countCompletionsByHabitIds(habitIds)) {
+            actualCounts.put((UUID) row[0], (Long) row[1]);
+        }
+        
+        int repaired = 0;
+        for (HabitStreak streak : streakRepository.findAllWithHabitByHabitIdIn(habitIds)) {
+            Habit habit = streak.getHabit();
+            int actual = actualCounts.getOrDefault(habit.getId(), 0L).intValue();
+            LocalDateTime asOf = streak.getExpectedAsOf();
+            
+            // Expected completions are checked at the streak's own watermark: a streak last
+            // advanced yesterday is behind today's count without having drifted
+            if (asOf != null
+                    && Objects.equals(streak.getTotalCompletions(), actual)
+                    && Objects.equals(streak.getExpectedCompletions(),
+                            scheduleValidationService.calculateRequiredCompletionsSinceCreation(habit, asOf))) {
+                continue;
+            }
+            
+            int expected = scheduleValidationService.calculateRequiredCompletionsSinceCreation(habit, now);
+            repaired += streakRepository.updateCompletionCounters(habit.getId(), actual, expected, now,
+                    expected > 0 ? (double) actual / expected : 0, asOf);
+        }
+        
+        return repaired;
     }
 }
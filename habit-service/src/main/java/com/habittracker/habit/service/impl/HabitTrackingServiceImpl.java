@@ -1,24 +1,51 @@
 package com.habittracker.habit.service.impl;
 
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.BatchTrackingResponseDTO;
+import com.habittracker.habit.dto.TrackingRecordRequestDTO;
+import com.habittracker.habit.dto.TrackingRecordResponseDTO;
+import com.habittracker.habit.exception.ForbiddenException;
+import com.habittracker.habit.exception.InvalidRequestException;
+import com.habittracker.habit.exception.ResourceNotFoundException;
 import com.habittracker.habit.model.Habit;
 import com.habittracker.habit.model.HabitStreak;
 import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.model.TimeOrderedUuidGenerator;
 import com.habittracker.habit.repository.HabitRepository;
 import com.habittracker.habit.repository.HabitStreakRepository;
 import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.repository.projection.TrackingRecordSummary;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.HabitStatsRollupService;
 import com.habittracker.habit.service.HabitTrackingService;
+import com.habittracker.habit.service.LeaderboardService;
 import com.habittracker.habit.service.ScheduleValidationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +56,16 @@ public class HabitTrackingServiceImpl implements HabitTrackingService {
     private final HabitTrackingRecordRepository trackingRecordRepository;
     private final HabitStreakRepository habitStreakRepository;
     private final ScheduleValidationService scheduleValidationService;
+    private final HabitStatsRollupService statsRollupService;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final LeaderboardService leaderboardService;
+    private final Clock clock;
+    
+    @Value("${application.tracking.history.default-page-size:100}")
+    private int historyDefaultPageSize;
+    
+    @Value("${application.tracking.history.max-page-size:10000}")
+    private int historyMaxPageSize;
     
     @Override
     public HabitTrackingRecord trackHabitCompletion(UUID habitId, HabitTrackingRecord record) {
@@ -36,25 +73,150 @@ public class HabitTrackingServiceImpl implements HabitTrackingService {
                 .orElseThrow(() -> new EntityNotFoundException("Habit not found with id: " + habitId));
         
         record.setHabit(habit);
+        record.setUserId(habit.getUserId());
         
         if (record.getCompletedAt() == null) {
-            record.setCompletedAt(LocalDateTime.now());
+            record.setCompletedAt(LocalDateTime.now(clock));
         }
         
         // Save the tracking record
         HabitTrackingRecord savedRecord = trackingRecordRepository.save(record);
         
+        // Roll the completion into the daily stats used by analytics
+        statsRollupService.recordCompletion(savedRecord);
+        
         // Update streak information
         updateHabitStreak(habit, record.getCompletedAt());
         
+        analyticsResultCache.invalidate(habit.getUserId());
+        
         return savedRecord;
     }
     
+    @Override
+    public BatchTrackingResponseDTO trackHabitCompletions(UUID userId, BatchTrackingRequestDTO request) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TrackingRecordRequestDTO> completions = request.getCompletions();
+        
+        // Load every referenced habit in one query
+        Map<UUID, Habit> habits = habitRepository.findAllById(completions.stream()
+                        .map(TrackingRecordRequestDTO::getHabitId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Habit::getId, Function.identity()));
+        
+        // Build the records with app-assigned, time-ordered ids so they can be inserted as one JDBC batch
+        List<HabitTrackingRecord> records = new ArrayList<>(completions.size());
+        Map<UUID, List<HabitTrackingRecord>> recordsByHabit = new LinkedHashMap<>();
+        for (TrackingRecordRequestDTO completion : completions) {
+            Habit habit = habits.get(completion.getHabitId());
+            if (habit == null) {
+                throw new ResourceNotFoundException("Habit", "id", completion.getHabitId());
+            }
+            if (!habit.getUserId().equals(userId)) {
+                throw new ForbiddenException("Habit " + habit.getId() + " belongs to another user");
+            }
+            
+            HabitTrackingRecord record = HabitTrackingRecord.builder()
+                    .id(TimeOrderedUuidGenerator.generate())
+                    .habit(habit)
+                    .userId(habit.getUserId())
+                    .completedAt(completion.getCompletedAt() != null ? completion.getCompletedAt() : now)
+                    .notes(completion.getNotes())
+                    .durationMinutes(completion.getDurationMinutes())
+                    .moodRating(completion.getMoodRating())
+                    .difficultyRating(completion.getDifficultyRating())
+                    .build();
+            
+            records.add(record);
+            recordsByHabit.computeIfAbsent(habit.getId(), id -> new ArrayList<>()).add(record);
+        }
+        
+        trackingRecordRepository.batchInsert(records);
+        statsRollupService.recordCompletions(records);
+        
+        // Replay the streak logic once per habit, oldest completion first, and save each streak once
+        for (List<HabitTrackingRecord> habitRecords : recordsByHabit.values()) {
+            habitRecords.sort(Comparator.comparing(HabitTrackingRecord::getCompletedAt));
+            Habit habit = habitRecords.get(0).getHabit();
+            HabitStreak streak = getOrCreateStreak(habit);
+            
+            for (HabitTrackingRecord record : habitRecords) {
+                applyCompletionToStreak(habit, streak, record.getCompletedAt());
+            }
+            
+            updateCompletionRate(habit, streak, habitRecords.size());
+            habitStreakRepository.save(streak);
+        }
+        
+        Set<UUID> userIds = habits.values().stream()
+                .map(Habit::getUserId)
+                .collect(Collectors.toSet());
+        analyticsResultCache.invalidateAll(userIds);
+        leaderboardService.refreshUsers(userIds);
+        
+        return BatchTrackingResponseDTO.builder()
+                .recordsTracked(records.size())
+                .habitsUpdated(recordsByHabit.size())
+                .recordIds(records.stream().map(HabitTrackingRecord::getId).collect(Collectors.toList()))
+                .build();
+    }
+    
     @Override
     public List<HabitTrackingRecord> getTrackingRecordsByHabitId(UUID habitId) {
         return trackingRecordRepository.findByHabitId(habitId);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public int prepareTrackingHistory(UUID habitId, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : historyDefaultPageSize;
+        if (pageSize <= 0 || pageSize > historyMaxPageSize) {
+            throw new InvalidRequestException("Limit must be between 1 and " + historyMaxPageSize);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor.parse(cursor);
+        }
+        if (!habitRepository.existsById(habitId)) {
+            throw new ResourceNotFoundException("Habit", "id", habitId);
+        }
+        return pageSize;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public String streamTrackingHistory(UUID habitId, String cursor, int limit,
+                                        Consumer<TrackingRecordResponseDTO> consumer) {
+        // One extra row tells whether another slice follows
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.parse(cursor);
+        
+        try (Stream<TrackingRecordSummary> rows = position == null
+                ? trackingRecordRepository.streamLatestHistory(habitId, pageable)
+                : trackingRecordRepository.streamHistoryBefore(habitId, position.timestamp(), position.id(), pageable)) {
+            Iterator<TrackingRecordSummary> iterator = rows.iterator();
+            TrackingRecordSummary last = null;
+            int written = 0;
+            while (iterator.hasNext()) {
+                TrackingRecordSummary row = iterator.next();
+                if (written == limit) {
+                    return new KeysetCursor(last.getCompletedAt(), last.getId()).format();
+                }
+                consumer.accept(TrackingRecordResponseDTO.builder()
+                        .id(row.getId())
+                        .completedAt(row.getCompletedAt())
+                        .notes(row.getNotes())
+                        .durationMinutes(row.getDurationMinutes())
+                        .moodRating(row.getMoodRating())
+                        .difficultyRating(row.getDifficultyRating())
+                        .build());
+                last = row;
+                written++;
+            }
+            return null;
+        }
+    }
+    
     @Override
     public List<HabitTrackingRecord> getTrackingRecordsByDateRange(UUID habitId, LocalDateTime start, LocalDateTime end) {
         return trackingRecordRepository.findByHabitIdAndCompletedAtBetween(habitId, start, end);
@@ -104,18 +266,35 @@ public class HabitTrackingServiceImpl implements HabitTrackingService {
     }
     
     private void updateHabitStreak(Habit habit, LocalDateTime completionTime) {
+        HabitStreak streak = getOrCreateStreak(habit);
+        
+        applyCompletionToStreak(habit, streak, completionTime);
+        
+        // Calculate completion rate
+        updateCompletionRate(habit, streak, 1);
+        
+        habitStreakRepository.save(streak);
+        leaderboardService.refreshUsers(List.of(habit.getUserId()));
+    }
+    
+    private HabitStreak getOrCreateStreak(Habit habit) {
         HabitStreak streak = habit.getStreak();
         
         if (streak == null) {
             streak = HabitStreak.builder()
                     .habit(habit)
+                    .userId(habit.getUserId())
                     .currentStreak(0)
                     .bestStreak(0)
                     .completionRate(0.0)
                     .build();
+            habit.setStreak(streak);
         }
         
-        LocalDateTime now = LocalDateTime.now();
+        return streak;
+    }
+    
+    private void applyCompletionToStreak(Habit habit, HabitStreak streak, LocalDateTime completionTime) {
         boolean isOnTime = scheduleValidationService.isHabitOnSchedule(habit, completionTime);
         
         // If completed on time, increment streak
@@ -134,30 +313,57 @@ public class HabitTrackingServiceImpl implements HabitTrackingService {
         // Update last completed time
         streak.setLastCompletedAt(completionTime);
         
+        // Count the completion towards its week or month before working out the next due date
+        recordPeriodCompletion(habit, streak, completionTime);
+        
         // Calculate next due date
         streak.setNextDueAt(scheduleValidationService.calculateNextDueDate(habit, completionTime));
+    }
+    
+    private void recordPeriodCompletion(Habit habit, HabitStreak streak, LocalDateTime completionTime) {
+        LocalDate period = scheduleValidationService.getCurrentPeriodStart(habit, completionTime);
+        if (period == null) {
+            return;
+        }
         
-        // Calculate completion rate
-        updateCompletionRate(habit, streak);
+        if (streak.getPeriodStart() == null) {
+            // Seed from history once; the completion being applied is counted below, so only
+            // records strictly before it are included
+            streak.setPeriodStart(period);
+            streak.setPeriodCompletions(trackingRecordRepository.countCompletionsInRange(
+                    habit.getId(), period.atStartOfDay(), completionTime.minus(1, ChronoUnit.MICROS)).intValue());
+        } else if (period.isAfter(streak.getPeriodStart())) {
+            // First completion of a new week or month
+            streak.setPeriodStart(period);
+            streak.setPeriodCompletions(0);
+        } else if (period.isBefore(streak.getPeriodStart())) {
+            // Backdated into an earlier period; the counter only tracks the latest one
+            return;
+        }
         
-        habitStreakRepository.save(streak);
+        streak.setPeriodCompletions(streak.getPeriodCompletions() + 1);
     }
     
-    private void updateCompletionRate(Habit habit, HabitStreak streak) {
-        LocalDateTime startOfTracking = habit.getCreatedAt();
-        LocalDateTime now = LocalDateTime.now();
+    private void updateCompletionRate(Habit habit, HabitStreak streak, int newCompletions) {
+        LocalDateTime now = LocalDateTime.now(clock);
         
-        // Calculate expected completions for the period since habit creation
-        int totalExpectedCompletions = scheduleValidationService
-                .calculateRequiredCompletionsForPeriod(habit, startOfTracking, now);
-        
-        // Get actual completions
-        long actualCompletions = trackingRecordRepository.countCompletionsInRange(
-                habit.getId(), startOfTracking, now);
+        if (streak.getExpectedAsOf() == null) {
+            // Counters have never been seeded for this streak, so count the history once; like
+            // the increments below and the reconciliation job, every record of the habit counts
+            streak.setExpectedCompletions(scheduleValidationService
+                    .calculateRequiredCompletionsSinceCreation(habit, now));
+            streak.setTotalCompletions((int) trackingRecordRepository.countByHabitId(habit.getId()));
+        } else {
+            // Advance the running counters past the watermark instead of recounting history
+            streak.setExpectedCompletions(streak.getExpectedCompletions() + scheduleValidationService
+                    .calculateRequiredCompletionsSince(habit, streak.getExpectedAsOf(), now));
+            streak.setTotalCompletions(streak.getTotalCompletions() + newCompletions);
+        }
+        streak.setExpectedAsOf(now);
         
         // Calculate and set completion rate
-        double completionRate = (totalExpectedCompletions > 0)
-                ? (double) actualCompletions / totalExpectedCompletions 
+        double completionRate = (streak.getExpectedCompletions() > 0)
+                ? (double) streak.getTotalCompletions() / streak.getExpectedCompletions()
                 : 0;
         
         streak.setCompletionRate(completionRate);
@@ -0,0 +1,29 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.exception.InvalidRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a keyset slice ordered by (timestamp DESC, id DESC), encoded
+ * for clients as "timestamp,id"
+ */
+record KeysetCursor(LocalDateTime timestamp, UUID id) {
+    
+    static KeysetCursor parse(String cursor) {
+        int separator = cursor.lastIndexOf(',');
+        try {
+            return new KeysetCursor(
+                    LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0))),
+                    UUID.fromString(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    String format() {
+        return timestamp + "," + id;
+    }
+}
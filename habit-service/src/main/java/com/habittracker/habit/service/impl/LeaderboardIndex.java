@@ -0,0 +1,117 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.model.LeaderboardMetric;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-user leaderboard scores with one ranked index per metric. Not thread-safe; the owning
+ * service serializes writers against readers.
+ */
+final class LeaderboardIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x4C425331;  // "LBS1"
+
+    private final Map<UUID, Scores> scoresByUser = new HashMap<>();
+    private final Map<LeaderboardMetric, RankedIndex> indexes = new EnumMap<>(LeaderboardMetric.class);
+
+    record Scores(int currentStreak, int bestStreak, double completionRate) {
+
+        double get(LeaderboardMetric metric) {
+            return switch (metric) {
+                case CURRENT_STREAK -> currentStreak;
+                case BEST_STREAK -> bestStreak;
+                case COMPLETION_RATE -> completionRate;
+            };
+        }
+    }
+
+    LeaderboardIndex() {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            indexes.put(metric, new RankedIndex());
+        }
+    }
+
+    int size() {
+        return scoresByUser.size();
+    }
+
+    Optional<Scores> get(UUID userId) {
+        return Optional.ofNullable(scoresByUser.get(userId));
+    }
+
+    void put(UUID userId, Scores scores) {
+        Scores previous = scoresByUser.put(userId, scores);
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            RankedIndex index = indexes.get(metric);
+            if (previous != null) {
+                index.remove(userId, previous.get(metric));
+            }
+            index.insert(userId, scores.get(metric));
+        }
+    }
+
+    void remove(UUID userId) {
+        Scores previous = scoresByUser.remove(userId);
+        if (previous != null) {
+            for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                indexes.get(metric).remove(userId, previous.get(metric));
+            }
+        }
+    }
+
+    int rankOf(LeaderboardMetric metric, UUID userId) {
+        Scores scores = scoresByUser.get(userId);
+        return scores != null ? indexes.get(metric).rankOf(userId, scores.get(metric)) : 0;
+    }
+
+    List<RankedIndex.Entry> top(LeaderboardMetric metric, int limit) {
+        return indexes.get(metric).top(limit);
+    }
+
+    /**
+     * A copy of every user's scores, cheap enough to take under the owner's lock and write out
+     * after releasing it. Scores are immutable, so a shallow copy is enough.
+     */
+    Map<UUID, Scores> copyScores() {
+        return new HashMap<>(scoresByUser);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        writeTo(out, scoresByUser);
+    }
+
+    static void writeTo(DataOutput out, Map<UUID, Scores> scores) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(scores.size());
+        for (Map.Entry<UUID, Scores> entry : scores.entrySet()) {
+            out.writeLong(entry.getKey().getMostSignificantBits());
+            out.writeLong(entry.getKey().getLeastSignificantBits());
+            out.writeInt(entry.getValue().currentStreak());
+            out.writeInt(entry.getValue().bestStreak());
+            out.writeDouble(entry.getValue().completionRate());
+        }
+    }
+
+    static LeaderboardIndex readFrom(DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a leaderboard snapshot");
+        }
+        
+        LeaderboardIndex index = new LeaderboardIndex();
+        int users = in.readInt();
+        for (int i = 0; i < users; i++) {
+            UUID userId = new UUID(in.readLong(), in.readLong());
+            index.put(userId, new Scores(in.readInt(), in.readInt(), in.readDouble()));
+        }
+        return index;
+    }
+}
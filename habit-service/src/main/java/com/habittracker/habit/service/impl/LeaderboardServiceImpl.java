@@ -0,0 +1,302 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.dto.LeaderboardEntryDTO;
+import com.habittracker.habit.model.LeaderboardMetric;
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.repository.projection.UserStreakScores;
+import com.habittracker.habit.service.LeaderboardService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves leaderboards from an in-memory index of every user's scores, kept current by re-reading
+ * a user's streak aggregates after each committed streak change. Each replica only sees its own
+ * writes, so the index is also rebuilt from the table periodically. On startup the index is
+ * restored from the last local snapshot, falling back to a full rebuild when there is none.
+ */
+@Service
+@Slf4j
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final HabitStreakRepository streakRepository;
+    private final Counter refreshFailures;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private LeaderboardIndex index = new LeaderboardIndex();
+    private Set<UUID> refreshedDuringRebuild;  // Re-read once a rebuilt index has been swapped in
+
+    @Value("${application.leaderboard.snapshot-path:data/leaderboard.snapshot}")
+    private String snapshotPath;
+
+    @Value("${application.leaderboard.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    public LeaderboardServiceImpl(HabitStreakRepository streakRepository, MeterRegistry meterRegistry) {
+        this.streakRepository = streakRepository;
+        this.refreshFailures = meterRegistry.counter("habit.leaderboard.refresh.failures");
+        meterRegistry.gauge("habit.leaderboard.users", this, LeaderboardServiceImpl::size);
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> getTop(LeaderboardMetric metric, int limit) {
+        List<RankedIndex.Entry> top;
+        lock.readLock().lock();
+        try {
+            top = index.top(metric, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(top.size());
+        for (RankedIndex.Entry entry : top) {
+            entries.add(toEntry(entries.size() + 1, entry.userId(), entry.score()));
+        }
+        return entries;
+    }
+
+    @Override
+    public Optional<LeaderboardEntryDTO> getRank(LeaderboardMetric metric, UUID userId) {
+        lock.readLock().lock();
+        try {
+            return index.get(userId)
+                    .map(scores -> toEntry(index.rankOf(metric, userId), userId, scores.get(metric)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> getFriendsLeaderboard(LeaderboardMetric metric, UUID userId, Collection<UUID> friendIds) {
+        Set<UUID> members = new LinkedHashSet<>(friendIds);
+        members.add(userId);
+        
+        List<RankedIndex.Entry> ranked = new ArrayList<>(members.size());
+        lock.readLock().lock();
+        try {
+            for (UUID member : members) {
+                index.get(member).ifPresent(scores -> ranked.add(new RankedIndex.Entry(member, scores.get(metric))));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        ranked.sort(Comparator.comparingDouble(RankedIndex.Entry::score).reversed()
+                .thenComparing(RankedIndex.Entry::userId));
+        
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(ranked.size());
+        for (RankedIndex.Entry entry : ranked) {
+            entries.add(toEntry(entries.size() + 1, entry.userId(), entry.score()));
+        }
+        return entries;
+    }
+
+    @Override
+    public void refreshUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        
+        List<UUID> pending = List.copyOf(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // The caller's transaction has committed; a failure here must not surface as
+                    // its error. The next periodic rebuild picks up the missed change.
+                    try {
+                        applyScores(pending);
+                    } catch (RuntimeException e) {
+                        refreshFailures.increment();
+                        log.warn("Could not refresh leaderboard scores of {} users: {}", pending.size(), e.getMessage(), e);
+                    }
+                }
+            });
+        } else {
+            applyScores(pending);
+        }
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        lock.writeLock().lock();
+        try {
+            refreshedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        LeaderboardIndex rebuilt = new LeaderboardIndex();
+        try {
+            List<UserStreakScores> chunk = streakRepository.findScoresAfter(MIN_UUID, PageRequest.of(0, rebuildChunkSize));
+            while (!chunk.isEmpty()) {
+                chunk.forEach(scores -> rebuilt.put(scores.getUserId(), toScores(scores)));
+                UUID lastId = chunk.get(chunk.size() - 1).getUserId();
+                chunk = streakRepository.findScoresAfter(lastId, PageRequest.of(0, rebuildChunkSize));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                refreshedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        
+        int users = rebuilt.size();
+        Set<UUID> refreshed;
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            refreshed = refreshedDuringRebuild;
+            refreshedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        // Pages read before a concurrent refresh committed may hold that user's old scores
+        if (!refreshed.isEmpty()) {
+            applyScores(refreshed);
+        }
+        
+        log.info("Leaderboard rebuilt with {} users", users);
+        return users;
+    }
+
+    /**
+     * Writes the index to a temporary file and moves it over the previous snapshot, so a crash
+     * mid-write never leaves a truncated snapshot behind. Writers only wait while the scores are
+     * copied, not for the disk.
+     */
+    @Override
+    @PreDestroy
+    public void writeSnapshot() {
+        Path target = Path.of(snapshotPath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        
+        Map<UUID, LeaderboardIndex.Scores> scores;
+        lock.readLock().lock();
+        try {
+            scores = index.copyScores();
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        try {
+            Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                LeaderboardIndex.writeTo(out, scores);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Leaderboard snapshot of {} users written to {}", scores.size(), target);
+        } catch (IOException e) {
+            log.warn("Could not write leaderboard snapshot to {}", target, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!restoreSnapshot()) {
+            rebuild();
+        }
+    }
+
+    boolean restoreSnapshot() {
+        Path source = Path.of(snapshotPath).toAbsolutePath();
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            LeaderboardIndex restored = LeaderboardIndex.readFrom(in);
+            lock.writeLock().lock();
+            try {
+                index = restored;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Leaderboard restored with {} users from {}", restored.size(), source);
+            return true;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable leaderboard snapshot {}", source, e);
+            return false;
+        }
+    }
+
+    private void applyScores(Collection<UUID> userIds) {
+        List<UserStreakScores> rows = streakRepository.findScoresByUserIdIn(userIds);
+        
+        lock.writeLock().lock();
+        try {
+            Set<UUID> missing = new HashSet<>(userIds);
+            for (UserStreakScores scores : rows) {
+                index.put(scores.getUserId(), toScores(scores));
+                missing.remove(scores.getUserId());
+            }
+            // Users whose last habit was deleted leave the leaderboard
+            missing.forEach(index::remove);
+            
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.addAll(userIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static LeaderboardIndex.Scores toScores(UserStreakScores scores) {
+        return new LeaderboardIndex.Scores(
+                scores.getCurrentStreak() != null ? scores.getCurrentStreak() : 0,
+                scores.getBestStreak() != null ? scores.getBestStreak() : 0,
+                scores.getCompletionRate() != null ? scores.getCompletionRate() : 0.0);
+    }
+
+    private static LeaderboardEntryDTO toEntry(int rank, UUID userId, double score) {
+        return LeaderboardEntryDTO.builder()
+                .rank(rank)
+                .userId(userId)
+                .score(score)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.habittracker.habit.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list of users ordered by score, highest first, ties broken by user id. Every
+ * forward link records how many positions it skips, so the rank of an entry and the first N
+ * entries are found in O(log n) and O(log n + N). Not thread-safe.
+ */
+final class RankedIndex {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    record Entry(UUID userId, double score) {
+    }
+
+    private static final class Node {
+        final UUID userId;
+        final double score;
+        final Node[] next;
+        final int[] span;  // Positions advanced by following next[i]; to the end of the list when null
+
+        Node(UUID userId, double score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void insert(UUID userId, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, userId) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        
+        Node node = new Node(userId, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    boolean remove(UUID userId, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, userId) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        x = x.next[0];
+        if (x == null || compare(x, score, userId) != 0) {
+            return false;
+        }
+        
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * 1-based position of the entry, or 0 if it is not in the index.
+     */
+    int rankOf(UUID userId, double score) {
+        int rank = 0;
+        
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, userId) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && compare(x, score, userId) == 0) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, size));
+        for (Node x = head.next[0]; x != null && entries.size() < limit; x = x.next[0]) {
+            entries.add(new Entry(x.userId, x.score));
+        }
+        return entries;
+    }
+
+    private static int compare(Node node, double score, UUID userId) {
+        int byScore = Double.compare(score, node.score);
+        return byScore != 0 ? byScore : node.userId.compareTo(userId);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
@@ -1,23 +1,24 @@
 package com.habittracker.habit.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habittracker.habit.model.CompiledSchedule;
 import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
 import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.service.CompiledScheduleCache;
 import com.habittracker.habit.service.ScheduleValidationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -26,7 +27,8 @@ import java.util.UUID;
 public class ScheduleValidationServiceImpl implements ScheduleValidationService {
 
     private final HabitTrackingRecordRepository trackingRecordRepository;
-    private final ObjectMapper objectMapper;
+    private final CompiledScheduleCache compiledScheduleCache;
+    private final Clock clock;
     
     @Override
     public boolean isHabitOnSchedule(Habit habit, LocalDateTime completionTime) {
@@ -42,39 +44,38 @@ public class ScheduleValidationServiceImpl implements ScheduleValidationService
     @Override
     public LocalDateTime calculateNextDueDate(Habit habit, LocalDateTime referenceTime) {
         if (referenceTime == null) {
-            referenceTime = LocalDateTime.now();
+            referenceTime = LocalDateTime.now(clock);
         }
         
-        String frequency = habit.getFrequency().toUpperCase();
-        String schedule = habit.getSchedule();
+        return endOfLocalDay(habit, nextDueTime(habit, referenceTime));
+    }
+    
+    private LocalDateTime nextDueTime(Habit habit, LocalDateTime referenceTime) {
+        CompiledSchedule schedule = compiledScheduleCache.get(habit);
         
-        switch (frequency) {
-            case "DAILY":
-                return referenceTime.plusDays(1);
-                
-            case "WEEKLY":
+        switch (schedule.getFrequency()) {
+            case WEEKLY:
                 return referenceTime.plusWeeks(1);
                 
-            case "MONTHLY":
+            case MONTHLY:
                 return referenceTime.plusMonths(1);
                 
-            case "YEARLY":
+            case YEARLY:
                 return referenceTime.plusYears(1);
                 
-            case "X_TIMES_PER_WEEK":
-                return calculateXTimesPerWeek(habit, referenceTime);
+            case X_TIMES_PER_WEEK:
+                return calculateXTimesPerWeek(habit, schedule, referenceTime);
                 
-            case "X_TIMES_PER_MONTH":
-                return calculateXTimesPerMonth(habit, referenceTime);
+            case X_TIMES_PER_MONTH:
+                return calculateXTimesPerMonth(habit, schedule, referenceTime);
                 
-            case "SPECIFIC_DAYS":
-                return calculateSpecificDays(habit, referenceTime);
+            case SPECIFIC_DAYS:
+                return calculateSpecificDays(schedule, referenceTime);
                 
-            case "CUSTOM":
-                return parseCustomSchedule(habit, referenceTime);
+            case CUSTOM:
+                return referenceTime.plusDays(schedule.getIntervalDays());
                 
             default:
-                log.warn("Unknown frequency type: {}, defaulting to daily", frequency);
                 return referenceTime.plusDays(1);
         }
     }
@@ -90,58 +91,122 @@ public class ScheduleValidationServiceImpl implements ScheduleValidationService
     
     @Override
     public int calculateRequiredCompletionsForPeriod(Habit habit, LocalDateTime start, LocalDateTime end) {
-        String frequency = habit.getFrequency().toUpperCase();
-        String schedule = habit.getSchedule();
+        CompiledSchedule schedule = compiledScheduleCache.get(habit);
         
-        try {
-            switch (frequency) {
-                case "DAILY":
-                    return (int) ChronoUnit.DAYS.between(start, end) + 1;
-                    
-                case "WEEKLY":
-                    return (int) (ChronoUnit.DAYS.between(start, end) / 7) + 1;
-                    
-                case "MONTHLY":
-                    return (int) ChronoUnit.MONTHS.between(start, end) + 1;
-                    
-                case "YEARLY":
-                    return (int) ChronoUnit.YEARS.between(start, end) + 1;
-                    
-                case "X_TIMES_PER_WEEK":
-                    JsonNode scheduleNode = objectMapper.readTree(schedule);
-                    int timesPerWeek = scheduleNode.get("times").asInt();
-                    return timesPerWeek * ((int) (ChronoUnit.DAYS.between(start, end) / 7) + 1);
-                
-                case "X_TIMES_PER_MONTH":
-                    scheduleNode = objectMapper.readTree(schedule);
-                    int timesPerMonth = scheduleNode.get("times").asInt();
-                    return timesPerMonth * ((int) ChronoUnit.MONTHS.between(start, end) + 1);
-                
-                case "SPECIFIC_DAYS":
-                    scheduleNode = objectMapper.readTree(schedule);
-                    JsonNode daysNode = scheduleNode.get("days");
-                    int daysCount = 0;
-                    Set<DayOfWeek> daysOfWeek = new HashSet<>();
-                    
-                    for (JsonNode day : daysNode) {
-                        daysOfWeek.add(DayOfWeek.valueOf(day.asText()));
-                    }
-                    
-                    LocalDateTime current = start;
-                    while (!current.isAfter(end)) {
-                        if (daysOfWeek.contains(current.getDayOfWeek())) {
-                            daysCount++;
-                        }
-                        current = current.plusDays(1);
-                    }
-                    return daysCount;
-                    
-                default:
-                    return (int) ChronoUnit.DAYS.between(start, end) + 1;
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing schedule JSON", e);
-            return (int) ChronoUnit.DAYS.between(start, end) + 1;
+        switch (schedule.getFrequency()) {
+            case WEEKLY:
+                return (int) (ChronoUnit.DAYS.between(start, end) / 7) + 1;
+                
+            case MONTHLY:
+                return (int) ChronoUnit.MONTHS.between(start, end) + 1;
+                
+            case YEARLY:
+                return (int) ChronoUnit.YEARS.between(start, end) + 1;
+                
+            case X_TIMES_PER_WEEK:
+                return schedule.getTimesPerPeriod() * ((int) (ChronoUnit.DAYS.between(start, end) / 7) + 1);
+            
+            case X_TIMES_PER_MONTH:
+                return schedule.getTimesPerPeriod() * ((int) ChronoUnit.MONTHS.between(start, end) + 1);
+            
+            case SPECIFIC_DAYS:
+                // Days start, start + 1 day, ... up to end, so a partial last day is not counted
+                if (end.isBefore(start)) {
+                    return 0;
+                }
+                LocalDate firstDay = start.toLocalDate();
+                return (int) countScheduledDays(schedule, firstDay, firstDay.plusDays(ChronoUnit.DAYS.between(start, end)));
+                
+            case CUSTOM:
+                return (int) (ChronoUnit.DAYS.between(start, end) / schedule.getIntervalDays()) + 1;
+                
+            default:
+                return (int) ChronoUnit.DAYS.between(start, end) + 1;
+        }
+    }
+    
+    @Override
+    public int calculateRequiredCompletionsSince(Habit habit, LocalDateTime since, LocalDateTime until) {
+        if (!until.isAfter(since)) {
+            return 0;
+        }
+        
+        LocalDate sinceDate = since.toLocalDate();
+        LocalDate untilDate = until.toLocalDate();
+        CompiledSchedule schedule = compiledScheduleCache.get(habit);
+        
+        switch (schedule.getFrequency()) {
+            case WEEKLY:
+                return (int) countWeekStarts(sinceDate, untilDate);
+                
+            case MONTHLY:
+                return (int) countMonthStarts(sinceDate, untilDate);
+                
+            case YEARLY:
+                return untilDate.getYear() - sinceDate.getYear();
+                
+            case X_TIMES_PER_WEEK:
+                return schedule.getTimesPerPeriod() * (int) countWeekStarts(sinceDate, untilDate);
+                
+            case X_TIMES_PER_MONTH:
+                return schedule.getTimesPerPeriod() * (int) countMonthStarts(sinceDate, untilDate);
+                
+            case SPECIFIC_DAYS:
+                return (int) countScheduledDays(schedule, sinceDate.plusDays(1), untilDate);
+                
+            case CUSTOM:
+                // Occurrences fall every intervalDays days counting from the creation day
+                LocalDate anchor = habit.getCreatedAt() != null ? habit.getCreatedAt().toLocalDate() : sinceDate;
+                long interval = schedule.getIntervalDays();
+                return (int) (Math.floorDiv(ChronoUnit.DAYS.between(anchor, untilDate), interval)
+                        - Math.floorDiv(ChronoUnit.DAYS.between(anchor, sinceDate), interval));
+                
+            default:
+                return (int) ChronoUnit.DAYS.between(sinceDate, untilDate);
+        }
+    }
+    
+    @Override
+    public int calculateRequiredCompletionsSinceCreation(Habit habit, LocalDateTime until) {
+        // Count the creation period itself by starting just before the day the habit was created;
+        // for weekly, monthly and yearly periods the creation period is counted explicitly
+        LocalDateTime created = habit.getCreatedAt();
+        LocalDateTime beforeCreationDay = created.toLocalDate().atStartOfDay().minusNanos(1);
+        int required = calculateRequiredCompletionsSince(habit, beforeCreationDay, until);
+        CompiledSchedule schedule = compiledScheduleCache.get(habit);
+        
+        switch (schedule.getFrequency()) {
+            case WEEKLY:
+                return created.getDayOfWeek() == DayOfWeek.MONDAY ? required : required + 1;
+                
+            case MONTHLY:
+                return created.getDayOfMonth() == 1 ? required : required + 1;
+                
+            case YEARLY:
+                return created.getDayOfYear() == 1 ? required : required + 1;
+                
+            case X_TIMES_PER_WEEK:
+                return created.getDayOfWeek() == DayOfWeek.MONDAY ? required : required + schedule.getTimesPerPeriod();
+                
+            case X_TIMES_PER_MONTH:
+                return created.getDayOfMonth() == 1 ? required : required + schedule.getTimesPerPeriod();
+                
+            default:
+                return required;
+        }
+    }
+    
+    @Override
+    public LocalDate getCurrentPeriodStart(Habit habit, LocalDateTime time) {
+        switch (compiledScheduleCache.get(habit).getFrequency()) {
+            case X_TIMES_PER_WEEK:
+                return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                
+            case X_TIMES_PER_MONTH:
+                return time.toLocalDate().withDayOfMonth(1);
+                
+            default:
+                return null;
         }
     }
     
@@ -154,91 +219,116 @@ public class ScheduleValidationServiceImpl implements ScheduleValidationService
         return completions >= required;
     }
     
-    private LocalDateTime calculateXTimesPerWeek(Habit habit, LocalDateTime referenceTime) {
-        try {
-            JsonNode scheduleNode = objectMapper.readTree(habit.getSchedule());
-            int timesPerWeek = scheduleNode.get("times").asInt();
-            
-            // Calculate completions this week
-            LocalDateTime startOfWeek = referenceTime.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
-                    .withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endOfWeek = startOfWeek.plusDays(6).withHour(23).withMinute(59).withSecond(59);
-            
-            long completionsThisWeek = trackingRecordRepository.countCompletionsInRange(
-                    habit.getId(), startOfWeek, endOfWeek);
-            
-            if (completionsThisWeek < timesPerWeek) {
-                // Not complete for this week yet, due tomorrow
-                return referenceTime.plusDays(1);
-            } else {
-                // Complete for this week, due next Monday
-                return endOfWeek.plusDays(1);
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing X_TIMES_PER_WEEK schedule", e);
+    private LocalDateTime calculateXTimesPerWeek(Habit habit, CompiledSchedule schedule, LocalDateTime referenceTime) {
+        // Calculate completions this week
+        LocalDateTime startOfWeek = referenceTime.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endOfWeek = startOfWeek.plusDays(6).withHour(23).withMinute(59).withSecond(59);
+        
+        long completionsThisWeek = completionsInPeriod(habit, startOfWeek, endOfWeek);
+        
+        if (completionsThisWeek < schedule.getTimesPerPeriod()) {
+            // Not complete for this week yet, due tomorrow
             return referenceTime.plusDays(1);
+        } else {
+            // Complete for this week, due next Monday
+            return endOfWeek.plusDays(1);
         }
     }
     
-    private LocalDateTime calculateXTimesPerMonth(Habit habit, LocalDateTime referenceTime) {
-        try {
-            JsonNode scheduleNode = objectMapper.readTree(habit.getSchedule());
-            int timesPerMonth = scheduleNode.get("times").asInt();
-            
-            // Calculate completions this month
-            LocalDateTime startOfMonth = referenceTime.withDayOfMonth(1)
-                    .withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endOfMonth = referenceTime
-                    .with(TemporalAdjusters.lastDayOfMonth())
-                    .withHour(23).withMinute(59).withSecond(59);
-            
-            long completionsThisMonth = trackingRecordRepository.countCompletionsInRange(
-                    habit.getId(), startOfMonth, endOfMonth);
-            
-            if (completionsThisMonth < timesPerMonth) {
-                // Not complete for this month yet, due tomorrow
-                return referenceTime.plusDays(1);
-            } else {
-                // Complete for this month, due next month
-                return endOfMonth.plusDays(1);
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing X_TIMES_PER_MONTH schedule", e);
+    private LocalDateTime calculateXTimesPerMonth(Habit habit, CompiledSchedule schedule, LocalDateTime referenceTime) {
+        // Calculate completions this month
+        LocalDateTime startOfMonth = referenceTime.withDayOfMonth(1)
+                .withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endOfMonth = referenceTime
+                .with(TemporalAdjusters.lastDayOfMonth())
+                .withHour(23).withMinute(59).withSecond(59);
+        
+        long completionsThisMonth = completionsInPeriod(habit, startOfMonth, endOfMonth);
+        
+        if (completionsThisMonth < schedule.getTimesPerPeriod()) {
+            // Not complete for this month yet, due tomorrow
             return referenceTime.plusDays(1);
+        } else {
+            // Complete for this month, due next month
+            return endOfMonth.plusDays(1);
         }
     }
     
-    private LocalDateTime calculateSpecificDays(Habit habit, LocalDateTime referenceTime) {
+    // A habit due on a day stays due until that day ends in the habit's own time zone. The boundary
+    // is the following local midnight, expressed on the clock's timeline like every stored timestamp,
+    // so the streak reset slice for that zone is the first one to find it passed.
+    private LocalDateTime endOfLocalDay(Habit habit, LocalDateTime due) {
+        ZoneId serverZone = clock.getZone();
+        ZoneId habitZone = habitZone(habit, serverZone);
+        LocalDate dueDay = due.atZone(serverZone).withZoneSameInstant(habitZone).toLocalDate();
+        return dueDay.plusDays(1).atStartOfDay(habitZone).withZoneSameInstant(serverZone).toLocalDateTime();
+    }
+    
+    private static ZoneId habitZone(Habit habit, ZoneId fallback) {
+        if (habit.getTimeZone() == null) {
+            return fallback;
+        }
         try {
-            JsonNode scheduleNode = objectMapper.readTree(habit.getSchedule());
-            JsonNode daysNode = scheduleNode.get("days");
-            
-            Set<DayOfWeek> daysOfWeek = new HashSet<>();
-            for (JsonNode day : daysNode) {
-                daysOfWeek.add(DayOfWeek.valueOf(day.asText()));
-            }
-            
-            // Find the next specified day
-            LocalDateTime nextDate = referenceTime.plusDays(1);
-            int maxIterations = 7; // Avoid infinite loop
-            int iterations = 0;
-            
-            while (!daysOfWeek.contains(nextDate.getDayOfWeek()) && iterations < maxIterations) {
-                nextDate = nextDate.plusDays(1);
-                iterations++;
-            }
-            
-            return nextDate;
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing SPECIFIC_DAYS schedule", e);
-            return referenceTime.plusDays(1);
+            return ZoneId.of(habit.getTimeZone());
+        } catch (DateTimeException e) {
+            return fallback;
         }
     }
     
-    private LocalDateTime parseCustomSchedule(Habit habit, LocalDateTime referenceTime) {
-        // For custom schedules, we would need to implement a more complex parser
-        // For now, just return the next day as default
-        log.warn("Custom schedule parsing not fully implemented, defaulting to daily");
-        return referenceTime.plusDays(1);
+    // Reads the streak's period counter, which the check-in path keeps current; only a streak whose
+    // counter has not been seeded (or is ahead of the period asked about) falls back to a COUNT
+    private long completionsInPeriod(Habit habit, LocalDateTime periodStart, LocalDateTime periodEnd) {
+        HabitStreak streak = habit.getStreak();
+        LocalDate period = periodStart.toLocalDate();
+        
+        if (streak != null && streak.getPeriodStart() != null && !streak.getPeriodStart().isAfter(period)) {
+            return streak.getPeriodStart().equals(period) ? streak.getPeriodCompletions() : 0;
+        }
+        
+        return trackingRecordRepository.countCompletionsInRange(habit.getId(), periodStart, periodEnd);
+    }
+    
+    private LocalDateTime calculateSpecificDays(CompiledSchedule schedule, LocalDateTime referenceTime) {
+        // Find the next specified day
+        LocalDateTime nextDate = referenceTime.plusDays(1);
+        int maxIterations = 7; // Avoid infinite loop
+        int iterations = 0;
+        
+        while (!schedule.isScheduledOn(nextDate.getDayOfWeek()) && iterations < maxIterations) {
+            nextDate = nextDate.plusDays(1);
+            iterations++;
+        }
+        
+        return nextDate;
+    }
+    
+    // Scheduled weekdays in [from, to]: whole weeks contribute every scheduled day, and the
+    // remaining days are counted by masking a window of the week that starts at from's weekday
+    private long countScheduledDays(CompiledSchedule schedule, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        int daysMask = schedule.getDaysMask();
+        int remainder = (int) (days % 7);
+        
+        int window = ((1 << remainder) - 1) << (from.getDayOfWeek().getValue() - 1);
+        int wrappedWindow = (window | (window >>> 7)) & 0x7F;
+        
+        return (days / 7) * Integer.bitCount(daysMask) + Integer.bitCount(daysMask & wrappedWindow);
+    }
+    
+    // Mondays in (since, until]
+    private long countWeekStarts(LocalDate since, LocalDate until) {
+        LocalDate sinceMonday = since.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate untilMonday = until.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return ChronoUnit.WEEKS.between(sinceMonday, untilMonday);
+    }
+    
+    // First days of the month in (since, until]
+    private long countMonthStarts(LocalDate since, LocalDate until) {
+        return ChronoUnit.MONTHS.between(YearMonth.from(since), YearMonth.from(until));
     }
 }
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS habit_daily_stats (
+    habit_id UUID NOT NULL,
+    stat_date DATE NOT NULL,
+    user_id UUID NOT NULL,
+    completion_count INTEGER NOT NULL DEFAULT 0,
+    total_duration_minutes INTEGER NOT NULL DEFAULT 0,
+    mood_rating_sum INTEGER NOT NULL DEFAULT 0,
+    mood_rating_count INTEGER NOT NULL DEFAULT 0,
+    difficulty_rating_sum INTEGER NOT NULL DEFAULT 0,
+    difficulty_rating_count INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT pk_habit_daily_stats PRIMARY KEY (habit_id, stat_date),
+    CONSTRAINT fk_daily_stats_habit FOREIGN KEY (habit_id) REFERENCES habits(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_daily_stats_user_date ON habit_daily_stats(user_id, stat_date);
@@ -0,0 +1,8 @@
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS total_completions INTEGER DEFAULT 0;
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS expected_completions INTEGER DEFAULT 0;
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS expected_as_of TIMESTAMP;
+
+-- Seed the actual-completion counter; expected_completions depends on the schedule JSON and is
+-- filled in by the reconciliation job (or the next check-in) while expected_as_of is NULL
+UPDATE habit_streaks s
+SET total_completions = (SELECT COUNT(*) FROM habit_tracking_records r WHERE r.habit_id = s.habit_id);
@@ -0,0 +1,10 @@
+-- Lease rows used to ensure a scheduled job runs on only one replica at a time
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+-- Only active streaks can expire, so the nightly reset walks this partial index by habit_id
+CREATE INDEX IF NOT EXISTS idx_habit_streaks_active ON habit_streaks(habit_id, next_due_at) WHERE current_streak > 0;
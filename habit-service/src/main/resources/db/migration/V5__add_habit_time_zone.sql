@@ -0,0 +1,4 @@
+ALTER TABLE habits ADD COLUMN IF NOT EXISTS time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC';
+
+-- Streak expiry runs per time-zone slice
+CREATE INDEX IF NOT EXISTS idx_habits_time_zone ON habits(time_zone);
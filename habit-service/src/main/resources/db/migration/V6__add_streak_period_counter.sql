@@ -0,0 +1,18 @@
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS period_start DATE;
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS period_completions INTEGER;
+
+-- Seed the current week/month counters for X-times habits; anything left NULL is seeded from
+-- history on its next check-in
+UPDATE habit_streaks s
+SET period_start = CAST(date_trunc('week', CURRENT_DATE) AS DATE),
+    period_completions = (SELECT COUNT(*) FROM habit_tracking_records r
+                          WHERE r.habit_id = s.habit_id AND r.completed_at >= date_trunc('week', CURRENT_DATE))
+FROM habits h
+WHERE h.id = s.habit_id AND UPPER(h.frequency) = 'X_TIMES_PER_WEEK';
+
+UPDATE habit_streaks s
+SET period_start = CAST(date_trunc('month', CURRENT_DATE) AS DATE),
+    period_completions = (SELECT COUNT(*) FROM habit_tracking_records r
+                          WHERE r.habit_id = s.habit_id AND r.completed_at >= date_trunc('month', CURRENT_DATE))
+FROM habits h
+WHERE h.id = s.habit_id AND UPPER(h.frequency) = 'X_TIMES_PER_MONTH';
@@ -0,0 +1,53 @@
+-- Rebuilds habit_tracking_records as a table range-partitioned by month on completed_at, with a
+-- denormalized user_id so per-user range queries no longer join through habits. Existing rows
+-- are copied in one pass; on large installs run this migration in a maintenance window.
+
+CREATE TABLE habit_tracking_records_partitioned (
+    id UUID NOT NULL,
+    habit_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    notes TEXT,
+    duration_minutes INTEGER,
+    mood_rating INTEGER CHECK (mood_rating BETWEEN 1 AND 5),
+    difficulty_rating INTEGER CHECK (difficulty_rating BETWEEN 1 AND 5),
+    -- The partition key has to be part of the primary key
+    CONSTRAINT pk_habit_tracking_records PRIMARY KEY (id, completed_at),
+    CONSTRAINT fk_record_habit FOREIGN KEY (habit_id) REFERENCES habits(id) ON DELETE CASCADE
+) PARTITION BY RANGE (completed_at);
+
+-- One partition per month from the oldest record up to three months ahead; the partition
+-- maintenance job keeps creating months ahead from here on
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(completed_at) FROM habit_tracking_records), CURRENT_DATE));
+    last_month DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF habit_tracking_records_partitioned FOR VALUES FROM (%L) TO (%L)',
+            'habit_tracking_records_' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+-- Catches records dated beyond the pre-created months (e.g. clock skew) so inserts never fail
+CREATE TABLE habit_tracking_records_default PARTITION OF habit_tracking_records_partitioned DEFAULT;
+
+INSERT INTO habit_tracking_records_partitioned
+    (id, habit_id, user_id, completed_at, notes, duration_minutes, mood_rating, difficulty_rating)
+SELECT r.id, r.habit_id, h.user_id, r.completed_at, r.notes, r.duration_minutes, r.mood_rating, r.difficulty_rating
+FROM habit_tracking_records r
+JOIN habits h ON h.id = r.habit_id;
+
+DROP TABLE habit_tracking_records;
+ALTER TABLE habit_tracking_records_partitioned RENAME TO habit_tracking_records;
+
+-- Per-habit history and range counts, newest first
+CREATE INDEX idx_records_habit_completed ON habit_tracking_records(habit_id, completed_at DESC);
+
+-- Per-user range scans; covers the per-habit completion stats so they can be answered index-only
+CREATE INDEX idx_records_user_completed ON habit_tracking_records(user_id, completed_at)
+    INCLUDE (habit_id, mood_rating, difficulty_rating);
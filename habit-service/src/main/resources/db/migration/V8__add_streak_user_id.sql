@@ -0,0 +1,12 @@
+-- Denormalizes user_id onto habit_streaks so per-user rankings can be read top-K straight
+-- from an index instead of joining every habit of the user and sorting
+ALTER TABLE habit_streaks ADD COLUMN IF NOT EXISTS user_id UUID;
+
+UPDATE habit_streaks s
+SET user_id = h.user_id
+FROM habits h
+WHERE h.id = s.habit_id;
+
+ALTER TABLE habit_streaks ALTER COLUMN user_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_habit_streaks_user_current ON habit_streaks(user_id, current_streak DESC);
@@ -0,0 +1,3 @@
+-- Keyset paging over a user's habits, newest first: the cursor predicate and ORDER BY both
+-- walk this index, so every slice costs the same regardless of how deep the client has scrolled
+CREATE INDEX IF NOT EXISTS idx_habits_user_created ON habits(user_id, created_at DESC, id DESC);
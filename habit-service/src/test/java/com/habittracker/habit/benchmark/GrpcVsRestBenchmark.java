@@ -0,0 +1,103 @@
+package com.habittracker.habit.benchmark;
+
+import com.habitsystem.proto.habit.HabitServiceGrpc;
+import com.habitsystem.proto.habit.ListHabitsRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.stub.MetadataUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * Compares listing a user's habits over REST, unary gRPC and server-streaming gRPC against a
+ * running habit-service. Not a unit test; run manually, e.g.
+ * <pre>
+ * java -cp ... -Dbench.userId=&lt;uuid&gt; -Dbench.token=&lt;jwt&gt; com.habittracker.habit.benchmark.GrpcVsRestBenchmark
+ * </pre>
+ * Supported properties: bench.host, bench.httpPort (8085), bench.grpcPort (9095), bench.userId,
+ * bench.token, bench.warmup (200), bench.iterations (2000), bench.pageSize (50).
+ */
+public class GrpcVsRestBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = System.getProperty("bench.host", "localhost");
+        int httpPort = Integer.getInteger("bench.httpPort", 8085);
+        int grpcPort = Integer.getInteger("bench.grpcPort", 9095);
+        String userId = System.getProperty("bench.userId");
+        String token = System.getProperty("bench.token", "");
+        int warmup = Integer.getInteger("bench.warmup", 200);
+        int iterations = Integer.getInteger("bench.iterations", 2000);
+        int pageSize = Integer.getInteger("bench.pageSize", 50);
+
+        if (userId == null) {
+            throw new IllegalArgumentException("-Dbench.userId is required");
+        }
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest restRequest = HttpRequest.newBuilder(URI.create("http://" + host + ":" + httpPort + "/api/habits/user/" + userId))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        ManagedChannel channel = ManagedChannelBuilder.forAddress(host, grpcPort).usePlaintext().build();
+        Metadata credentials = new Metadata();
+        credentials.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), "Bearer " + token);
+        HabitServiceGrpc.HabitServiceBlockingStub stub = HabitServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(credentials));
+        ListHabitsRequest grpcRequest = ListHabitsRequest.newBuilder().setUserId(userId).setPageSize(pageSize).build();
+
+        try {
+            run("REST   GET /api/habits/user/{id}", warmup, iterations, () -> {
+                HttpResponse<byte[]> response = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("REST call failed with status " + response.statusCode());
+                }
+                return response.body().length;
+            });
+            run("gRPC   ListHabits", warmup, iterations, () -> stub.listHabits(grpcRequest).getHabitsCount());
+            run("gRPC   StreamHabits", warmup, iterations, () -> {
+                int count = 0;
+                var habits = stub.streamHabits(grpcRequest);
+                while (habits.hasNext()) {
+                    habits.next();
+                    count++;
+                }
+                return count;
+            });
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    private static void run(String name, int warmup, int iterations, Callable<Integer> call) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            call.call();
+        }
+
+        long[] latencies = new long[iterations];
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long callStart = System.nanoTime();
+            call.call();
+            latencies[i] = System.nanoTime() - callStart;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-36s %10.1f ops/s   p50 %8.3f ms   p99 %8.3f ms%n",
+                name,
+                iterations / (elapsed / 1_000_000_000.0),
+                percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
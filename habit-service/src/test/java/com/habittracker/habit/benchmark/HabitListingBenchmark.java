@@ -0,0 +1,131 @@
+package com.habittracker.habit.benchmark;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.dto.SlicedResponseDTO;
+import com.habittracker.habit.mapper.HabitMapper;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.repository.HabitRepository;
+import com.habittracker.habit.service.impl.AnalyticsResultCacheImpl;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.HabitServiceImpl;
+import com.habittracker.habit.service.impl.LeaderboardServiceImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Listing a deep page of a user's 20k habits: managed entities with OFFSET, projections with
+ * OFFSET and a keyset slice starting at the same position. Not part of the regular test run;
+ * execute with {@code mvn -pl habit-service test -Dtest=HabitListingBenchmark}.
+ */
+@DataJpaTest(properties = "logging.level.com.habittracker=INFO")
+@ActiveProfiles("test")
+@Import({
+        HabitServiceImpl.class,
+        HabitMapper.class,
+        ScheduleValidationServiceImpl.class,
+        ClockConfig.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitListingBenchmark {
+
+    private static final int HABITS = 20_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private HabitServiceImpl habitService;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private HabitMapper habitMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void compareOffsetAndKeysetListing() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < HABITS; i++) {
+            Habit habit = entityManager.persist(Habit.builder()
+                    .userId(userId).name("Habit " + i).frequency("DAILY").priority(1).timeZone("UTC")
+                    .createdAt(now.minusMinutes(i)).build());
+            entityManager.persist(HabitStreak.builder()
+                    .habit(habit).userId(userId).currentStreak(i % 30).bestStreak(i % 60).completionRate(0.5).build());
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        System.out.printf("Habit listing, %d habits, %d per page:%n", HABITS, PAGE_SIZE);
+        for (int page : new int[]{0, 100, 500, 999}) {
+            Sort newestFirst = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+            PageRequest pageable = PageRequest.of(page, PAGE_SIZE, newestFirst);
+            // The keyset slice resumes right after the last habit of the previous page
+            String cursor = cursorBefore(userId, page * PAGE_SIZE);
+
+            long entityNanos = time(() -> {
+                entityManager.clear();
+                return habitRepository.findAllByUserIdPaged(userId, pageable).getContent().stream()
+                        .map(habitMapper::toResponseDTO)
+                        .collect(Collectors.toList());
+            });
+            long projectionNanos = time(() -> habitRepository.findSummariesByUserId(userId, pageable).getContent()
+                    .stream()
+                    .map(habitMapper::toResponseDTO)
+                    .collect(Collectors.toList()));
+            long keysetNanos = time(() -> habitService.getHabitsByUserIdAfterCursor(userId, cursor, PAGE_SIZE).getContent());
+
+            System.out.printf("  page %4d: entities %.2f ms/op, projections %.2f ms/op, keyset %.2f ms/op%n",
+                    page, entityNanos / 1_000_000.0, projectionNanos / 1_000_000.0, keysetNanos / 1_000_000.0);
+        }
+    }
+
+    private String cursorBefore(UUID userId, int offset) {
+        // Walk to the offset once, outside the timed section
+        SlicedResponseDTO<?> slice = null;
+        String cursor = null;
+        for (int skipped = 0; skipped < offset; skipped += slice.getSize()) {
+            slice = habitService.getHabitsByUserIdAfterCursor(userId, cursor, Math.min(100, offset - skipped));
+            cursor = slice.getNextCursor();
+        }
+        return cursor;
+    }
+
+    private long time(Supplier<List<?>> operation) {
+        // Warm up, then average
+        for (int i = 0; i < 3; i++) {
+            operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,89 @@
+package com.habittracker.habit.benchmark;
+
+import com.habittracker.habit.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validations per second of the request filter's token handling: the previous shape, which
+ * decoded the key and built a parser for each of four parses of the same token, against a single
+ * verification with the prebuilt parser. Run with
+ * {@code java -cp <test classpath> com.habittracker.habit.benchmark.JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1oYWJpdC1zZXJ2aWNlLXVuaXQtdGVzdHMtanNvbndlYnRva2Vu";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET);
+        token = Jwts.builder()
+                .setClaims(Map.of("userId", UUID.randomUUID().toString(), "roles", List.of("USER")))
+                .setSubject("benchmark-user")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public void parserPerCall(Blackhole blackhole) {
+        // isTokenValid followed by the userId, username and roles getters, each starting from the secret
+        blackhole.consume(parseWithFreshKey().getExpiration());
+        blackhole.consume(parseWithFreshKey().get("userId", String.class));
+        blackhole.consume(parseWithFreshKey().getSubject());
+        blackhole.consume(parseWithFreshKey().get("roles", List.class));
+    }
+
+    @Benchmark
+    public Object singleVerification() {
+        return jwtService.verify(token).orElseThrow();
+    }
+
+    private Claims parseWithFreshKey() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.habittracker.habit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Required completions over a 10-year range: the closed-form calculation versus walking the
+ * range one day at a time as the SPECIFIC_DAYS path used to. Run with
+ * {@code java -cp <test classpath> com.habittracker.habit.benchmark.RequiredCompletionsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequiredCompletionsBenchmark {
+
+    @Param({"SPECIFIC_DAYS", "X_TIMES_PER_WEEK", "CUSTOM"})
+    private String frequency;
+
+    private ScheduleValidationServiceImpl scheduleService;
+    private Habit habit;
+    private Set<DayOfWeek> days;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        // The computations benchmarked here never touch the tracking repository
+        scheduleService = new ScheduleValidationServiceImpl(null, new CompiledScheduleCacheImpl(new ObjectMapper(), 1_000),
+                Clock.systemDefaultZone());
+        
+        habit = new Habit();
+        habit.setId(UUID.randomUUID());
+        habit.setFrequency(frequency);
+        switch (frequency) {
+            case "SPECIFIC_DAYS":
+                habit.setSchedule("{\"days\":[\"MONDAY\",\"WEDNESDAY\",\"FRIDAY\"]}");
+                break;
+            case "X_TIMES_PER_WEEK":
+                habit.setSchedule("{\"times\":3}");
+                break;
+            default:
+                habit.setSchedule("{\"intervalDays\":3}");
+        }
+        
+        start = LocalDateTime.of(2015, 3, 4, 8, 30);
+        end = start.plusYears(10);
+        habit.setCreatedAt(start);
+        days = EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY);
+    }
+
+    @Benchmark
+    public int closedForm() {
+        return scheduleService.calculateRequiredCompletionsForPeriod(habit, start, end);
+    }
+
+    @Benchmark
+    public int closedFormSince() {
+        return scheduleService.calculateRequiredCompletionsSinceCreation(habit, end);
+    }
+
+    @Benchmark
+    public int dayWalkBaseline() {
+        int count = 0;
+        for (LocalDateTime current = start; !current.isAfter(end); current = current.plusDays(1)) {
+            if (days.contains(current.getDayOfWeek())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RequiredCompletionsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.habittracker.habit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.service.CompiledScheduleCache;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule computations with a warm compiled-schedule cache versus re-parsing the schedule JSON
+ * on every call (simulated by invalidating the cache entry first). Run with
+ * {@code java -cp <test classpath> com.habittracker.habit.benchmark.ScheduleComputationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleComputationBenchmark {
+
+    @Param({"X_TIMES_PER_WEEK", "SPECIFIC_DAYS"})
+    private String frequency;
+
+    private CompiledScheduleCache cache;
+    private ScheduleValidationServiceImpl scheduleService;
+    private Habit habit;
+    private LocalDateTime since;
+    private LocalDateTime until;
+
+    @Setup
+    public void setUp() {
+        cache = new CompiledScheduleCacheImpl(new ObjectMapper(), 1_000);
+        // The computations benchmarked here never touch the tracking repository
+        scheduleService = new ScheduleValidationServiceImpl(null, cache, Clock.systemDefaultZone());
+        
+        habit = new Habit();
+        habit.setId(UUID.randomUUID());
+        habit.setFrequency(frequency);
+        habit.setSchedule("X_TIMES_PER_WEEK".equals(frequency)
+                ? "{\"times\":3}"
+                : "{\"days\":[\"MONDAY\",\"WEDNESDAY\",\"FRIDAY\"]}");
+        habit.setCreatedAt(LocalDateTime.of(2024, 1, 3, 9, 0));
+        
+        until = LocalDateTime.of(2024, 6, 15, 12, 0);
+        since = until.minusDays(1);
+    }
+
+    @Benchmark
+    public int cachedSchedule() {
+        return scheduleService.calculateRequiredCompletionsSince(habit, since, until);
+    }
+
+    @Benchmark
+    public int parsedEveryCall() {
+        cache.invalidate(habit.getId());
+        return scheduleService.calculateRequiredCompletionsSince(habit, since, until);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ScheduleComputationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.habittracker.habit.benchmark;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.service.impl.AnalyticsResultCacheImpl;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.HabitAnalyticsServiceImpl;
+import com.habittracker.habit.service.impl.HabitStreakServiceImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Time-of-day analysis for a user with 120k records: the database-side hour histogram versus
+ * loading every record and bucketing in the JVM. Not part of the regular test run; execute with
+ * {@code mvn -pl habit-service test -Dtest=TimeOfDayAnalysisBenchmark}.
+ */
+@DataJpaTest(properties = "logging.level.com.habittracker=INFO")
+@ActiveProfiles("test")
+@Import({
+        HabitAnalyticsServiceImpl.class,
+        HabitStreakServiceImpl.class,
+        ClockConfig.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class TimeOfDayAnalysisBenchmark {
+
+    private static final int RECORDS = 120_000;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private HabitAnalyticsServiceImpl analyticsService;
+
+    @Autowired
+    private HabitTrackingRecordRepository trackingRecordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void compareHistogramWithInMemoryBucketing() {
+        UUID userId = UUID.randomUUID();
+        Habit habit = entityManager.persist(Habit.builder()
+                .userId(userId).name("Benchmark").frequency("DAILY").priority(1).timeZone("UTC")
+                .createdAt(LocalDateTime.now().minusYears(1)).build());
+        entityManager.flush();
+        
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<HabitTrackingRecord> records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(HabitTrackingRecord.builder()
+                    .id(UUID.randomUUID())
+                    .habit(habit)
+                    .userId(userId)
+                    .completedAt(now.minusMinutes(1 + random.nextInt(60 * 24 * 80)))
+                    .build());
+        }
+        trackingRecordRepository.batchInsert(records);
+        
+        long histogramNanos = time(() -> analyticsService.getTimeOfDayAnalysis(userId));
+        long inMemoryNanos = time(() -> {
+            entityManager.clear();
+            return trackingRecordRepository.findByUserIdAndCompletedAtBetween(userId, now.minusMonths(3), now)
+                    .stream()
+                    .collect(Collectors.groupingBy(record -> record.getCompletedAt().getHour(), Collectors.counting()));
+        });
+        
+        System.out.printf("Time of day analysis, %d records: histogram %.2f ms/op, in-memory bucketing %.2f ms/op%n",
+                RECORDS, histogramNanos / 1_000_000.0, inMemoryNanos / 1_000_000.0);
+    }
+
+    private long time(Supplier<Map<?, ?>> operation) {
+        // Warm up, then average
+        for (int i = 0; i < 3; i++) {
+            operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,184 @@
+package com.habittracker.habit.benchmark;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.TrackingRecordRequestDTO;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitReminder;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.HabitRepository;
+import com.habittracker.habit.service.HabitStatsRollupService;
+import com.habittracker.habit.service.impl.AnalyticsResultCacheImpl;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.HabitTrackingServiceImpl;
+import com.habittracker.habit.service.impl.LeaderboardServiceImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Write throughput of the two hot insert paths: habits created with their streak and three
+ * reminders, with JDBC batching off and on, and check-ins tracked one call at a time versus
+ * through the batch endpoint. The daily-stats rollup upserts with PostgreSQL syntax and is
+ * mocked out. H2 executes batches row by row, so the gap against PostgreSQL with
+ * reWriteBatchedInserts is wider than shown here. Not part of the regular test run;
+ * execute with {@code mvn -pl habit-service test -Dtest=WriteThroughputBenchmark}.
+ */
+@DataJpaTest(properties = "logging.level.com.habittracker=INFO")
+@ActiveProfiles("test")
+@Import({
+        HabitTrackingServiceImpl.class,
+        ClockConfig.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class WriteThroughputBenchmark {
+
+    private static final int HABITS = 5_000;
+    private static final int REMINDERS_PER_HABIT = 3;
+    private static final int CHECK_INS = 5_000;
+    private static final int FLUSH_EVERY = 500;
+
+    @MockBean
+    private HabitStatsRollupService statsRollupService;
+
+    @Autowired
+    private HabitTrackingServiceImpl trackingService;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void compareHabitCreation() {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+
+        // Warm up both paths before measuring
+        createHabits(session, 1, HABITS / 10);
+        createHabits(session, 50, HABITS / 10);
+
+        long unbatchedNanos = createHabits(session, 1, HABITS);
+        long batchedNanos = createHabits(session, 50, HABITS);
+
+        System.out.printf("Habit creation, %d habits with streak and %d reminders: unbatched %.0f habits/s, batched %.0f habits/s%n",
+                HABITS, REMINDERS_PER_HABIT, perSecond(HABITS, unbatchedNanos), perSecond(HABITS, batchedNanos));
+    }
+
+    @Test
+    void compareCheckIns() {
+        UUID userId = UUID.randomUUID();
+        List<Habit> habits = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Habit habit = entityManager.persist(Habit.builder()
+                    .userId(userId).name("Habit " + i).frequency("DAILY").priority(1).timeZone("UTC")
+                    .createdAt(LocalDateTime.now().minusYears(1)).build());
+            entityManager.persist(HabitStreak.builder()
+                    .habit(habit).userId(userId).currentStreak(0).bestStreak(0).completionRate(0.0).build());
+            habits.add(habit);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Warm up both paths before measuring
+        trackOneByOne(habits, CHECK_INS / 10);
+        trackInBatches(habits, CHECK_INS / 10);
+
+        long singleNanos = trackOneByOne(habits, CHECK_INS);
+        long batchNanos = trackInBatches(habits, CHECK_INS);
+
+        System.out.printf("Check-ins, %d completions over %d habits: one call each %.0f/s, batch endpoint %.0f/s%n",
+                CHECK_INS, habits.size(), perSecond(CHECK_INS, singleNanos), perSecond(CHECK_INS, batchNanos));
+    }
+
+    private long createHabits(Session session, int jdbcBatchSize, int count) {
+        session.setJdbcBatchSize(jdbcBatchSize);
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Habit habit = Habit.builder()
+                    .userId(userId).name("Habit " + i).frequency("DAILY").priority(1).timeZone("UTC")
+                    .createdAt(now).reminders(new HashSet<>()).build();
+            for (int r = 0; r < REMINDERS_PER_HABIT; r++) {
+                habit.getReminders().add(HabitReminder.builder()
+                        .habit(habit).remindAt(LocalTime.of(7 + r * 5, 0)).notificationType("PUSH").enabled(true).build());
+            }
+            habit.setStreak(HabitStreak.builder()
+                    .habit(habit).userId(userId).currentStreak(0).bestStreak(0).completionRate(0.0).build());
+            habitRepository.save(habit);
+
+            if ((i + 1) % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        long elapsed = System.nanoTime() - start;
+
+        session.setJdbcBatchSize(null);
+        return elapsed;
+    }
+
+    private long trackOneByOne(List<Habit> habits, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            trackingService.trackHabitCompletion(habits.get(i % habits.size()).getId(),
+                    HabitTrackingRecord.builder().completedAt(now.minusMinutes(i)).build());
+            if ((i + 1) % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return System.nanoTime() - start;
+    }
+
+    private long trackInBatches(List<Habit> habits, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        for (int offset = 0; offset < count; offset += FLUSH_EVERY) {
+            List<TrackingRecordRequestDTO> completions = new ArrayList<>(FLUSH_EVERY);
+            for (int i = offset; i < Math.min(count, offset + FLUSH_EVERY); i++) {
+                completions.add(TrackingRecordRequestDTO.builder()
+                        .habitId(habits.get(i % habits.size()).getId())
+                        .completedAt(now.minusMinutes(i))
+                        .build());
+            }
+            trackingService.trackHabitCompletions(habits.get(0).getUserId(),
+                    BatchTrackingRequestDTO.builder().completions(completions).build());
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double perSecond(int operations, long nanos) {
+        return operations / (nanos / 1_000_000_000.0);
+    }
+}
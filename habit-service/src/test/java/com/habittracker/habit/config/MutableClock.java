@@ -0,0 +1,45 @@
+package com.habittracker.habit.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A clock that tests move by hand, for code that reads the time more than once in a scenario.
+ */
+public final class MutableClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile Instant instant = Instant.EPOCH;
+
+    public MutableClock(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock to {@code time} in the clock's zone.
+     */
+    public void set(LocalDateTime time) {
+        instant = time.atZone(zone).toInstant();
+    }
+
+    public void set(Instant instant) {
+        this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException("A mutable clock has a single zone");
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
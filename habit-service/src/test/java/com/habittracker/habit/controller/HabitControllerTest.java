@@ -5,6 +5,7 @@ import com.habittracker.habit.dto.*;
 import com.habittracker.habit.exception.GlobalExceptionHandler;
 import com.habittracker.habit.exception.ResourceNotFoundException;
 import com.habittracker.habit.service.HabitService;
+import com.habittracker.habit.service.HabitTrackingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,9 @@ public class HabitControllerTest {
     @Mock
     private HabitService habitService;
 
+    @Mock
+    private HabitTrackingService habitTrackingService;
+
     @InjectMocks
     private HabitController habitController;
 
@@ -402,4 +406,73 @@ public class HabitControllerTest {
 
         verify(habitService).deleteHabit(eq(habitId));
     }
+
+    // Batch Tracking Tests
+    @Test
+    @DisplayName("Given valid batch when tracking habits then return created record ids")
+    void given_validBatch_when_trackHabitsBatch_then_returnCreatedRecordIds() throws Exception {
+        // Given
+        BatchTrackingRequestDTO requestDTO = BatchTrackingRequestDTO.builder()
+                .completions(List.of(
+                        TrackingRecordRequestDTO.builder().habitId(habitId).completedAt(LocalDateTime.now().minusDays(1)).build(),
+                        TrackingRecordRequestDTO.builder().habitId(habitId).moodRating(4).build()))
+                .build();
+        BatchTrackingResponseDTO responseDTO = BatchTrackingResponseDTO.builder()
+                .recordsTracked(2)
+                .habitsUpdated(1)
+                .recordIds(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .build();
+        
+        when(habitTrackingService.trackHabitCompletions(eq(userId), any(BatchTrackingRequestDTO.class))).thenReturn(responseDTO);
+
+        // When / Then
+        mockMvc.perform(post("/api/habits/track/batch")
+                .requestAttr("userId", userId.toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.recordsTracked", is(2)))
+                .andExpect(jsonPath("$.habitsUpdated", is(1)))
+                .andExpect(jsonPath("$.recordIds", hasSize(2)));
+
+        verify(habitTrackingService).trackHabitCompletions(eq(userId), any(BatchTrackingRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Given unauthenticated request when tracking habits then return forbidden")
+    void given_unauthenticatedRequest_when_trackHabitsBatch_then_returnForbidden() throws Exception {
+        // Given
+        BatchTrackingRequestDTO requestDTO = BatchTrackingRequestDTO.builder()
+                .completions(List.of(TrackingRecordRequestDTO.builder().habitId(habitId).build()))
+                .build();
+
+        // When / Then
+        mockMvc.perform(post("/api/habits/track/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+
+        verify(habitTrackingService, never()).trackHabitCompletions(any(), any(BatchTrackingRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Given batch with invalid rating when tracking habits then return validation errors")
+    void given_batchWithInvalidRating_when_trackHabitsBatch_then_returnValidationErrors() throws Exception {
+        // Given
+        BatchTrackingRequestDTO requestDTO = BatchTrackingRequestDTO.builder()
+                .completions(List.of(TrackingRecordRequestDTO.builder().habitId(habitId).moodRating(9).build()))
+                .build();
+
+        // When / Then
+        mockMvc.perform(post("/api/habits/track/batch")
+                .requestAttr("userId", userId.toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(habitTrackingService, never()).trackHabitCompletions(any(), any(BatchTrackingRequestDTO.class));
+    }
 }
@@ -0,0 +1,97 @@
+package com.habittracker.habit.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habittracker.habit.dto.TrackingRecordResponseDTO;
+import com.habittracker.habit.exception.GlobalExceptionHandler;
+import com.habittracker.habit.exception.ResourceNotFoundException;
+import com.habittracker.habit.service.HabitTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HabitTrackingControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private HabitTrackingService habitTrackingService;
+
+    private UUID habitId;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules(); // For handling Java 8 date/time types
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new HabitTrackingController(habitTrackingService, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        habitId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Given a habit with history when requesting a slice then stream records and the next cursor")
+    @SuppressWarnings("unchecked")
+    void given_habitWithHistory_when_getTrackingHistory_then_streamSlice() throws Exception {
+        // Given
+        UUID recordId = UUID.randomUUID();
+        when(habitTrackingService.prepareTrackingHistory(habitId, null, 2)).thenReturn(2);
+        doAnswer(invocation -> {
+            Consumer<TrackingRecordResponseDTO> consumer = invocation.getArgument(3);
+            consumer.accept(TrackingRecordResponseDTO.builder()
+                    .id(recordId).completedAt(LocalDateTime.of(2024, 3, 5, 7, 0)).moodRating(4).build());
+            consumer.accept(TrackingRecordResponseDTO.builder()
+                    .id(UUID.randomUUID()).completedAt(LocalDateTime.of(2024, 3, 4, 7, 0)).build());
+            return "2024-03-04T07:00,00000000-0000-0000-0000-000000000001";
+        }).when(habitTrackingService).streamTrackingHistory(eq(habitId), isNull(), eq(2), any(Consumer.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/habits/{habitId}/tracking", habitId).param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(recordId.toString())))
+                .andExpect(jsonPath("$.content[0].moodRating", is(4)))
+                .andExpect(jsonPath("$.size", is(2)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("2024-03-04T07:00,00000000-0000-0000-0000-000000000001")));
+    }
+
+    @Test
+    @DisplayName("Given an unknown habit when requesting history then return not found without streaming")
+    void given_unknownHabit_when_getTrackingHistory_then_returnNotFound() throws Exception {
+        // Given
+        when(habitTrackingService.prepareTrackingHistory(habitId, null, null))
+                .thenThrow(new ResourceNotFoundException("Habit", "id", habitId));
+
+        // When / Then
+        mockMvc.perform(get("/api/habits/{habitId}/tracking", habitId))
+                .andExpect(status().isNotFound());
+
+        verify(habitTrackingService, never()).streamTrackingHistory(any(), any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package com.habittracker.habit.controller;
+
+import com.habittracker.habit.dto.LeaderboardEntryDTO;
+import com.habittracker.habit.exception.GlobalExceptionHandler;
+import com.habittracker.habit.model.LeaderboardMetric;
+import com.habittracker.habit.service.LeaderboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderboardControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    private UUID userId;
+    private UUID friendId;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new LeaderboardController(leaderboardService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        userId = UUID.randomUUID();
+        friendId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Given the authenticated user when requesting their friends leaderboard then rank them")
+    void given_authenticatedUser_when_getOwnFriendsLeaderboard_then_ok() throws Exception {
+        // Given
+        when(leaderboardService.getFriendsLeaderboard(eq(LeaderboardMetric.CURRENT_STREAK), eq(userId), any()))
+                .thenReturn(List.of(LeaderboardEntryDTO.builder().rank(1).userId(friendId).score(12).build()));
+
+        // When / Then
+        mockMvc.perform(get("/api/leaderboards/users/{userId}/friends", userId)
+                        .param("friendIds", friendId.toString())
+                        .requestAttr("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId", is(friendId.toString())));
+    }
+
+    @Test
+    @DisplayName("Given another user's id when requesting a friends leaderboard then reject with 403")
+    void given_otherUser_when_getFriendsLeaderboard_then_forbidden() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/leaderboards/users/{userId}/friends", userId)
+                        .param("friendIds", friendId.toString())
+                        .requestAttr("userId", friendId.toString()))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(leaderboardService);
+    }
+
+    @Test
+    @DisplayName("Given no authenticated user when requesting a friends leaderboard then reject with 403")
+    void given_noAuthenticatedUser_when_getFriendsLeaderboard_then_forbidden() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/leaderboards/users/{userId}/friends", userId)
+                        .param("friendIds", friendId.toString()))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(leaderboardService);
+    }
+}
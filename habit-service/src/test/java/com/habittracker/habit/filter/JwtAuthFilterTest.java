@@ -0,0 +1,109 @@
+package com.habittracker.habit.filter;
+
+import com.habitsystem.common.security.GatewayTrust;
+import com.habittracker.habit.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtAuthFilterTest {
+
+    private static final String JWT_SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1oYWJpdC1zZXJ2aWNlLXVuaXQtdGVzdHMtanNvbndlYnRva2Vu";
+    private static final String GATEWAY_SECRET = "gateway-shared-secret";
+
+    private final JwtService jwtService = new JwtService(JWT_SECRET);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest run(JwtAuthFilter filter, MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request;
+    }
+
+    private static MockHttpServletRequest gatewayRequest(String presentedSecret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/habits");
+        request.addHeader(GatewayTrust.USER_ID_HEADER, "user-from-gateway");
+        request.addHeader(GatewayTrust.USERNAME_HEADER, "alice");
+        request.addHeader(GatewayTrust.GATEWAY_AUTH_HEADER, presentedSecret);
+        return request;
+    }
+
+    private static String accessToken(String userId, String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim("userId", userId)
+                .claim("roles", List.of("USER"))
+                .setExpiration(Date.from(Instant.now().plus(15, ChronoUnit.MINUTES)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from gateway headers when the shared secret matches")
+    void shouldTrustGatewayHeaders() throws Exception {
+        MockHttpServletRequest request = run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET),
+                gatewayRequest(GATEWAY_SECRET));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("alice");
+        assertThat(request.getAttribute("userId")).isEqualTo("user-from-gateway");
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers carrying the wrong secret")
+    void shouldRejectWrongSecret() throws Exception {
+        MockHttpServletRequest request = run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET),
+                gatewayRequest("guessed-secret"));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(request.getAttribute("userId")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers when trust mode has no secret configured")
+    void shouldRejectWhenSecretMissing() throws Exception {
+        run(new JwtAuthFilter(jwtService, true, ""), gatewayRequest(""));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore gateway headers when trust mode is off")
+    void shouldRejectWhenDisabled() throws Exception {
+        run(new JwtAuthFilter(jwtService, false, GATEWAY_SECRET), gatewayRequest(GATEWAY_SECRET));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the bearer token's identity when the gateway secret is wrong")
+    void shouldPreferTokenOverSpoofedHeaders() throws Exception {
+        MockHttpServletRequest request = gatewayRequest("guessed-secret");
+        request.addHeader("Authorization", "Bearer " + accessToken("user-from-token", "bob"));
+
+        run(new JwtAuthFilter(jwtService, true, GATEWAY_SECRET), request);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("bob");
+        assertThat(request.getAttribute("userId")).isEqualTo("user-from-token");
+    }
+}
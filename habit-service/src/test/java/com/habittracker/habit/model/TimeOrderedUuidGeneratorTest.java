@@ -0,0 +1,37 @@
+package com.habittracker.habit.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    @DisplayName("Generated ids should be version 7 with the RFC variant and the current timestamp")
+    void shouldGenerateVersion7Ids() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1);
+    }
+
+    @Test
+    @DisplayName("Ids generated in a burst should be unique and strictly increasing")
+    void shouldGenerateIncreasingIds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.generate());
+        }
+
+        // The timestamp is positive for the next few thousand years, so signed order matches byte order
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+    }
+}
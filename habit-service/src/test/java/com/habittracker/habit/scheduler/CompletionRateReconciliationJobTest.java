@@ -0,0 +1,146 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.HabitStreakServiceImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the reconciliation job against a fixed clock, so the expected completion counts and the
+ * watermark it writes do not depend on when the test runs.
+ */
+@DataJpaTest(properties = "application.streaks.reconciliation.chunk-size=1")
+@ActiveProfiles("test")
+@Import({
+        CompletionRateReconciliationJob.class,
+        HabitStreakServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        JacksonAutoConfiguration.class
+})
+class CompletionRateReconciliationJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 15, 10, 0);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @TestConfiguration
+    static class FixedClockConfig {
+
+        @Bean
+        Clock clock() {
+            ZoneId zone = ZoneId.systemDefault();
+            return Clock.fixed(NOW.atZone(zone).toInstant(), zone);
+        }
+    }
+
+    @MockBean
+    private SchedulerLock schedulerLock;
+
+    @Autowired
+    private CompletionRateReconciliationJob job;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        when(schedulerLock.tryAcquire(eq(CompletionRateReconciliationJob.LOCK_NAME), any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Reconciliation should repair drifted counters as of the clock's current time")
+    void shouldRepairDriftedCountersAsOfClock() {
+        // Created on March 1st, so a daily habit is due 15 times up to and including March 15th
+        Habit drifted = persistHabit(9, 3, NOW.minusDays(5));
+        Habit accurate = persistHabit(2, 15, NOW);
+        for (int day = 1; day <= 5; day++) {
+            persistRecord(drifted, LocalDateTime.of(2024, 3, day, 7, 0));
+        }
+        persistRecord(accurate, LocalDateTime.of(2024, 3, 14, 7, 0));
+        persistRecord(accurate, LocalDateTime.of(2024, 3, 15, 7, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        job.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+
+        HabitStreak repaired = entityManager.find(HabitStreak.class, drifted.getId());
+        assertThat(repaired.getTotalCompletions()).isEqualTo(5);
+        assertThat(repaired.getExpectedCompletions()).isEqualTo(15);
+        assertThat(repaired.getExpectedAsOf()).isEqualTo(NOW);
+        assertThat(repaired.getCompletionRate()).isEqualTo(5.0 / 15);
+
+        HabitStreak unchanged = entityManager.find(HabitStreak.class, accurate.getId());
+        assertThat(unchanged.getTotalCompletions()).isEqualTo(2);
+        assertThat(unchanged.getExpectedCompletions()).isEqualTo(15);
+        assertThat(unchanged.getExpectedAsOf()).isEqualTo(NOW);
+        verify(schedulerLock).release(CompletionRateReconciliationJob.LOCK_NAME);
+    }
+
+    private Habit persistHabit(int totalCompletions, int expectedCompletions, LocalDateTime expectedAsOf) {
+        Habit habit = entityManager.persist(Habit.builder()
+                .userId(userId)
+                .name("Habit " + UUID.randomUUID())
+                .frequency("DAILY")
+                .priority(1)
+                .timeZone("UTC")
+                .build());
+        // created_at is stamped on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE habits SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, CREATED_AT)
+                .setParameter(2, habit.getId())
+                .executeUpdate();
+        habit.setCreatedAt(CREATED_AT);
+
+        entityManager.persist(HabitStreak.builder()
+                .habit(habit)
+                .userId(userId)
+                .currentStreak(0)
+                .bestStreak(0)
+                .totalCompletions(totalCompletions)
+                .expectedCompletions(expectedCompletions)
+                .expectedAsOf(expectedAsOf)
+                .completionRate(expectedCompletions > 0 ? (double) totalCompletions / expectedCompletions : 0)
+                .build());
+
+        return habit;
+    }
+
+    private void persistRecord(Habit habit, LocalDateTime completedAt) {
+        entityManager.persist(HabitTrackingRecord.builder()
+                .habit(habit)
+                .userId(userId)
+                .completedAt(completedAt)
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.repository.HabitRepository;
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.HabitStreakService;
+import com.habittracker.habit.service.LeaderboardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class StreakResetJobTest {
+
+    private static final List<String> ZONES = List.of(
+            "UTC", "Asia/Kolkata", "Asia/Kathmandu", "America/New_York", "Australia/Adelaide", "Not/AZone");
+
+    private final HabitRepository habitRepository = mock(HabitRepository.class);
+    private final HabitStreakRepository streakRepository = mock(HabitStreakRepository.class);
+    private final HabitStreakService streakService = mock(HabitStreakService.class);
+    private final SchedulerLock schedulerLock = mock(SchedulerLock.class);
+
+    @Test
+    @DisplayName("Only zones whose local midnight falls inside the 15-minute slice should cross it")
+    void shouldPickZonesCrossingMidnightInSlice() {
+        // 18:15Z is 00:00 in Kathmandu (+05:45); Kolkata (+05:30) crosses in the next slice
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-03-15T18:15:00Z")))
+                .containsExactly("Asia/Kathmandu");
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-03-15T18:30:00Z")))
+                .containsExactly("Asia/Kolkata");
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-03-15T18:45:00Z")))
+                .isEmpty();
+        // Adelaide is on daylight saving time (+10:30) until April
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-03-15T13:30:00Z")))
+                .containsExactly("Australia/Adelaide");
+        // Daylight saving time: New York is UTC-4 in summer and UTC-5 in winter
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-07-01T04:00:00Z")))
+                .containsExactly("America/New_York");
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-01-15T05:00:00Z")))
+                .containsExactly("America/New_York");
+        assertThat(StreakResetJob.zonesCrossingMidnight(ZONES, Instant.parse("2024-01-15T00:00:00Z")))
+                .containsExactly("UTC");
+    }
+
+    @Test
+    @DisplayName("A run should reset the zones crossing midnight as of the end of the slice")
+    void shouldResetZonesOfCurrentSlice() {
+        // Fired a few seconds late: the slice still ends at 18:30Z, midnight in Kolkata
+        Instant now = Instant.parse("2024-03-15T18:30:07Z");
+        UUID habitId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        LocalDateTime currentTime = LocalDateTime.of(2024, 3, 15, 18, 30);
+        given(schedulerLock.tryAcquire(eq(StreakResetJob.LOCK_NAME), any(Duration.class))).willReturn(true);
+        given(habitRepository.findDistinctTimeZones()).willReturn(ZONES);
+        given(streakRepository.findExpiredHabitIdsAfter(anyList(), any(UUID.class), any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(habitId), List.of());
+        given(streakService.resetExpiredStreaks(List.of(habitId), currentTime)).willReturn(1);
+        given(habitRepository.findDistinctUserIdsByIdIn(List.of(habitId))).willReturn(List.of(userId));
+
+        newJob(Clock.fixed(now, ZoneOffset.UTC)).resetExpiredStreaks();
+
+        verify(streakRepository).findExpiredHabitIdsAfter(
+                eq(List.of("Asia/Kolkata")), eq(new UUID(0L, 0L)), eq(currentTime), any(Pageable.class));
+        verify(streakService).resetExpiredStreaks(List.of(habitId), currentTime);
+        verify(schedulerLock).release(StreakResetJob.LOCK_NAME);
+    }
+
+    @Test
+    @DisplayName("A slice in which no zone crosses midnight should not touch any streak")
+    void shouldSkipSliceWithoutMidnight() {
+        given(schedulerLock.tryAcquire(eq(StreakResetJob.LOCK_NAME), any(Duration.class))).willReturn(true);
+        given(habitRepository.findDistinctTimeZones()).willReturn(ZONES);
+
+        newJob(Clock.fixed(Instant.parse("2024-03-15T12:10:00Z"), ZoneOffset.UTC)).resetExpiredStreaks();
+
+        verifyNoInteractions(streakRepository, streakService);
+        verify(schedulerLock).release(StreakResetJob.LOCK_NAME);
+    }
+
+    private StreakResetJob newJob(Clock clock) {
+        StreakResetJob job = new StreakResetJob(habitRepository, streakRepository, streakService, schedulerLock,
+                mock(AnalyticsResultCache.class), mock(LeaderboardService.class), new SimpleMeterRegistry(), clock);
+        ReflectionTestUtils.setField(job, "chunkSize", 100);
+        return job;
+    }
+}
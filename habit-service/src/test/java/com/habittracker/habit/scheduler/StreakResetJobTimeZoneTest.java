@@ -0,0 +1,146 @@
+package com.habittracker.habit.scheduler;
+
+import com.habittracker.habit.config.MutableClock;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.service.LeaderboardService;
+import com.habittracker.habit.service.ScheduleValidationService;
+import com.habittracker.habit.service.impl.AnalyticsResultCacheImpl;
+import com.habittracker.habit.service.impl.CompiledScheduleCacheImpl;
+import com.habittracker.habit.service.impl.HabitStreakServiceImpl;
+import com.habittracker.habit.service.impl.ScheduleValidationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Runs the reset slices on a server clock in UTC for one habit east of it (Tokyo, UTC+9) and one
+ * west of it (Los Angeles, UTC-7 in March). Each streak must survive its whole local due day and
+ * be reset in the slice of its own zone's midnight that ends it.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({
+        StreakResetJob.class,
+        HabitStreakServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class StreakResetJobTimeZoneTest {
+
+    private static final MutableClock CLOCK = new MutableClock(ZoneOffset.UTC);
+
+    // 05:00 on the 16th in Tokyo and 13:00 on the 15th in Los Angeles
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2024, 3, 15, 20, 0);
+
+    @TestConfiguration
+    static class ClockTestConfig {
+
+        @Bean
+        Clock clock() {
+            return CLOCK;
+        }
+    }
+
+    @MockBean
+    private SchedulerLock schedulerLock;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private StreakResetJob job;
+
+    @Autowired
+    private ScheduleValidationService scheduleValidationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Habit tokyo;
+    private Habit losAngeles;
+
+    @BeforeEach
+    void setUp() {
+        given(schedulerLock.tryAcquire(eq(StreakResetJob.LOCK_NAME), any())).willReturn(true);
+        tokyo = persistCompletedHabit("Asia/Tokyo");
+        losAngeles = persistCompletedHabit("America/Los_Angeles");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Each zone's streak should be due through its local due day, on the server's timeline")
+    void shouldStoreLocalDueBoundaries() {
+        // End of the 17th in Tokyo, end of the 16th in Los Angeles
+        assertThat(streak(tokyo).getNextDueAt()).isEqualTo(LocalDateTime.of(2024, 3, 17, 15, 0));
+        assertThat(streak(losAngeles).getNextDueAt()).isEqualTo(LocalDateTime.of(2024, 3, 17, 7, 0));
+    }
+
+    @Test
+    @DisplayName("A streak should be reset in its own zone's midnight slice, and only once its due day has ended")
+    void shouldResetEachZoneAtItsOwnMidnight() {
+        // Midnight starting the 17th in Tokyo: its due day has only begun
+        runSliceAt("2024-03-16T15:00:02Z");
+        assertThat(streak(tokyo).getCurrentStreak()).isEqualTo(3);
+
+        // Midnight ending the 16th in Los Angeles, with the job running exactly on the boundary
+        runSliceAt("2024-03-17T07:00:00Z");
+        assertThat(streak(losAngeles).getCurrentStreak()).isZero();
+        assertThat(streak(tokyo).getCurrentStreak()).isEqualTo(3);
+
+        // Midnight ending the 17th in Tokyo
+        runSliceAt("2024-03-17T15:00:02Z");
+        assertThat(streak(tokyo).getCurrentStreak()).isZero();
+    }
+
+    private void runSliceAt(String instant) {
+        CLOCK.set(Instant.parse(instant));
+        job.resetExpiredStreaks();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Habit persistCompletedHabit(String timeZone) {
+        Habit habit = entityManager.persist(Habit.builder()
+                .userId(UUID.randomUUID()).name("Stretch").frequency("DAILY").priority(1).timeZone(timeZone).build());
+        entityManager.persist(HabitStreak.builder()
+                .habit(habit)
+                .userId(habit.getUserId())
+                .currentStreak(3)
+                .bestStreak(3)
+                .completionRate(1.0)
+                .lastCompletedAt(COMPLETED_AT)
+                .nextDueAt(scheduleValidationService.calculateNextDueDate(habit, COMPLETED_AT))
+                .build());
+        return habit;
+    }
+
+    private HabitStreak streak(Habit habit) {
+        return entityManager.find(HabitStreak.class, habit.getId());
+    }
+}
@@ -0,0 +1,119 @@
+package com.habittracker.habit.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the partition job against the real migrations on Postgres, where the default partition
+ * behaviour matters. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TrackingPartitionMaintenanceJobPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingPartitionMaintenanceJob job;
+    private UUID habitId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new TrackingPartitionMaintenanceJob(jdbcTemplate, new SchedulerLock(jdbcTemplate),
+                new DataSourceTransactionManager(dataSource), meterRegistry);
+        ReflectionTestUtils.setField(job, "monthsAhead", 6);
+
+        habitId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO habits (id, user_id, name, frequency) VALUES (?, ?, 'Read', 'DAILY')",
+                habitId, UUID.randomUUID());
+    }
+
+    private UUID insertRecord(YearMonth month) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO habit_tracking_records (id, habit_id, user_id, completed_at) " +
+                        "SELECT ?, id, user_id, ? FROM habits WHERE id = ?",
+                id, Timestamp.valueOf(month.atDay(10).atTime(8, 0)), habitId);
+        return id;
+    }
+
+    private String partitionOf(UUID recordId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM habit_tracking_records WHERE id = ?", String.class, recordId);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "habit_tracking_records_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+
+    @Test
+    @DisplayName("Should create missing months and be a no-op on the next run")
+    void shouldCreateMissingMonths() {
+        YearMonth last = YearMonth.now().plusMonths(6);
+
+        job.createUpcomingPartitions();
+        job.createUpcomingPartitions();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(last)))
+                .isTrue();
+        assertThat(meterRegistry.counter("habit.tracking.partitions.failures").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move rows out of the default partition when creating their month")
+    void shouldMoveRowsFromDefaultPartition() {
+        YearMonth month = YearMonth.now().plusMonths(5);
+        UUID recordId = insertRecord(month);
+        assertThat(partitionOf(recordId)).isEqualTo("habit_tracking_records_default");
+
+        job.createUpcomingPartitions();
+
+        assertThat(partitionOf(recordId)).isEqualTo(partitionName(month));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM habit_tracking_records_default", Long.class)).isZero();
+        assertThat(meterRegistry.counter("habit.tracking.partitions.default.rows.moved").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("habit.tracking.partitions.failures").count()).isZero();
+
+        // The default partition is attached again and still catches far-off dates
+        UUID farOff = insertRecord(YearMonth.now().plusYears(5));
+        assertThat(partitionOf(farOff)).isEqualTo("habit_tracking_records_default");
+    }
+
+    @Test
+    @DisplayName("Should report rows left in the default partition")
+    void shouldReportDefaultPartitionRows() {
+        insertRecord(YearMonth.now().plusYears(5));
+
+        job.createUpcomingPartitions();
+
+        assertThat(meterRegistry.get("habit.tracking.partitions.default.rows").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.habittracker.habit.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class TrackingPartitionMaintenanceJobTest {
+
+    private final List<String> createdPartitions = new CopyOnWriteArrayList<>();
+    private final SchedulerLock schedulerLock = mock(SchedulerLock.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private String failingPartition;
+
+    private TrackingPartitionMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        // No partition exists yet and the default partition is empty; CREATE fails for one month
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class, invocation -> {
+            String method = invocation.getMethod().getName();
+            if (method.equals("queryForObject")) {
+                return invocation.getArgument(1) == Boolean.class ? Boolean.FALSE : 0L;
+            }
+            if (method.equals("execute") && invocation.getArgument(0) instanceof String sql && sql.startsWith("CREATE TABLE")) {
+                if (failingPartition != null && sql.contains(failingPartition)) {
+                    throw new DataIntegrityViolationException("updated partition constraint for default partition would be violated");
+                }
+                createdPartitions.add(sql);
+            }
+            return null;
+        });
+        given(schedulerLock.tryAcquire(eq(TrackingPartitionMaintenanceJob.LOCK_NAME), any(Duration.class))).willReturn(true);
+
+        job = new TrackingPartitionMaintenanceJob(jdbcTemplate, schedulerLock, mock(PlatformTransactionManager.class), meterRegistry);
+        ReflectionTestUtils.setField(job, "monthsAhead", 3);
+    }
+
+    @Test
+    @DisplayName("Should create the current month and the configured months ahead")
+    void shouldCreateMonthsAhead() {
+        job.createUpcomingPartitions();
+
+        assertThat(createdPartitions).hasSize(4);
+        verify(schedulerLock).release(TrackingPartitionMaintenanceJob.LOCK_NAME);
+    }
+
+    @Test
+    @DisplayName("Should keep going when one month fails and count the failure")
+    void shouldContinueAfterFailedMonth() {
+        failingPartition = "habit_tracking_records_" + YearMonth.now().plusMonths(1).format(DateTimeFormatter.ofPattern("yyyy_MM"));
+
+        job.createUpcomingPartitions();
+
+        assertThat(createdPartitions).hasSize(3).noneMatch(sql -> sql.contains(failingPartition));
+        assertThat(meterRegistry.counter("habit.tracking.partitions.failures").count()).isEqualTo(1);
+        verify(schedulerLock).release(TrackingPartitionMaintenanceJob.LOCK_NAME);
+    }
+
+    @Test
+    @DisplayName("Should skip the run when another instance holds the lease")
+    void shouldSkipWithoutLease() {
+        given(schedulerLock.tryAcquire(eq(TrackingPartitionMaintenanceJob.LOCK_NAME), any(Duration.class))).willReturn(false);
+
+        job.createUpcomingPartitions();
+
+        assertThat(createdPartitions).isEmpty();
+        verify(schedulerLock, never()).release(any());
+    }
+}
@@ -0,0 +1,333 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.model.Category;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitDailyStat;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Guards the analytics read paths against regressing into per-habit or per-record work: the
+ * number of JDBC statements must not grow with the number of habits or records.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({
+        HabitAnalyticsServiceImpl.class,
+        HabitStreakServiceImpl.class,
+        ClockConfig.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitAnalyticsServiceImplTest {
+
+    private static final int HABITS_PER_CATEGORY = 10;
+
+    @Autowired
+    private HabitAnalyticsServiceImpl analyticsService;
+
+    @Autowired
+    private AnalyticsResultCache analyticsResultCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        
+        Category fitness = entityManager.persist(Category.builder().userId(userId).name("Fitness").build());
+        Category reading = entityManager.persist(Category.builder().userId(userId).name("Reading").build());
+        
+        for (Category category : new Category[]{fitness, reading, null}) {
+            for (int i = 0; i < HABITS_PER_CATEGORY; i++) {
+                Habit habit = persistHabit(category, "DAILY");
+                // One completion yesterday and two eight days ago for every habit
+                persistDailyStat(habit, today.minusDays(1), 1);
+                persistDailyStat(habit, today.minusDays(8), 2);
+            }
+        }
+        
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Category distribution should aggregate every category in a single statement")
+    @SuppressWarnings("unchecked")
+    void shouldAggregateCategoryDistributionInSingleStatement() {
+        Map<String, Object> result = analyticsService.getCategoryDistribution(userId);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat((Map<String, Long>) result.get("habitCountByCategory"))
+                .containsOnly(
+                        entry("Fitness", (long) HABITS_PER_CATEGORY),
+                        entry("Reading", (long) HABITS_PER_CATEGORY),
+                        entry("Uncategorized", (long) HABITS_PER_CATEGORY));
+        assertThat((Map<String, Long>) result.get("completionsByCategory"))
+                .containsEntry("Fitness", 3L * HABITS_PER_CATEGORY)
+                .containsEntry("Uncategorized", 3L * HABITS_PER_CATEGORY);
+    }
+
+    @Test
+    @DisplayName("Predicted completion rates should load habits and completions in two statements")
+    void shouldLoadPredictedCompletionRatesInTwoStatements() {
+        Map<String, Double> predictions = analyticsService.getPredictedCompletionRates(userId);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(predictions).hasSize(3 * HABITS_PER_CATEGORY);
+        // 1/7 last week, 2/7 the week before: the downward trend predicts zero
+        assertThat(predictions.values()).allSatisfy(rate -> assertThat(rate).isZero());
+    }
+
+    @Test
+    @DisplayName("Time of day analysis should bucket completions in the database")
+    @SuppressWarnings("unchecked")
+    void shouldBucketTimeOfDayInSingleStatement() {
+        Habit habit = persistHabit(null, "DAILY");
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (int hour : new int[]{6, 6, 6, 13, 22, 2}) {
+            persistRecord(habit, yesterday.atTime(hour, 30));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        
+        Map<String, Object> result = analyticsService.getTimeOfDayAnalysis(userId);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat((Map<Integer, Long>) result.get("completionsByHour"))
+                .containsOnly(entry(6, 3L), entry(13, 1L), entry(22, 1L), entry(2, 1L));
+        assertThat((Map<String, Long>) result.get("completionsByTimePeriod"))
+                .containsOnly(entry("morning", 3L), entry("afternoon", 1L), entry("evening", 0L), entry("night", 2L));
+        assertThat(result).containsEntry("peakHour", 6).containsEntry("peakHourCount", 3L);
+    }
+
+    @Test
+    @DisplayName("Completion trends should count completions per day in a single statement")
+    @SuppressWarnings("unchecked")
+    void shouldCountCompletionTrendsPerDayInSingleStatement() {
+        Habit habit = persistHabit(null, "DAILY");
+        LocalDate monday = LocalDate.of(2024, 3, 4);
+        persistRecord(habit, monday.atTime(7, 0));
+        persistRecord(habit, monday.atTime(23, 59));
+        persistRecord(habit, monday.plusDays(2).atTime(12, 0));
+        persistRecord(habit, monday.plusDays(9).atTime(0, 0));
+        // Outside the requested range
+        persistRecord(habit, monday.minusDays(1).atTime(12, 0));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Map<String, Object> result = analyticsService.getUserCompletionTrends(
+                userId, monday.atStartOfDay(), monday.plusDays(9).atTime(23, 59));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Map<String, Long> daily = (Map<String, Long>) result.get("dailyCompletions");
+        assertThat(daily).hasSize(10)
+                .containsEntry("2024-03-04", 2L)
+                .containsEntry("2024-03-05", 0L)
+                .containsEntry("2024-03-06", 1L)
+                .containsEntry("2024-03-13", 1L);
+        assertThat(daily.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(4L);
+        // Three completions over the whole of week 10; one over the three days of week 11 in range
+        assertThat((Map<String, Double>) result.get("weeklyAverages"))
+                .containsOnly(entry("2024-W10", 3.0 / 7), entry("2024-W11", 1.0 / 3));
+    }
+
+    @Test
+    @DisplayName("Weekly averages should keep the same week number of different years apart")
+    @SuppressWarnings("unchecked")
+    void shouldKeyWeeklyAveragesByWeekBasedYear() {
+        Habit habit = persistHabit(null, "DAILY");
+        persistRecord(habit, LocalDateTime.of(2023, 12, 25, 9, 0));
+        persistRecord(habit, LocalDateTime.of(2024, 1, 1, 9, 0));
+        persistRecord(habit, LocalDateTime.of(2024, 12, 23, 9, 0));
+        // A Tuesday in the first ISO week of 2025
+        persistRecord(habit, LocalDateTime.of(2024, 12, 31, 9, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, Object> result = analyticsService.getUserCompletionTrends(
+                userId, LocalDateTime.of(2023, 12, 25, 0, 0), LocalDateTime.of(2025, 1, 5, 23, 59));
+
+        assertThat((Map<String, Double>) result.get("weeklyAverages")).containsOnly(
+                entry("2023-W52", 1.0 / 7), entry("2024-W01", 1.0 / 7),
+                entry("2024-W52", 1.0 / 7), entry("2025-W01", 1.0 / 7));
+    }
+
+    @Test
+    @DisplayName("User stats should be served from the cache until the user is invalidated")
+    void shouldServeUserStatsFromCacheUntilInvalidated() {
+        Map<String, Object> first = analyticsService.getUserStats(userId);
+        long statementsToCompute = statistics.getPrepareStatementCount();
+        
+        assertThat(analyticsService.getUserStats(userId)).isSameAs(first);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsToCompute);
+        
+        analyticsResultCache.invalidate(userId);
+        
+        assertThat(analyticsService.getUserStats(userId)).isNotSameAs(first).isEqualTo(first);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statementsToCompute);
+    }
+
+    @Test
+    @DisplayName("Top performing habits should be ranked and limited in a single statement")
+    void shouldRankTopPerformingHabitsInSingleStatement() {
+        Habit best = persistHabit(null, "DAILY");
+        Habit second = persistHabit(null, "DAILY");
+        entityManager.find(HabitStreak.class, best.getId()).setCurrentStreak(9);
+        entityManager.find(HabitStreak.class, second.getId()).setCurrentStreak(5);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Map<String, Object>> top = analyticsService.getTopPerformingHabits(userId, 2);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(top).extracting(habit -> habit.get("habitName"))
+                .containsExactly(best.getName(), second.getName());
+        assertThat(top).extracting(habit -> habit.get("currentStreak")).containsExactly(9, 5);
+    }
+
+    @Test
+    @DisplayName("Top performing habits should be cached once per user and sliced for every limit")
+    void shouldServeEveryLimitFromOneCachedRanking() {
+        Habit best = persistHabit(null, "DAILY");
+        Habit second = persistHabit(null, "DAILY");
+        entityManager.find(HabitStreak.class, best.getId()).setCurrentStreak(9);
+        entityManager.find(HabitStreak.class, second.getId()).setCurrentStreak(5);
+        // More habits than the largest ranking that is cached
+        for (int i = 3 * HABITS_PER_CATEGORY + 2; i <= HabitAnalyticsServiceImpl.MAX_RANKING_LIMIT; i++) {
+            persistHabit(null, "DAILY");
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Map<String, Object>> topOne = analyticsService.getTopPerformingHabits(userId, 1);
+        List<Map<String, Object>> topTwo = analyticsService.getTopPerformingHabits(userId, 2);
+        List<Map<String, Object>> clamped = analyticsService.getTopPerformingHabits(userId, 10_000);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(topOne).extracting(habit -> habit.get("habitName")).containsExactly(best.getName());
+        assertThat(topTwo).extracting(habit -> habit.get("habitName"))
+                .containsExactly(best.getName(), second.getName());
+        assertThat(clamped).hasSize(HabitAnalyticsServiceImpl.MAX_RANKING_LIMIT);
+        assertThat(analyticsService.getTopPerformingHabits(userId, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Habit stats should total the last 30 days of the rollup, with no averages for a habit without rows")
+    void shouldTotalHabitStatsOverLast30Days() {
+        LocalDate today = LocalDate.now();
+        Habit rated = persistHabit(null, "DAILY");
+        entityManager.persist(HabitDailyStat.builder()
+                .habitId(rated.getId())
+                .statDate(today.minusDays(3))
+                .userId(userId)
+                .completionCount(2)
+                .totalDurationMinutes(40)
+                .moodRatingSum(7)
+                .moodRatingCount(2)
+                .difficultyRatingSum(3)
+                .difficultyRatingCount(1)
+                .build());
+        // Outside the 30-day window
+        persistDailyStat(rated, today.minusDays(31), 5);
+        Habit unrated = persistHabit(null, "DAILY");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(analyticsService.getHabitStats(rated.getId()))
+                .containsEntry("completionsLast30Days", 2)
+                .containsEntry("avgMood", 3.5)
+                .containsEntry("avgDifficulty", 3.0);
+        assertThat(analyticsService.getHabitStats(unrated.getId()))
+                .containsEntry("completionsLast30Days", 0)
+                .containsEntry("avgMood", null)
+                .containsEntry("avgDifficulty", null);
+    }
+
+    private Habit persistHabit(Category category, String frequency) {
+        Habit habit = Habit.builder()
+                .userId(userId)
+                .name("Habit " + UUID.randomUUID())
+                .frequency(frequency)
+                .priority(1)
+                .timeZone("UTC")
+                .category(category)
+                .createdAt(LocalDateTime.now().minusMonths(1))
+                .build();
+        habit = entityManager.persist(habit);
+        
+        entityManager.persist(HabitStreak.builder()
+                .habit(habit)
+                .userId(userId)
+                .currentStreak(0)
+                .bestStreak(0)
+                .completionRate(0.0)
+                .build());
+        
+        return habit;
+    }
+
+    private void persistRecord(Habit habit, LocalDateTime completedAt) {
+        entityManager.persist(HabitTrackingRecord.builder()
+                .habit(habit)
+                .userId(userId)
+                .completedAt(completedAt)
+                .build());
+    }
+
+    private void persistDailyStat(Habit habit, LocalDate date, int completions) {
+        entityManager.persist(HabitDailyStat.builder()
+                .habitId(habit.getId())
+                .statDate(date)
+                .userId(userId)
+                .completionCount(completions)
+                .totalDurationMinutes(0)
+                .moodRatingSum(0)
+                .moodRatingCount(0)
+                .difficultyRatingSum(0)
+                .difficultyRatingCount(0)
+                .build());
+    }
+}
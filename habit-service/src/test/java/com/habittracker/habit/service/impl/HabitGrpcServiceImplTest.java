@@ -0,0 +1,428 @@
+package com.habittracker.habit.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habitsystem.common.security.GatewayTrust;
+import com.habitsystem.proto.habit.CreateHabitRequest;
+import com.habitsystem.proto.habit.DeleteHabitRequest;
+import com.habitsystem.proto.habit.GetHabitRequest;
+import com.habitsystem.proto.habit.Habit;
+import com.habitsystem.proto.habit.HabitServiceGrpc;
+import com.habitsystem.proto.habit.ListHabitsRequest;
+import com.habitsystem.proto.habit.TrackHabitRequest;
+import com.habitsystem.proto.habit.TrackHabitsResponse;
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.DeleteResponseDTO;
+import com.habittracker.habit.dto.HabitRequestDTO;
+import com.habittracker.habit.dto.HabitResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
+import com.habittracker.habit.filter.GrpcAuthInterceptor;
+import com.habittracker.habit.mapper.HabitProtoMapper;
+import com.habittracker.habit.service.HabitService;
+import com.habittracker.habit.service.HabitTrackingService;
+import com.habittracker.habit.service.JwtService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HabitGrpcServiceImplTest {
+
+    private static final String JWT_SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1oYWJpdC1zZXJ2aWNlLXVuaXQtdGVzdHMtanNvbndlYnRva2Vu";
+    private static final String GATEWAY_SECRET = "gateway-shared-secret";
+
+    @Mock
+    private HabitService habitService;
+
+    @Mock
+    private HabitTrackingService habitTrackingService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID otherUserId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HabitGrpcServiceImpl service = new HabitGrpcServiceImpl(
+                habitService, habitTrackingService, new HabitProtoMapper(new ObjectMapper()));
+        GrpcAuthInterceptor authInterceptor = new GrpcAuthInterceptor(new JwtService(JWT_SECRET), true, GATEWAY_SECRET);
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(service, authInterceptor))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private static String accessToken(UUID userId, String secret) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", userId.toString())
+                .setExpiration(Date.from(Instant.now().plus(15, ChronoUnit.MINUTES)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static Metadata bearer(String token) {
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), "Bearer " + token);
+        return headers;
+    }
+
+    private HabitServiceGrpc.HabitServiceBlockingStub blockingStub(Metadata headers) {
+        return HabitServiceGrpc.newBlockingStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private HabitServiceGrpc.HabitServiceStub asyncStub(Metadata headers) {
+        return HabitServiceGrpc.newStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private HabitServiceGrpc.HabitServiceBlockingStub asCaller() {
+        return blockingStub(bearer(accessToken(userId, JWT_SECRET)));
+    }
+
+    private HabitResponseDTO habit(UUID id) {
+        return HabitResponseDTO.builder()
+                .id(id)
+                .userId(userId)
+                .name("Habit " + id)
+                .frequency("DAILY")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private SlicedResponseDTO<HabitResponseDTO> slice(String nextCursor, int size) {
+        List<HabitResponseDTO> content = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            content.add(habit(UUID.randomUUID()));
+        }
+        return SlicedResponseDTO.<HabitResponseDTO>builder()
+                .content(content)
+                .size(size)
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Authentication")
+    class Authentication {
+
+        @Test
+        @DisplayName("Should reject calls without credentials")
+        void shouldRejectMissingCredentials() {
+            assertThatThrownBy(() -> HabitServiceGrpc.newBlockingStub(channel)
+                    .listHabits(ListHabitsRequest.getDefaultInstance()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAUTHENTICATED));
+            verifyNoInteractions(habitService);
+        }
+
+        @Test
+        @DisplayName("Should reject tokens signed with another key")
+        void shouldRejectForgedToken() {
+            String forged = accessToken(userId, "YW5vdGhlci1zZWNyZXQta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2");
+
+            assertThatThrownBy(() -> blockingStub(bearer(forged)).listHabits(ListHabitsRequest.getDefaultInstance()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAUTHENTICATED));
+            verifyNoInteractions(habitService);
+        }
+
+        @Test
+        @DisplayName("Should accept gateway-trust metadata only with the shared secret")
+        void shouldAcceptGatewayTrustMetadata() {
+            Metadata trusted = new Metadata();
+            trusted.put(Metadata.Key.of(GatewayTrust.USER_ID_HEADER, Metadata.ASCII_STRING_MARSHALLER), userId.toString());
+            trusted.put(Metadata.Key.of(GatewayTrust.GATEWAY_AUTH_HEADER, Metadata.ASCII_STRING_MARSHALLER), GATEWAY_SECRET);
+            Metadata spoofed = new Metadata();
+            spoofed.put(Metadata.Key.of(GatewayTrust.USER_ID_HEADER, Metadata.ASCII_STRING_MARSHALLER), userId.toString());
+            spoofed.put(Metadata.Key.of(GatewayTrust.GATEWAY_AUTH_HEADER, Metadata.ASCII_STRING_MARSHALLER), "guessed");
+            given(habitService.getHabitsResponseByUserId(userId)).willReturn(List.of());
+
+            assertThat(blockingStub(trusted).listHabits(ListHabitsRequest.getDefaultInstance()).getHabitsCount()).isZero();
+            assertThatThrownBy(() -> blockingStub(spoofed).listHabits(ListHabitsRequest.getDefaultInstance()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAUTHENTICATED));
+        }
+    }
+
+    @Nested
+    @DisplayName("Ownership")
+    class Ownership {
+
+        @Test
+        @DisplayName("Should list the caller's habits when the request names no user")
+        void shouldUseCallerWhenUserIdEmpty() {
+            given(habitService.getHabitsResponseByUserId(userId)).willReturn(List.of(habit(UUID.randomUUID())));
+
+            assertThat(asCaller().listHabits(ListHabitsRequest.getDefaultInstance()).getHabitsCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should refuse to list another user's habits")
+        void shouldRejectOtherUsersList() {
+            ListHabitsRequest request = ListHabitsRequest.newBuilder().setUserId(otherUserId.toString()).build();
+
+            assertThatThrownBy(() -> asCaller().listHabits(request))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.PERMISSION_DENIED));
+            verify(habitService, never()).getHabitsResponseByUserId(any());
+        }
+
+        @Test
+        @DisplayName("Should create habits for the authenticated caller")
+        void shouldCreateForCaller() {
+            ArgumentCaptor<HabitRequestDTO> captor = ArgumentCaptor.forClass(HabitRequestDTO.class);
+            given(habitService.createHabit(captor.capture())).willReturn(habit(UUID.randomUUID()));
+
+            asCaller().createHabit(CreateHabitRequest.newBuilder().setName("Read").build());
+
+            assertThat(captor.getValue().getUserId()).isEqualTo(userId);
+        }
+
+        @Test
+        @DisplayName("Should refuse to read a habit owned by another user")
+        void shouldRejectOtherUsersHabit() {
+            UUID habitId = UUID.randomUUID();
+            given(habitService.getHabitOwnerIds(Set.of(habitId))).willReturn(List.of(otherUserId));
+
+            assertThatThrownBy(() -> asCaller().getHabit(GetHabitRequest.newBuilder().setHabitId(habitId.toString()).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.PERMISSION_DENIED));
+            verify(habitService, never()).getHabitResponseById(any());
+        }
+
+        @Test
+        @DisplayName("Should delete a habit the caller owns")
+        void shouldDeleteOwnHabit() {
+            UUID habitId = UUID.randomUUID();
+            given(habitService.getHabitOwnerIds(Set.of(habitId))).willReturn(List.of(userId));
+            given(habitService.deleteHabit(habitId)).willReturn(DeleteResponseDTO.builder().successful(true).build());
+
+            assertThat(asCaller().deleteHabit(DeleteHabitRequest.newBuilder().setHabitId(habitId.toString()).build())
+                    .getSuccess()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject a tracking batch that touches another user's habit")
+        void shouldRejectBatchWithForeignHabit() throws InterruptedException {
+            UUID ownHabit = UUID.randomUUID();
+            UUID foreignHabit = UUID.randomUUID();
+            given(habitService.getHabitOwnerIds(List.of(ownHabit, foreignHabit))).willReturn(List.of(userId, otherUserId));
+
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            StreamObserver<TrackHabitRequest> requests = asyncStub(bearer(accessToken(userId, JWT_SECRET)))
+                    .trackHabits(new StreamObserver<>() {
+                        @Override
+                        public void onNext(TrackHabitsResponse response) {
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            error.set(t);
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            done.countDown();
+                        }
+                    });
+            requests.onNext(TrackHabitRequest.newBuilder().setHabitId(ownHabit.toString()).build());
+            requests.onNext(TrackHabitRequest.newBuilder().setHabitId(foreignHabit.toString()).build());
+            requests.onCompleted();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(Status.fromThrowable(error.get()).getCode()).isEqualTo(Status.Code.PERMISSION_DENIED);
+            verifyNoInteractions(habitTrackingService);
+        }
+    }
+
+    @Nested
+    @DisplayName("TrackHabit")
+    class TrackHabit {
+
+        @Test
+        @DisplayName("Should record the requested number of completions in one batch")
+        void shouldTrackCountAsBatch() {
+            UUID habitId = UUID.randomUUID();
+            given(habitService.getHabitOwnerIds(Set.of(habitId))).willReturn(List.of(userId));
+            given(habitService.getHabitResponseById(habitId)).willReturn(habit(habitId));
+            ArgumentCaptor<BatchTrackingRequestDTO> captor = ArgumentCaptor.forClass(BatchTrackingRequestDTO.class);
+
+            asCaller().trackHabit(TrackHabitRequest.newBuilder().setHabitId(habitId.toString()).setCount(3).build());
+
+            verify(habitTrackingService).trackHabitCompletions(eq(userId), captor.capture());
+            assertThat(captor.getValue().getCompletions()).hasSize(3)
+                    .allSatisfy(completion -> assertThat(completion.getHabitId()).isEqualTo(habitId));
+        }
+
+        @Test
+        @DisplayName("Should reject a count below one or above the batch limit instead of adjusting it")
+        void shouldRejectCountOutOfRange() {
+            UUID habitId = UUID.randomUUID();
+
+            for (int count : new int[] {0, -2, 1001}) {
+                TrackHabitRequest request = TrackHabitRequest.newBuilder()
+                        .setHabitId(habitId.toString()).setCount(count).build();
+                assertThatThrownBy(() -> asCaller().trackHabit(request))
+                        .isInstanceOfSatisfying(StatusRuntimeException.class,
+                                e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+            }
+            verifyNoInteractions(habitTrackingService);
+        }
+    }
+
+    @Nested
+    @DisplayName("StreamHabits")
+    class StreamHabits {
+
+        @Test
+        @DisplayName("Should read the next slice only as the client asks for more")
+        void shouldFollowClientFlowControl() throws InterruptedException {
+            given(habitService.getHabitsByUserIdAfterCursor(userId, null, 2)).willReturn(slice("c1", 2));
+            given(habitService.getHabitsByUserIdAfterCursor(userId, "c1", 2)).willReturn(slice("c2", 2));
+            given(habitService.getHabitsByUserIdAfterCursor(userId, "c2", 2)).willReturn(slice(null, 1));
+
+            List<Habit> received = new CopyOnWriteArrayList<>();
+            AtomicReference<ClientCallStreamObserver<ListHabitsRequest>> call = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            asyncStub(bearer(accessToken(userId, JWT_SECRET))).streamHabits(
+                    ListHabitsRequest.newBuilder().setPageSize(2).build(),
+                    new ClientResponseObserver<ListHabitsRequest, Habit>() {
+                        @Override
+                        public void beforeStart(ClientCallStreamObserver<ListHabitsRequest> requestStream) {
+                            call.set(requestStream);
+                            requestStream.disableAutoRequestWithInitial(1);
+                        }
+
+                        @Override
+                        public void onNext(Habit habit) {
+                            received.add(habit);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            done.countDown();
+                        }
+                    });
+
+            // One message requested: the server stops after it and has read a single slice
+            assertThat(received).hasSize(1);
+            verify(habitService, times(1)).getHabitsByUserIdAfterCursor(any(), any(), anyInt());
+
+            call.get().request(2);
+            assertThat(received).hasSize(3);
+            verify(habitService, times(2)).getHabitsByUserIdAfterCursor(any(), any(), anyInt());
+
+            call.get().request(Integer.MAX_VALUE);
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(received).hasSize(5);
+            verify(habitService, times(3)).getHabitsByUserIdAfterCursor(any(), any(), anyInt());
+            verify(habitService, never()).getHabitsByUserIdWithPagination(any(), anyInt(), anyInt(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should complete an empty stream after one lookup")
+        void shouldCompleteEmptyStream() {
+            given(habitService.getHabitsByUserIdAfterCursor(userId, null, 50)).willReturn(slice(null, 0));
+
+            var habits = asCaller().streamHabits(ListHabitsRequest.getDefaultInstance());
+
+            assertThat(habits.hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should stop reading slices once the client cancels")
+        void shouldStopOnCancel() {
+            given(habitService.getHabitsByUserIdAfterCursor(userId, null, 2)).willReturn(slice("c1", 2));
+
+            AtomicReference<ClientCallStreamObserver<ListHabitsRequest>> call = new AtomicReference<>();
+            List<Habit> received = new CopyOnWriteArrayList<>();
+            asyncStub(bearer(accessToken(userId, JWT_SECRET))).streamHabits(
+                    ListHabitsRequest.newBuilder().setPageSize(2).build(),
+                    new ClientResponseObserver<ListHabitsRequest, Habit>() {
+                        @Override
+                        public void beforeStart(ClientCallStreamObserver<ListHabitsRequest> requestStream) {
+                            call.set(requestStream);
+                            requestStream.disableAutoRequestWithInitial(1);
+                        }
+
+                        @Override
+                        public void onNext(Habit habit) {
+                            received.add(habit);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                        }
+                    });
+
+            call.get().cancel("done", null);
+            call.get().request(Integer.MAX_VALUE);
+
+            assertThat(received).hasSize(1);
+            verify(habitService, times(1)).getHabitsByUserIdAfterCursor(any(), any(), anyInt());
+        }
+    }
+}
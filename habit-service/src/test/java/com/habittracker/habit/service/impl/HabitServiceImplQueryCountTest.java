@@ -0,0 +1,179 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.dto.HabitRequestDTO;
+import com.habittracker.habit.dto.HabitResponseDTO;
+import com.habittracker.habit.dto.PagedResponseDTO;
+import com.habittracker.habit.dto.SlicedResponseDTO;
+import com.habittracker.habit.mapper.HabitMapper;
+import com.habittracker.habit.model.Category;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Guards the habit read paths that feed HabitMapper against loading categories or streaks one
+ * habit at a time.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({
+        HabitServiceImpl.class,
+        HabitMapper.class,
+        ScheduleValidationServiceImpl.class,
+        ClockConfig.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitServiceImplQueryCountTest {
+
+    private static final int HABITS = 25;
+
+    @Autowired
+    private HabitServiceImpl habitService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UUID userId;
+
+    private List<Habit> habits;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        habits = new ArrayList<>();
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            categories.add(entityManager.persist(Category.builder().userId(userId).name("Category " + i).build()));
+        }
+
+        for (int i = 0; i < HABITS; i++) {
+            Habit habit = entityManager.persist(Habit.builder()
+                    .userId(userId)
+                    .name(String.format("Habit %02d", i))
+                    .frequency("DAILY")
+                    .priority(1)
+                    .timeZone("UTC")
+                    .category(categories.get(i % categories.size()))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            entityManager.persist(HabitStreak.builder()
+                    .habit(habit)
+                    .userId(userId)
+                    .currentStreak(i)
+                    .bestStreak(i)
+                    .completionRate(0.5)
+                    .build());
+            habits.add(habit);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Paged listing should load habits, categories and streaks in one query plus the count")
+    void shouldListPageWithoutPerHabitQueries() {
+        PagedResponseDTO<HabitResponseDTO> page = habitService.getHabitsByUserIdWithPagination(userId, 0, 10, "name", "asc");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(HABITS);
+        assertThat(page.getContent()).allSatisfy(habit -> {
+            assertThat(habit.getCategoryName()).startsWith("Category ");
+            assertThat(habit.getCurrentStreak()).isNotNull();
+        });
+        assertThat(page.getContent().get(3).getCurrentStreak()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Single habit lookup should load category and streak in the same query")
+    void shouldLoadSingleHabitInOneQuery() {
+        Habit habit = habits.get(7);
+
+        HabitResponseDTO response = habitService.getHabitResponseById(habit.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(response.getCategoryName()).isEqualTo("Category 2");
+        assertThat(response.getCurrentStreak()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Listing all habits of a user should not query per habit")
+    void shouldListAllHabitsInOneQuery() {
+        List<HabitResponseDTO> all = habitService.getHabitsResponseByUserId(userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(all).hasSize(HABITS);
+    }
+
+    @Test
+    @DisplayName("Creating a habit should insert habit and streak without selecting them first")
+    void shouldCreateHabitWithoutMergeSelects() {
+        HabitResponseDTO created = habitService.createHabit(HabitRequestDTO.builder()
+                .userId(userId)
+                .name("Evening walk")
+                .frequency("DAILY")
+                .build());
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(created.getId().version()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Keyset slices should cover every habit once, newest first, with one query per slice")
+    void shouldWalkAllHabitsByCursor() {
+        List<HabitResponseDTO> walked = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            SlicedResponseDTO<HabitResponseDTO> slice = habitService.getHabitsByUserIdAfterCursor(userId, cursor, 10);
+            walked.addAll(slice.getContent());
+            cursor = slice.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(slices);
+        assertThat(walked).extracting(HabitResponseDTO::getId)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(habits.stream().map(Habit::getId).toList());
+        // Ties on createdAt are broken by id in the database's UUID order, which Java's compareTo does not share
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(HabitResponseDTO::getCreatedAt).reversed());
+        assertThat(walked).allSatisfy(habit -> assertThat(habit.getCategoryName()).startsWith("Category "));
+    }
+}
@@ -10,6 +10,10 @@ import com.habittracker.habit.model.HabitStreak;
 import com.habittracker.habit.repository.CategoryRepository;
 import com.habittracker.habit.repository.HabitRepository;
 import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.repository.projection.HabitSummary;
+import com.habittracker.habit.service.AnalyticsResultCache;
+import com.habittracker.habit.service.CompiledScheduleCache;
+import com.habittracker.habit.service.LeaderboardService;
 import com.habittracker.habit.service.ScheduleValidationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -48,6 +52,15 @@ class HabitServiceImplTest {
     @Mock
     private HabitMapper habitMapper;
 
+    @Mock
+    private CompiledScheduleCache compiledScheduleCache;
+
+    @Mock
+    private AnalyticsResultCache analyticsResultCache;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
     @InjectMocks
     private HabitServiceImpl habitService;
 
@@ -292,13 +305,14 @@ class HabitServiceImplTest {
             
             Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
             
-            List<Habit> habits = Arrays.asList(testHabit);
-            Page<Habit> habitPage = new PageImpl<>(habits, pageable, habits.size());
+            HabitSummary summary = mock(HabitSummary.class);
+            List<HabitSummary> habits = Arrays.asList(summary);
+            Page<HabitSummary> habitPage = new PageImpl<>(habits, pageable, habits.size());
             
-            given(habitRepository.findAllByUserIdPaged(userId, pageable))
+            given(habitRepository.findSummariesByUserId(userId, pageable))
                     .willReturn(habitPage);
             
-            given(habitMapper.toResponseDTO(testHabit))
+            given(habitMapper.toResponseDTO(summary))
                     .willReturn(testHabitResponseDTO);
 
             // Act
@@ -393,6 +407,63 @@ class HabitServiceImplTest {
                 .isInstanceOf(InvalidRequestException.class)
                 .hasMessageContaining("Sort parameter must be one of:");
         }
+
+        @Test
+        @DisplayName("Should return next cursor when more habits follow the slice")
+        void shouldReturnNextCursorWhenMoreHabitsFollow() {
+            // Arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 3, 4, 7, 30);
+            UUID lastId = UUID.randomUUID();
+            HabitSummary first = mock(HabitSummary.class);
+            HabitSummary last = mock(HabitSummary.class);
+            given(last.getCreatedAt()).willReturn(createdAt);
+            given(last.getId()).willReturn(lastId);
+            
+            given(habitRepository.findLatestSummariesByUserId(userId, PageRequest.of(0, 3)))
+                    .willReturn(Arrays.asList(first, last, mock(HabitSummary.class)));
+            given(habitMapper.toResponseDTO(any(HabitSummary.class)))
+                    .willReturn(testHabitResponseDTO);
+
+            // Act
+            SlicedResponseDTO<HabitResponseDTO> result = habitService.getHabitsByUserIdAfterCursor(userId, null, 2);
+
+            // Assert
+            assertThat(result.getContent()).hasSize(2);
+            assertThat(result.isHasNext()).isTrue();
+            assertThat(result.getNextCursor()).isEqualTo(createdAt + "," + lastId);
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor position")
+        void shouldContinueAfterCursorPosition() {
+            // Arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 3, 4, 7, 30, 15, 123_000_000);
+            UUID id = UUID.randomUUID();
+            
+            given(habitRepository.findSummariesByUserIdBefore(userId, createdAt, id, PageRequest.of(0, 11)))
+                    .willReturn(List.of());
+
+            // Act
+            SlicedResponseDTO<HabitResponseDTO> result =
+                    habitService.getHabitsByUserIdAfterCursor(userId, createdAt + "," + id, 10);
+
+            // Assert
+            assertThat(result.getContent()).isEmpty();
+            assertThat(result.isHasNext()).isFalse();
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursors")
+        void shouldRejectMalformedCursor() {
+            // Act & Assert
+            assertThatThrownBy(() -> habitService.getHabitsByUserIdAfterCursor(userId, "not-a-cursor", 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+            assertThatThrownBy(() -> habitService.getHabitsByUserIdAfterCursor(userId, null, 101))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Page size must be between 1 and 100");
+        }
     }
 
     @Nested
@@ -548,6 +619,7 @@ class HabitServiceImplTest {
             habitService.updateHabit(habitId, testHabitUpdateDTO);
 
             // Assert
+            verify(compiledScheduleCache).invalidate(habitId);
             verify(scheduleValidationService).calculateNextDueDate(any(Habit.class), any(LocalDateTime.class));
             verify(habitStreakRepository).save(habitStreakCaptor.capture());
             
@@ -577,6 +649,7 @@ class HabitServiceImplTest {
             assertThat(result.getMessage()).contains("successfully deleted");
             
             verify(habitRepository).delete(testHabit);
+            verify(analyticsResultCache).invalidate(testHabit.getUserId());
         }
         
         @Test
@@ -0,0 +1,71 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.repository.HabitDailyStatRepository;
+import com.habittracker.habit.repository.HabitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class HabitStatsRollupServiceImplTest {
+
+    private final HabitDailyStatRepository dailyStatRepository = mock(HabitDailyStatRepository.class);
+    private final HabitRepository habitRepository = mock(HabitRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private HabitStatsRollupServiceImpl rollupService;
+
+    @BeforeEach
+    void setUp() {
+        given(transactionManager.getTransaction(any())).willReturn(mock(TransactionStatus.class));
+        rollupService = new HabitStatsRollupServiceImpl(dailyStatRepository, habitRepository, transactionManager);
+        ReflectionTestUtils.setField(rollupService, "backfillChunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Backfill should delete each chunk's rollup rows before recounting them, in one transaction per chunk")
+    void shouldDeleteChunkBeforeRebuilding() {
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        given(habitRepository.findIdsAfter(any(UUID.class), any(Pageable.class))).willReturn(first, second, List.of());
+        given(dailyStatRepository.rebuildForHabits(first)).willReturn(5);
+        given(dailyStatRepository.rebuildForHabits(second)).willReturn(3);
+
+        int written = rollupService.backfillRollup();
+
+        assertThat(written).isEqualTo(8);
+        InOrder inOrder = inOrder(transactionManager, dailyStatRepository);
+        for (List<UUID> chunk : List.of(first, second)) {
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(dailyStatRepository).deleteForHabits(chunk);
+            inOrder.verify(dailyStatRepository).rebuildForHabits(chunk);
+            inOrder.verify(transactionManager).commit(any());
+        }
+    }
+
+    @Test
+    @DisplayName("A failed rebuild should roll back the chunk's delete")
+    void shouldRollBackDeleteWhenRebuildFails() {
+        List<UUID> chunk = List.of(UUID.randomUUID());
+        given(habitRepository.findIdsAfter(any(UUID.class), any(Pageable.class))).willReturn(chunk);
+        given(dailyStatRepository.rebuildForHabits(chunk)).willThrow(new IllegalStateException("connection lost"));
+
+        assertThatThrownBy(() -> rollupService.backfillRollup()).isInstanceOf(IllegalStateException.class);
+
+        verify(dailyStatRepository).deleteForHabits(chunk);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,191 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.config.MutableClock;
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.TrackingRecordRequestDTO;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.service.HabitStatsRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that the completion counters seeded on the first check-in and advanced by later ones
+ * agree with what the reconciliation job recounts, and that reconciliation only writes the
+ * counter columns of a streak nobody has touched since it was read.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({
+        HabitStreakServiceImpl.class,
+        HabitTrackingServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitStreakServiceImplTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private static final MutableClock CLOCK = new MutableClock(ZoneId.systemDefault());
+
+    @TestConfiguration
+    static class ClockTestConfig {
+
+        @Bean
+        Clock clock() {
+            return CLOCK;
+        }
+    }
+
+    @MockBean
+    private HabitStatsRollupService statsRollupService;
+
+    @Autowired
+    private HabitStreakServiceImpl streakService;
+
+    @Autowired
+    private HabitTrackingServiceImpl trackingService;
+
+    @Autowired
+    private HabitStreakRepository streakRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Habit habit;
+
+    @BeforeEach
+    void setUp() {
+        habit = entityManager.persist(Habit.builder()
+                .userId(UUID.randomUUID()).name("Read").frequency("DAILY").priority(1).timeZone("UTC").build());
+        // created_at is stamped on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE habits SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, CREATED_AT)
+                .setParameter(2, habit.getId())
+                .executeUpdate();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Seeded and incrementally advanced counters should match what reconciliation recounts")
+    void shouldAgreeWithReconciliation() {
+        // Imported history, one record of it from before the habit was created
+        persistRecord(LocalDateTime.of(2024, 2, 28, 7, 0));
+        persistRecord(LocalDateTime.of(2024, 3, 2, 7, 0));
+
+        CLOCK.set(LocalDateTime.of(2024, 3, 3, 9, 0));
+        track(null);
+        CLOCK.set(LocalDateTime.of(2024, 3, 5, 20, 0));
+        track(LocalDateTime.of(2024, 3, 1, 7, 0));
+        CLOCK.set(LocalDateTime.of(2024, 3, 6, 12, 0));
+        // Future-dated, then a batch of two
+        track(LocalDateTime.of(2024, 3, 9, 7, 0));
+        trackingService.trackHabitCompletions(habit.getUserId(), new BatchTrackingRequestDTO(List.of(
+                TrackingRecordRequestDTO.builder().habitId(habit.getId()).build(),
+                TrackingRecordRequestDTO.builder().habitId(habit.getId())
+                        .completedAt(LocalDateTime.of(2024, 3, 4, 7, 0)).build())));
+        entityManager.flush();
+        entityManager.clear();
+
+        HabitStreak advanced = streak();
+        assertThat(advanced.getTotalCompletions()).isEqualTo(7);
+        assertThat(advanced.getExpectedCompletions()).isEqualTo(6);
+        assertThat(advanced.getExpectedAsOf()).isEqualTo(LocalDateTime.of(2024, 3, 6, 12, 0));
+
+        // The nightly run a day later finds nothing to repair
+        CLOCK.set(LocalDateTime.of(2024, 3, 7, 3, 30));
+        assertThat(streakService.reconcileCompletionCounters(List.of(habit.getId()))).isZero();
+        entityManager.flush();
+        entityManager.clear();
+
+        HabitStreak reconciled = streak();
+        assertThat(reconciled.getTotalCompletions()).isEqualTo(7);
+        assertThat(reconciled.getExpectedCompletions()).isEqualTo(6);
+        assertThat(reconciled.getExpectedAsOf()).isEqualTo(LocalDateTime.of(2024, 3, 6, 12, 0));
+    }
+
+    @Test
+    @DisplayName("Reconciliation should repair only the counter columns of a drifted streak")
+    void shouldRepairOnlyCounterColumns() {
+        CLOCK.set(LocalDateTime.of(2024, 3, 3, 9, 0));
+        track(null);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE habit_streaks SET total_completions = 40, current_streak = 7 WHERE habit_id = ?1")
+                .setParameter(1, habit.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        CLOCK.set(LocalDateTime.of(2024, 3, 4, 3, 30));
+        assertThat(streakService.reconcileCompletionCounters(List.of(habit.getId()))).isEqualTo(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        HabitStreak repaired = streak();
+        assertThat(repaired.getTotalCompletions()).isEqualTo(1);
+        assertThat(repaired.getExpectedCompletions()).isEqualTo(4);
+        assertThat(repaired.getExpectedAsOf()).isEqualTo(LocalDateTime.of(2024, 3, 4, 3, 30));
+        assertThat(repaired.getCurrentStreak()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("A counter repair should be skipped once a check-in has moved the watermark")
+    void shouldSkipRepairAfterConcurrentCheckIn() {
+        CLOCK.set(LocalDateTime.of(2024, 3, 3, 9, 0));
+        track(null);
+        LocalDateTime readAsOf = LocalDateTime.of(2024, 3, 2, 9, 0);
+
+        int updated = streakRepository.updateCompletionCounters(
+                habit.getId(), 0, 0, LocalDateTime.of(2024, 3, 4, 3, 30), 0.0, readAsOf);
+        entityManager.clear();
+
+        assertThat(updated).isZero();
+        assertThat(streak().getTotalCompletions()).isEqualTo(1);
+    }
+
+    private void track(LocalDateTime completedAt) {
+        trackingService.trackHabitCompletion(habit.getId(), HabitTrackingRecord.builder().completedAt(completedAt).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistRecord(LocalDateTime completedAt) {
+        entityManager.persist(HabitTrackingRecord.builder()
+                .habit(entityManager.find(Habit.class, habit.getId()))
+                .userId(habit.getUserId())
+                .completedAt(completedAt)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private HabitStreak streak() {
+        return entityManager.find(HabitStreak.class, habit.getId());
+    }
+}
@@ -0,0 +1,221 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.dto.BatchTrackingRequestDTO;
+import com.habittracker.habit.dto.BatchTrackingResponseDTO;
+import com.habittracker.habit.dto.TrackingRecordRequestDTO;
+import com.habittracker.habit.exception.ForbiddenException;
+import com.habittracker.habit.exception.ResourceNotFoundException;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import com.habittracker.habit.service.HabitStatsRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willThrow;
+
+/**
+ * Runs batches through the service against H2 outside a test transaction, so each batch commits
+ * or rolls back on its own like a request would. The daily-stats rollup upserts with PostgreSQL
+ * syntax and is mocked out.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        HabitTrackingServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitTrackingServiceImplBatchTest {
+
+    // A Wednesday; the server clock and every habit are on UTC
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 27, 12, 0);
+
+    @TestConfiguration
+    static class FixedClockConfig {
+
+        @Bean
+        Clock clock() {
+            return Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        }
+    }
+
+    @MockBean
+    private HabitStatsRollupService statsRollupService;
+
+    @Autowired
+    private HabitTrackingServiceImpl trackingService;
+
+    @Autowired
+    private HabitTrackingRecordRepository trackingRecordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private UUID userId;
+    private Habit daily;
+    private Habit weekly;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userId = UUID.randomUUID();
+        daily = persistHabit(userId, "DAILY", null, LocalDateTime.of(2024, 3, 20, 8, 0));
+        weekly = persistHabit(userId, "X_TIMES_PER_WEEK", "{\"times\":3}", LocalDateTime.of(2024, 3, 4, 8, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("habit_tracking_records", "habit_streaks", "habits")) {
+                entityManager.getEntityManager().createNativeQuery("DELETE FROM " + table).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Shuffled completions should be grouped by habit and replayed oldest first")
+    void shouldReplayEachHabitInTimestampOrder() {
+        BatchTrackingResponseDTO response = trackingService.trackHabitCompletions(userId, batch(
+                completion(daily, LocalDateTime.of(2024, 3, 26, 7, 0)),
+                completion(weekly, LocalDateTime.of(2024, 3, 26, 7, 0)),
+                completion(daily, LocalDateTime.of(2024, 3, 22, 7, 0)),
+                completion(weekly, LocalDateTime.of(2024, 3, 19, 7, 0)),
+                completion(daily, LocalDateTime.of(2024, 3, 23, 7, 0)),
+                completion(daily, LocalDateTime.of(2024, 3, 24, 7, 0)),
+                completion(weekly, LocalDateTime.of(2024, 3, 25, 7, 0))));
+
+        assertThat(response.getRecordsTracked()).isEqualTo(7);
+        assertThat(response.getHabitsUpdated()).isEqualTo(2);
+        assertThat(response.getRecordIds()).hasSize(7).doesNotHaveDuplicates();
+
+        // Three days in a row, then the 25th missed: in arrival order the 26th would come first
+        // and the streak would run to four
+        HabitStreak dailyStreak = streak(daily);
+        assertThat(dailyStreak.getCurrentStreak()).isEqualTo(1);
+        assertThat(dailyStreak.getBestStreak()).isEqualTo(3);
+        assertThat(dailyStreak.getLastCompletedAt()).isEqualTo(LocalDateTime.of(2024, 3, 26, 7, 0));
+        assertThat(dailyStreak.getNextDueAt()).isEqualTo(LocalDateTime.of(2024, 3, 28, 0, 0));
+        // Eight days from the 20th to the 27th
+        assertThat(dailyStreak.getTotalCompletions()).isEqualTo(4);
+        assertThat(dailyStreak.getExpectedCompletions()).isEqualTo(8);
+        assertThat(dailyStreak.getCompletionRate()).isEqualTo(0.5);
+        assertThat(dailyStreak.getExpectedAsOf()).isEqualTo(NOW);
+
+        HabitStreak weeklyStreak = streak(weekly);
+        assertThat(weeklyStreak.getPeriodStart()).isEqualTo(LocalDate.of(2024, 3, 25));
+        assertThat(weeklyStreak.getPeriodCompletions()).isEqualTo(2);
+        assertThat(weeklyStreak.getTotalCompletions()).isEqualTo(3);
+        assertThat(weeklyStreak.getLastCompletedAt()).isEqualTo(LocalDateTime.of(2024, 3, 26, 7, 0));
+    }
+
+    @Test
+    @DisplayName("A batch naming an unknown habit should be rejected without writing anything")
+    void shouldRejectUnknownHabit() {
+        UUID unknown = UUID.randomUUID();
+        BatchTrackingRequestDTO request = batch(
+                completion(daily, LocalDateTime.of(2024, 3, 26, 7, 0)),
+                TrackingRecordRequestDTO.builder().habitId(unknown).build());
+
+        assertThatThrownBy(() -> trackingService.trackHabitCompletions(userId, request))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(unknown.toString());
+
+        assertThat(trackingRecordRepository.countByHabitId(daily.getId())).isZero();
+        assertThat(streak(daily)).isNull();
+    }
+
+    @Test
+    @DisplayName("A batch naming another user's habit should be rejected without writing anything")
+    void shouldRejectForeignHabit() {
+        Habit foreign = persistHabit(UUID.randomUUID(), "DAILY", null, LocalDateTime.of(2024, 3, 20, 8, 0));
+        BatchTrackingRequestDTO request = batch(
+                completion(daily, LocalDateTime.of(2024, 3, 26, 7, 0)),
+                completion(foreign, LocalDateTime.of(2024, 3, 26, 7, 0)));
+
+        assertThatThrownBy(() -> trackingService.trackHabitCompletions(userId, request))
+                .isInstanceOf(ForbiddenException.class);
+
+        assertThat(trackingRecordRepository.countByHabitId(daily.getId())).isZero();
+        assertThat(trackingRecordRepository.countByHabitId(foreign.getId())).isZero();
+        assertThat(streak(daily)).isNull();
+    }
+
+    @Test
+    @DisplayName("A failure after the records are inserted should roll back the whole batch")
+    void shouldRollBackWholeBatchOnFailure() {
+        willThrow(new IllegalStateException("rollup unavailable")).given(statsRollupService).recordCompletions(anyList());
+
+        assertThatThrownBy(() -> trackingService.trackHabitCompletions(userId, batch(
+                completion(daily, LocalDateTime.of(2024, 3, 26, 7, 0)),
+                completion(weekly, LocalDateTime.of(2024, 3, 26, 7, 0)))))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(trackingRecordRepository.countByHabitId(daily.getId())).isZero();
+        assertThat(trackingRecordRepository.countByHabitId(weekly.getId())).isZero();
+        assertThat(streak(daily)).isNull();
+        assertThat(streak(weekly)).isNull();
+    }
+
+    private Habit persistHabit(UUID owner, String frequency, String schedule, LocalDateTime createdAt) {
+        return transactionTemplate.execute(status -> {
+            Habit habit = entityManager.persist(Habit.builder()
+                    .userId(owner).name(frequency).frequency(frequency).schedule(schedule)
+                    .priority(1).timeZone("UTC").build());
+            // created_at is stamped on insert and not updatable through the entity
+            entityManager.flush();
+            entityManager.getEntityManager()
+                    .createNativeQuery("UPDATE habits SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, createdAt)
+                    .setParameter(2, habit.getId())
+                    .executeUpdate();
+            return habit;
+        });
+    }
+
+    private HabitStreak streak(Habit habit) {
+        return transactionTemplate.execute(status -> entityManager.find(HabitStreak.class, habit.getId()));
+    }
+
+    private static TrackingRecordRequestDTO completion(Habit habit, LocalDateTime completedAt) {
+        return TrackingRecordRequestDTO.builder().habitId(habit.getId()).completedAt(completedAt).build();
+    }
+
+    private static BatchTrackingRequestDTO batch(TrackingRecordRequestDTO... completions) {
+        return BatchTrackingRequestDTO.builder().completions(List.of(completions)).build();
+    }
+}
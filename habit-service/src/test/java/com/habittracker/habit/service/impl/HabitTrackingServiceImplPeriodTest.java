@@ -0,0 +1,129 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import com.habittracker.habit.service.HabitStatsRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks the week counter of an X-times-per-week habit against a fixed clock: it rolls over to
+ * the period of the latest completion, however many periods were skipped, and ignores completions
+ * backdated into an earlier one. The daily-stats rollup upserts with PostgreSQL syntax and is
+ * mocked out.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({
+        HabitTrackingServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitTrackingServiceImplPeriodTest {
+
+    // A Wednesday, three weeks after the habit was created
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 27, 12, 0);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 4, 8, 0);
+
+    @TestConfiguration
+    static class FixedClockConfig {
+
+        @Bean
+        Clock clock() {
+            ZoneId zone = ZoneId.systemDefault();
+            return Clock.fixed(NOW.atZone(zone).toInstant(), zone);
+        }
+    }
+
+    @MockBean
+    private HabitStatsRollupService statsRollupService;
+
+    @Autowired
+    private HabitTrackingServiceImpl trackingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Habit habit;
+
+    @BeforeEach
+    void setUp() {
+        habit = entityManager.persist(Habit.builder()
+                .userId(UUID.randomUUID()).name("Gym").frequency("X_TIMES_PER_WEEK").schedule("{\"times\":3}")
+                .priority(1).timeZone("UTC").build());
+        // created_at is stamped on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE habits SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, CREATED_AT)
+                .setParameter(2, habit.getId())
+                .executeUpdate();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("A completion weeks later should roll the week counter over to the current week")
+    void shouldRollOverAcrossSeveralPeriods() {
+        track(LocalDateTime.of(2024, 3, 5, 7, 0));
+        track(LocalDateTime.of(2024, 3, 6, 7, 0));
+        assertThat(streak().getPeriodStart()).isEqualTo(LocalDate.of(2024, 3, 4));
+        assertThat(streak().getPeriodCompletions()).isEqualTo(2);
+
+        HabitTrackingRecord record = track(null);
+
+        assertThat(record.getCompletedAt()).isEqualTo(NOW);
+        assertThat(streak().getPeriodStart()).isEqualTo(LocalDate.of(2024, 3, 25));
+        assertThat(streak().getPeriodCompletions()).isEqualTo(1);
+        assertThat(streak().getExpectedAsOf()).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("A completion backdated into an earlier week should leave the current week's counter alone")
+    void shouldIgnoreBackdatedCompletion() {
+        track(LocalDateTime.of(2024, 3, 26, 7, 0));
+        track(null);
+
+        track(LocalDateTime.of(2024, 3, 12, 7, 0));
+
+        HabitStreak streak = streak();
+        assertThat(streak.getPeriodStart()).isEqualTo(LocalDate.of(2024, 3, 25));
+        assertThat(streak.getPeriodCompletions()).isEqualTo(2);
+        assertThat(streak.getTotalCompletions()).isEqualTo(3);
+    }
+
+    private HabitTrackingRecord track(LocalDateTime completedAt) {
+        HabitTrackingRecord record = trackingService.trackHabitCompletion(habit.getId(),
+                HabitTrackingRecord.builder().completedAt(completedAt).build());
+        entityManager.flush();
+        entityManager.clear();
+        return record;
+    }
+
+    private HabitStreak streak() {
+        return entityManager.find(HabitStreak.class, habit.getId());
+    }
+}
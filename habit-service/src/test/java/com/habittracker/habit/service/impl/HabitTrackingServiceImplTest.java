@@ -0,0 +1,145 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.config.ClockConfig;
+import com.habittracker.habit.dto.TrackingRecordResponseDTO;
+import com.habittracker.habit.exception.InvalidRequestException;
+import com.habittracker.habit.exception.ResourceNotFoundException;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitTrackingRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that the keyset tracking history walks every record exactly once, newest first, with
+ * a single statement per slice.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "application.tracking.history.default-page-size=20",
+        "application.tracking.history.max-page-size=50"
+})
+@ActiveProfiles("test")
+@Import({
+        HabitTrackingServiceImpl.class,
+        ClockConfig.class,
+        HabitStatsRollupServiceImpl.class,
+        ScheduleValidationServiceImpl.class,
+        CompiledScheduleCacheImpl.class,
+        AnalyticsResultCacheImpl.class,
+        LeaderboardServiceImpl.class,
+        SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class
+})
+class HabitTrackingServiceImplTest {
+
+    private static final int RECORDS = 25;
+
+    @Autowired
+    private HabitTrackingServiceImpl trackingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Habit habit;
+
+    private List<UUID> recordIds;
+
+    @BeforeEach
+    void setUp() {
+        UUID userId = UUID.randomUUID();
+        habit = entityManager.persist(Habit.builder()
+                .userId(userId).name("Reading").frequency("DAILY").priority(1).timeZone("UTC")
+                .createdAt(LocalDateTime.now().minusMonths(1)).build());
+
+        recordIds = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 3, 4, 7, 0);
+        for (int i = 0; i < RECORDS; i++) {
+            // Pairs of records share a timestamp so slices must break ties by id
+            HabitTrackingRecord record = entityManager.persist(HabitTrackingRecord.builder()
+                    .habit(habit)
+                    .userId(userId)
+                    .completedAt(start.plusDays(i / 2))
+                    .moodRating(1 + i % 5)
+                    .build());
+            recordIds.add(record.getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("History slices should cover every record once, newest first, with one query per slice")
+    void shouldWalkHistoryByCursor() {
+        List<TrackingRecordResponseDTO> walked = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            cursor = trackingService.streamTrackingHistory(habit.getId(), cursor, 10, walked::add);
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(slices);
+        assertThat(walked).extracting(TrackingRecordResponseDTO::getId)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(recordIds);
+        assertThat(walked).isSortedAccordingTo(
+                Comparator.comparing(TrackingRecordResponseDTO::getCompletedAt).reversed());
+        assertThat(walked.get(0).getCompletedAt()).isEqualTo(LocalDateTime.of(2024, 3, 16, 7, 0));
+    }
+
+    @Test
+    @DisplayName("The last full slice should not hand out a cursor to an empty one")
+    void shouldEndOnExactlyFullSlice() {
+        List<TrackingRecordResponseDTO> walked = new ArrayList<>();
+
+        String cursor = trackingService.streamTrackingHistory(habit.getId(), null, RECORDS, walked::add);
+
+        assertThat(cursor).isNull();
+        assertThat(walked).hasSize(RECORDS);
+    }
+
+    @Test
+    @DisplayName("History requests should be validated before streaming")
+    void shouldValidateHistoryRequest() {
+        assertThat(trackingService.prepareTrackingHistory(habit.getId(), null, null)).isEqualTo(20);
+        assertThat(trackingService.prepareTrackingHistory(habit.getId(), null, 50)).isEqualTo(50);
+
+        assertThatThrownBy(() -> trackingService.prepareTrackingHistory(habit.getId(), null, 51))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("between 1 and 50");
+        assertThatThrownBy(() -> trackingService.prepareTrackingHistory(habit.getId(), "2024-03-04", 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> trackingService.prepareTrackingHistory(UUID.randomUUID(), null, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.model.LeaderboardMetric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks the ranked leaderboard index against a fully sorted list after random updates,
+ * removals and a snapshot round trip.
+ */
+class LeaderboardIndexTest {
+
+    private static final int USERS = 500;
+    private static final int OPERATIONS = 5_000;
+
+    private Random random;
+    private LeaderboardIndex index;
+    private Map<UUID, LeaderboardIndex.Scores> expected;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(20240715L);
+        index = new LeaderboardIndex();
+        expected = new HashMap<>();
+    }
+
+    @Test
+    @DisplayName("Top N and ranks should match a sorted list after random updates and removals")
+    void shouldMatchSortedListAfterRandomOperations() {
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(UUID.randomUUID());
+        }
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            UUID userId = users.get(random.nextInt(USERS));
+            if (random.nextInt(10) == 0) {
+                index.remove(userId);
+                expected.remove(userId);
+            } else {
+                // Narrow ranges so ties are common
+                LeaderboardIndex.Scores scores = new LeaderboardIndex.Scores(
+                        random.nextInt(20), random.nextInt(40), random.nextInt(5) / 4.0);
+                index.put(userId, scores);
+                expected.put(userId, scores);
+            }
+        }
+
+        assertMatchesExpected(index);
+    }
+
+    @Test
+    @DisplayName("A restored snapshot should rank exactly like the index it was taken from")
+    void shouldRestoreSnapshot() throws IOException {
+        for (int i = 0; i < USERS; i++) {
+            LeaderboardIndex.Scores scores = new LeaderboardIndex.Scores(
+                    random.nextInt(100), random.nextInt(200), random.nextDouble());
+            UUID userId = UUID.randomUUID();
+            index.put(userId, scores);
+            expected.put(userId, scores);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        LeaderboardIndex restored = LeaderboardIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.size()).isEqualTo(USERS);
+        assertMatchesExpected(restored);
+    }
+
+    @Test
+    @DisplayName("Reading something other than a snapshot should fail")
+    void shouldRejectForeignSnapshot() {
+        byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8};
+
+        assertThatThrownBy(() -> LeaderboardIndex.readFrom(new DataInputStream(new ByteArrayInputStream(garbage))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private void assertMatchesExpected(LeaderboardIndex actual) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            List<UUID> sorted = expected.keySet().stream()
+                    .sorted(Comparator.<UUID>comparingDouble(userId -> expected.get(userId).get(metric)).reversed()
+                            .thenComparing(Comparator.naturalOrder()))
+                    .toList();
+
+            assertThat(actual.top(metric, 25)).extracting(RankedIndex.Entry::userId)
+                    .containsExactlyElementsOf(sorted.subList(0, Math.min(25, sorted.size())));
+            assertThat(actual.top(metric, Integer.MAX_VALUE)).hasSize(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                assertThat(actual.rankOf(metric, sorted.get(i))).as("rank by %s", metric).isEqualTo(i + 1);
+            }
+        }
+    }
+}
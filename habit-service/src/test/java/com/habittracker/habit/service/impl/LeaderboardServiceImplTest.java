@@ -0,0 +1,99 @@
+package com.habittracker.habit.service.impl;
+
+import com.habittracker.habit.model.LeaderboardMetric;
+import com.habittracker.habit.repository.HabitStreakRepository;
+import com.habittracker.habit.repository.projection.UserStreakScores;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceImplTest {
+
+    @Mock
+    private HabitStreakRepository streakRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LeaderboardServiceImpl leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leaderboardService = new LeaderboardServiceImpl(streakRepository, meterRegistry);
+        ReflectionTestUtils.setField(leaderboardService, "snapshotPath", tempDir.resolve("leaderboard.snapshot").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A refresh that fails after commit is logged and counted instead of reaching the caller")
+    void refreshFailureAfterCommitIsSwallowed() {
+        given(streakRepository.findScoresByUserIdIn(anyCollection()))
+                .willThrow(new QueryTimeoutException("statement timeout"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        leaderboardService.refreshUsers(List.of(UUID.randomUUID()));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        assertThatCode(() -> synchronizations.forEach(TransactionSynchronization::afterCommit))
+                .doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("habit.leaderboard.refresh.failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A written snapshot restores the same scores")
+    void snapshotRoundTrip() {
+        UUID userId = UUID.randomUUID();
+        UserStreakScores scores = scores(userId, 7, 21, 0.75);
+        given(streakRepository.findScoresByUserIdIn(anyCollection())).willReturn(List.of(scores));
+        leaderboardService.refreshUsers(List.of(userId));
+
+        leaderboardService.writeSnapshot();
+        LeaderboardServiceImpl restored = new LeaderboardServiceImpl(streakRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(restored, "snapshotPath", tempDir.resolve("leaderboard.snapshot").toString());
+
+        assertThat(restored.restoreSnapshot()).isTrue();
+        assertThat(restored.getRank(LeaderboardMetric.BEST_STREAK, userId))
+                .hasValueSatisfying(entry -> {
+                    assertThat(entry.getRank()).isEqualTo(1);
+                    assertThat(entry.getScore()).isEqualTo(21.0);
+                });
+        assertThat(tempDir.resolve("leaderboard.snapshot.tmp")).doesNotExist();
+    }
+
+    private static UserStreakScores scores(UUID userId, int currentStreak, int bestStreak, double completionRate) {
+        UserStreakScores scores = mock(UserStreakScores.class);
+        given(scores.getUserId()).willReturn(userId);
+        given(scores.getCurrentStreak()).willReturn(currentStreak);
+        given(scores.getBestStreak()).willReturn(bestStreak);
+        given(scores.getCompletionRate()).willReturn(completionRate);
+        return scores;
+    }
+}
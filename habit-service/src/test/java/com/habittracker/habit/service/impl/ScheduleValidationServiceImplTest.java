@@ -0,0 +1,277 @@
+package com.habittracker.habit.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habittracker.habit.model.Habit;
+import com.habittracker.habit.model.HabitStreak;
+import com.habittracker.habit.repository.HabitTrackingRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks the closed-form required-completion counts against a day-by-day walk over randomly
+ * generated schedules and ranges.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScheduleValidationServiceImplTest {
+
+    private static final int CASES = 2_000;
+    private static final String[] FREQUENCIES = {
+            "DAILY", "WEEKLY", "MONTHLY", "YEARLY", "X_TIMES_PER_WEEK", "X_TIMES_PER_MONTH", "SPECIFIC_DAYS", "CUSTOM"
+    };
+
+    @Mock
+    private HabitTrackingRecordRepository trackingRecordRepository;
+
+    private ScheduleValidationServiceImpl scheduleService;
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        scheduleService = new ScheduleValidationServiceImpl(
+                trackingRecordRepository, new CompiledScheduleCacheImpl(new ObjectMapper(), 1_000),
+                Clock.systemUTC());
+        random = new Random(20240601L);
+    }
+
+    @Nested
+    @DisplayName("Required completions since a point in time")
+    class RequiredCompletionsSinceTests {
+
+        @Test
+        @DisplayName("Should match a day-by-day walk for every frequency")
+        void shouldMatchDayWalkForEveryFrequency() {
+            for (int i = 0; i < CASES; i++) {
+                Habit habit = randomHabit(FREQUENCIES[i % FREQUENCIES.length]);
+                LocalDateTime since = randomDateTime(habit.getCreatedAt().minusDays(30), 800);
+                LocalDateTime until = since.plusMinutes(random.nextInt(60 * 24 * 1500));
+                
+                assertThat(scheduleService.calculateRequiredCompletionsSince(habit, since, until))
+                        .as("%s %s since %s until %s", habit.getFrequency(), habit.getSchedule(), since, until)
+                        .isEqualTo(walkRequiredSince(habit, since.toLocalDate(), until.toLocalDate()));
+            }
+        }
+
+        @Test
+        @DisplayName("Should be additive over adjacent ranges")
+        void shouldBeAdditiveOverAdjacentRanges() {
+            for (int i = 0; i < CASES; i++) {
+                Habit habit = randomHabit(FREQUENCIES[i % FREQUENCIES.length]);
+                LocalDateTime since = randomDateTime(habit.getCreatedAt(), 400);
+                LocalDateTime middle = since.plusHours(random.nextInt(24 * 400));
+                LocalDateTime until = middle.plusHours(random.nextInt(24 * 400));
+                
+                assertThat(scheduleService.calculateRequiredCompletionsSince(habit, since, middle)
+                        + scheduleService.calculateRequiredCompletionsSince(habit, middle, until))
+                        .isEqualTo(scheduleService.calculateRequiredCompletionsSince(habit, since, until));
+            }
+        }
+
+        @Test
+        @DisplayName("Should return zero for empty or inverted ranges")
+        void shouldReturnZeroForEmptyRanges() {
+            Habit habit = randomHabit("SPECIFIC_DAYS");
+            LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+            
+            assertThat(scheduleService.calculateRequiredCompletionsSince(habit, now, now)).isZero();
+            assertThat(scheduleService.calculateRequiredCompletionsSince(habit, now, now.minusDays(3))).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Required completions for a period")
+    class RequiredCompletionsForPeriodTests {
+
+        @Test
+        @DisplayName("Should match a day-by-day walk for specific days")
+        void shouldMatchDayWalkForSpecificDays() {
+            for (int i = 0; i < CASES; i++) {
+                Habit habit = randomHabit("SPECIFIC_DAYS");
+                LocalDateTime start = randomDateTime(LocalDateTime.of(2020, 1, 1, 0, 0), 2000);
+                LocalDateTime end = start.plusMinutes(random.nextInt(60 * 24 * 1500));
+                
+                Set<DayOfWeek> days = scheduledDays(habit);
+                int expected = 0;
+                for (LocalDateTime current = start; !current.isAfter(end); current = current.plusDays(1)) {
+                    if (days.contains(current.getDayOfWeek())) {
+                        expected++;
+                    }
+                }
+                
+                assertThat(scheduleService.calculateRequiredCompletionsForPeriod(habit, start, end))
+                        .as("%s from %s to %s", habit.getSchedule(), start, end)
+                        .isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Should match stepping through custom intervals")
+        void shouldMatchSteppingThroughCustomIntervals() {
+            for (int i = 0; i < CASES; i++) {
+                Habit habit = randomHabit("CUSTOM");
+                int interval = intervalDays(habit);
+                LocalDateTime start = randomDateTime(LocalDateTime.of(2020, 1, 1, 0, 0), 2000);
+                LocalDateTime end = start.plusMinutes(random.nextInt(60 * 24 * 1500));
+                
+                int expected = 0;
+                for (LocalDateTime current = start; !current.isAfter(end); current = current.plusDays(interval)) {
+                    expected++;
+                }
+                
+                assertThat(scheduleService.calculateRequiredCompletionsForPeriod(habit, start, end))
+                        .as("every %d days from %s to %s", interval, start, end)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    // Oracle: walks every day in (since, until] and counts the periods that start on it
+    @Nested
+    @DisplayName("Next due date")
+    class NextDueDateTests {
+
+        // Stored timestamps are on the server clock, which runs in UTC here
+        private final LocalDateTime completedAt = LocalDateTime.of(2024, 3, 15, 20, 0);
+
+        @Test
+        @DisplayName("Should end at local midnight after the due day in a zone east of the server")
+        void shouldEndAtLocalMidnightEastOfServer() {
+            // 05:00 on the 16th in Tokyo, so the habit is due through the 17th, local time
+            assertThat(scheduleService.calculateNextDueDate(dailyHabit("Asia/Tokyo"), completedAt))
+                    .isEqualTo(LocalDateTime.of(2024, 3, 17, 15, 0));
+        }
+
+        @Test
+        @DisplayName("Should end at local midnight after the due day in a zone west of the server")
+        void shouldEndAtLocalMidnightWestOfServer() {
+            // 13:00 on the 15th in Los Angeles (UTC-7 since March 10th), due through the 16th
+            assertThat(scheduleService.calculateNextDueDate(dailyHabit("America/Los_Angeles"), completedAt))
+                    .isEqualTo(LocalDateTime.of(2024, 3, 17, 7, 0));
+        }
+
+        @Test
+        @DisplayName("Should fall back to the server's zone for an unknown time zone")
+        void shouldFallBackToServerZone() {
+            assertThat(scheduleService.calculateNextDueDate(dailyHabit("Not/AZone"), completedAt))
+                    .isEqualTo(LocalDateTime.of(2024, 3, 17, 0, 0));
+        }
+
+        @Test
+        @DisplayName("A completion any time on the local due day should be on schedule")
+        void shouldAcceptCompletionUntilEndOfLocalDueDay() {
+            Habit habit = dailyHabit("Asia/Tokyo");
+            habit.setStreak(HabitStreak.builder()
+                    .nextDueAt(scheduleService.calculateNextDueDate(habit, completedAt))
+                    .build());
+
+            // 23:30 and 00:30 in Tokyo either side of the end of the 17th
+            assertThat(scheduleService.isHabitOnSchedule(habit, LocalDateTime.of(2024, 3, 17, 14, 30))).isTrue();
+            assertThat(scheduleService.isHabitOnSchedule(habit, LocalDateTime.of(2024, 3, 17, 15, 30))).isFalse();
+        }
+
+        private Habit dailyHabit(String timeZone) {
+            Habit habit = new Habit();
+            habit.setId(UUID.randomUUID());
+            habit.setFrequency("DAILY");
+            habit.setTimeZone(timeZone);
+            return habit;
+        }
+    }
+
+    private int walkRequiredSince(Habit habit, LocalDate since, LocalDate until) {
+        LocalDate created = habit.getCreatedAt().toLocalDate();
+        int required = 0;
+        
+        for (LocalDate day = since.plusDays(1); !day.isAfter(until); day = day.plusDays(1)) {
+            switch (habit.getFrequency()) {
+                case "WEEKLY":
+                    required += day.getDayOfWeek() == DayOfWeek.MONDAY ? 1 : 0;
+                    break;
+                case "MONTHLY":
+                    required += day.getDayOfMonth() == 1 ? 1 : 0;
+                    break;
+                case "YEARLY":
+                    required += day.getDayOfYear() == 1 ? 1 : 0;
+                    break;
+                case "X_TIMES_PER_WEEK":
+                    required += day.getDayOfWeek() == DayOfWeek.MONDAY ? times(habit) : 0;
+                    break;
+                case "X_TIMES_PER_MONTH":
+                    required += day.getDayOfMonth() == 1 ? times(habit) : 0;
+                    break;
+                case "SPECIFIC_DAYS":
+                    required += scheduledDays(habit).contains(day.getDayOfWeek()) ? 1 : 0;
+                    break;
+                case "CUSTOM":
+                    required += Math.floorMod(day.toEpochDay() - created.toEpochDay(), intervalDays(habit)) == 0 ? 1 : 0;
+                    break;
+                default:
+                    required++;
+            }
+        }
+        
+        return required;
+    }
+
+    private Habit randomHabit(String frequency) {
+        Habit habit = new Habit();
+        habit.setId(UUID.randomUUID());
+        habit.setFrequency(frequency);
+        habit.setCreatedAt(randomDateTime(LocalDateTime.of(2018, 1, 1, 0, 0), 3000));
+        
+        switch (frequency) {
+            case "X_TIMES_PER_WEEK":
+            case "X_TIMES_PER_MONTH":
+                habit.setSchedule("{\"times\":" + (1 + random.nextInt(6)) + "}");
+                break;
+            case "SPECIFIC_DAYS":
+                habit.setSchedule("{\"days\":[" + EnumSet.allOf(DayOfWeek.class).stream()
+                        .filter(day -> random.nextBoolean())
+                        .map(day -> "\"" + day + "\"")
+                        .collect(Collectors.joining(",")) + "]}");
+                break;
+            case "CUSTOM":
+                habit.setSchedule("{\"intervalDays\":" + (1 + random.nextInt(10)) + "}");
+                break;
+            default:
+                break;
+        }
+        
+        return habit;
+    }
+
+    private LocalDateTime randomDateTime(LocalDateTime from, int maxDays) {
+        return from.plusMinutes(random.nextInt(60 * 24 * maxDays));
+    }
+
+    private int times(Habit habit) {
+        return Integer.parseInt(habit.getSchedule().replaceAll("\\D", ""));
+    }
+
+    private int intervalDays(Habit habit) {
+        return Integer.parseInt(habit.getSchedule().replaceAll("\\D", ""));
+    }
+
+    private Set<DayOfWeek> scheduledDays(Habit habit) {
+        return EnumSet.allOf(DayOfWeek.class).stream()
+                .filter(day -> habit.getSchedule().contains("\"" + day + "\""))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,90 @@
+-- Query-plan benchmark for habit_tracking_records on a synthetic 50M-row dataset.
+--
+-- Run it twice against a scratch database: once migrated to V6 (before partitioning) and once
+-- migrated to V7 (partitioned, user_id denormalized), e.g.
+--
+--   mvn flyway:migrate -Dflyway.target=6 ...  &&  psql -v phase=before -f tracking_records_plans.sql
+--   mvn flyway:migrate                       ...  &&  psql -v phase=after  -f tracking_records_plans.sql
+--
+-- Dataset: 50,000 users x 4 habits, 250 completions per habit spread over the last two years.
+-- Loading takes several minutes; the EXPLAIN output at the end is what to compare.
+
+\set ON_ERROR_STOP on
+\timing on
+
+TRUNCATE habit_tracking_records, habit_streaks, habit_daily_stats, habits CASCADE;
+
+INSERT INTO habits (id, user_id, name, frequency, priority, created_at)
+SELECT md5('habit' || h)::uuid,
+       md5('user' || (h / 4))::uuid,
+       'Habit ' || h,
+       'DAILY',
+       1 + h % 5,
+       NOW() - INTERVAL '2 years'
+FROM generate_series(0, 199999) AS h;
+
+\if :{?phase}
+\else
+\set phase after
+\endif
+
+SELECT :'phase' = 'before' AS is_before \gset
+
+\if :is_before
+INSERT INTO habit_tracking_records (id, habit_id, completed_at, mood_rating, difficulty_rating)
+SELECT gen_random_uuid(),
+       md5('habit' || (n % 200000))::uuid,
+       NOW() - (random() * INTERVAL '730 days'),
+       1 + (n % 5),
+       1 + (n % 3)
+FROM generate_series(1, 50000000) AS n;
+\else
+INSERT INTO habit_tracking_records (id, habit_id, user_id, completed_at, mood_rating, difficulty_rating)
+SELECT gen_random_uuid(),
+       md5('habit' || (n % 200000))::uuid,
+       md5('user' || ((n % 200000) / 4))::uuid,
+       NOW() - (random() * INTERVAL '730 days'),
+       1 + (n % 5),
+       1 + (n % 3)
+FROM generate_series(1, 50000000) AS n;
+\endif
+
+VACUUM ANALYZE habits;
+VACUUM ANALYZE habit_tracking_records;
+
+-- Pick a user and a 30-day window in the middle of the data
+SELECT md5('user' || 4242)::uuid AS user_id,
+       date_trunc('day', NOW() - INTERVAL '200 days') AS range_start,
+       date_trunc('day', NOW() - INTERVAL '170 days') AS range_end \gset
+
+\if :is_before
+
+-- findByUserIdAndCompletedAtBetween (joins through habits)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM habit_tracking_records r JOIN habits h ON h.id = r.habit_id
+WHERE h.user_id = :'user_id' AND r.completed_at BETWEEN :'range_start' AND :'range_end'
+ORDER BY r.completed_at DESC;
+
+-- getCompletionStatsByUserIdBetweenDates
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.habit_id, COUNT(r.id), AVG(r.difficulty_rating), AVG(r.mood_rating)
+FROM habit_tracking_records r JOIN habits h ON h.id = r.habit_id
+WHERE h.user_id = :'user_id' AND r.completed_at BETWEEN :'range_start' AND :'range_end'
+GROUP BY r.habit_id;
+
+\else
+
+-- findByUserIdAndCompletedAtBetween (partition pruning + idx_records_user_completed)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM habit_tracking_records r
+WHERE r.user_id = :'user_id' AND r.completed_at BETWEEN :'range_start' AND :'range_end'
+ORDER BY r.completed_at DESC;
+
+-- getCompletionStatsByUserIdBetweenDates (expected: index-only scan on the covering index)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.habit_id, COUNT(*), AVG(r.difficulty_rating), AVG(r.mood_rating)
+FROM habit_tracking_records r
+WHERE r.user_id = :'user_id' AND r.completed_at BETWEEN :'range_start' AND :'range_end'
+GROUP BY r.habit_id;
+
+\endif
@@ -1,6 +1,9 @@
 package com.habitsystem.user.config;
 
+import com.habitsystem.common.security.GatewayTrust;
 import com.habitsystem.user.exception.UnauthorizedException;
+import com.habitsystem.user.service.AuthValidationCache;
+import com.habitsystem.user.service.AuthValidationCoalescer;
 import com.habitsystem.proto.auth.AuthServiceGrpc;
 import com.habitsystem.proto.auth.ValidateAuthRequest;
 import com.habitsystem.proto.auth.ValidateAuthResponse;
@@ -10,6 +13,7 @@ import io.grpc.StatusRuntimeException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -21,11 +25,21 @@ import net.devh.boot.grpc.client.inject.GrpcClient;
 public class AuthInterceptor implements HandlerInterceptor {
 
     private final AuthServiceGrpc.AuthServiceBlockingStub authServiceStub;
+    private final AuthValidationCoalescer validationCoalescer;
+    private final AuthValidationCache validationCache;
+    private final GatewayTrust gatewayTrust;
     private static final String BEARER_PREFIX = "Bearer ";
 
     @Autowired
-    public AuthInterceptor(@GrpcClient("auth-service") Channel channel) {
+    public AuthInterceptor(@GrpcClient("auth-service") Channel channel,
+                           AuthValidationCoalescer validationCoalescer,
+                           AuthValidationCache validationCache,
+                           @Value("${security.gateway-trust.enabled:false}") boolean gatewayTrustEnabled,
+                           @Value("${security.gateway-trust.shared-secret:}") String gatewaySecret) {
         this.authServiceStub = AuthServiceGrpc.newBlockingStub(channel);
+        this.validationCoalescer = validationCoalescer;
+        this.validationCache = validationCache;
+        this.gatewayTrust = new GatewayTrust(gatewayTrustEnabled, gatewaySecret);
     }
 
     @Override
@@ -35,6 +49,14 @@ public class AuthInterceptor implements HandlerInterceptor {
         String requestPath = request.getRequestURI();
         log.debug("Processing request for path: {}", requestPath);
 
+        // The api-gateway already verified the token; skip the round trip to auth-service
+        String gatewayUserId = request.getHeader(GatewayTrust.USER_ID_HEADER);
+        if (gatewayTrust.isVerifiedByGateway(gatewayUserId, request.getHeader(GatewayTrust.GATEWAY_AUTH_HEADER))) {
+            request.setAttribute("userId", gatewayUserId);
+            request.setAttribute("username", request.getHeader(GatewayTrust.USERNAME_HEADER));
+            return true;
+        }
+
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         validateAuthHeader(authHeader);
 
@@ -78,11 +100,7 @@ public class AuthInterceptor implements HandlerInterceptor {
 
     private ValidateAuthResponse validateTokenWithAuthService(String token) {
         try {
-            var validateRequest = ValidateAuthRequest.newBuilder()
-                    .setToken(token)
-                    .build();
-                    
-            var validation = authServiceStub.validateAuth(validateRequest);
+            var validation = validationCache.get(token, this::callAuthService);
             
             if (!validation.getValid()) {
                 log.warn("Token validation failed");
@@ -96,6 +114,13 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
     }
 
+    private ValidateAuthResponse callAuthService(String token) {
+        // Concurrent requests share one round trip to auth-service when coalescing is enabled
+        return validationCoalescer.isEnabled()
+                ? validationCoalescer.validate(token)
+                : authServiceStub.validateAuth(ValidateAuthRequest.newBuilder().setToken(token).build());
+    }
+
     private void storeUserInfo(HttpServletRequest request, ValidateAuthResponse validation) {
         request.setAttribute("userId", validation.getUserId());
         request.setAttribute("username", validation.getUsername());
@@ -0,0 +1,54 @@
+package com.habitsystem.user.config;
+
+import com.habitsystem.user.event.TokenRevokedEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ConsumerFactory<String, TokenRevokedEvent> tokenRevokedConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        // Revocations only matter for validations cached from now on, so older events are skipped
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        // auth-service adds its own class name as the type header; always read into the local event
+        JsonDeserializer<TokenRevokedEvent> jsonDeserializer = new JsonDeserializer<>(TokenRevokedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("com.habitsystem.auth.event", "com.habitsystem.user.event");
+
+        return new DefaultKafkaConsumerFactory<>(
+            props,
+            new ErrorHandlingDeserializer<>(new StringDeserializer()),
+            new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TokenRevokedEvent> tokenRevokedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TokenRevokedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(tokenRevokedConsumerFactory());
+        return factory;
+    }
+}
@@ -0,0 +1,18 @@
+package com.habitsystem.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRevokedEvent {
+    private String userId;
+    private String tokenHash;
+    private String reason;
+    private Instant revokedAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.habitsystem.user.listener;
+
+import com.habitsystem.user.event.TokenRevokedEvent;
+import com.habitsystem.user.service.AuthValidationCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationListener {
+
+    private final AuthValidationCache validationCache;
+
+    // Every instance keeps its own cache, so each one reads every partition. The partitions are
+    // assigned directly, without a consumer group, so no offsets are committed and restarts leave
+    // no groups behind on the broker
+    @KafkaListener(
+        topicPartitions = @TopicPartition(
+            topic = "${kafka.topics.token-revoked:token-revoked}",
+            partitions = "0-#{${kafka.topics.token-revoked-partitions:3} - 1}"
+        ),
+        containerFactory = "tokenRevokedListenerContainerFactory"
+    )
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        log.debug("Received {} revocation for user {}", event.getReason(), event.getUserId());
+        validationCache.invalidate(event.getUserId(), event.getTokenHash());
+    }
+}
@@ -0,0 +1,189 @@
+package com.habitsystem.user.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.habitsystem.proto.auth.ValidateAuthResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches auth-service validation results by the token's SHA-256 digest, so repeat requests with
+ * the same token skip the round trip. Valid results live until the token expires or for
+ * {@code max-ttl}, whichever is sooner; rejections are not kept. Concurrent lookups of a token
+ * that is not cached yet share one call to auth-service. Entries for a user are dropped when
+ * auth-service announces a revocation for them.
+ * <p>
+ * A lookup still waiting on auth-service when its user is invalidated is not visible to the
+ * invalidation. Every invalidation therefore takes a new epoch and records it for the user;
+ * a lookup that started in an earlier epoch and comes back for an invalidated user hands its
+ * answer to the waiting callers but does not keep it.
+ */
+@Slf4j
+@Component
+public class AuthValidationCache {
+
+    private final boolean enabled;
+    private final Clock clock;
+    private final AsyncCache<String, ValidateAuthResponse> cache;
+    // Epoch of each user's latest invalidation, kept as long as a cached result could live
+    private final Cache<String, Long> invalidatedAt;
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter joined;
+    private final Counter misses;
+    private final Counter savedRpcs;
+    private final Counter invalidations;
+
+    @Autowired
+    public AuthValidationCache(MeterRegistry meterRegistry,
+                               @Value("${security.auth-validation.cache.enabled:true}") boolean enabled,
+                               @Value("${security.auth-validation.cache.maximum-size:50000}") long maximumSize,
+                               @Value("${security.auth-validation.cache.max-ttl:5m}") Duration maxTtl) {
+        this(meterRegistry, enabled, maximumSize, maxTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    AuthValidationCache(MeterRegistry meterRegistry, boolean enabled, long maximumSize, Duration maxTtl,
+                        Ticker ticker, Clock clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxTtl)
+                .ticker(ticker)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, ValidateAuthResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, ValidateAuthResponse validation, long currentTime) {
+                        return lifetime(validation, maxTtl, clock);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, ValidateAuthResponse validation, long currentTime,
+                                                  long currentDuration) {
+                        return lifetime(validation, maxTtl, clock);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, ValidateAuthResponse validation, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .buildAsync();
+
+        this.hits = meterRegistry.counter("auth.validation.cache.requests", "result", "hit");
+        this.joined = meterRegistry.counter("auth.validation.cache.requests", "result", "joined");
+        this.misses = meterRegistry.counter("auth.validation.cache.requests", "result", "miss");
+        this.savedRpcs = meterRegistry.counter("auth.validation.cache.saved.rpcs");
+        this.invalidations = meterRegistry.counter("auth.validation.cache.invalidations");
+        meterRegistry.gauge("auth.validation.cache.hit.ratio", this, AuthValidationCache::hitRatio);
+        meterRegistry.gaugeMapSize("auth.validation.cache.size", Tags.empty(), cache.asMap());
+    }
+
+    /**
+     * The cached result for the token, or the result of {@code validator}. Only one caller per
+     * token runs the validator at a time; the others wait for its result or its exception.
+     */
+    public ValidateAuthResponse get(String token, Function<String, ValidateAuthResponse> validator) {
+        if (!enabled) {
+            return validator.apply(token);
+        }
+
+        String key = digest(token);
+        CompletableFuture<ValidateAuthResponse> pending = new CompletableFuture<>();
+        CompletableFuture<ValidateAuthResponse> existing = cache.asMap().putIfAbsent(key, pending);
+        if (existing == null) {
+            misses.increment();
+            long startEpoch = epoch.get();
+            try {
+                ValidateAuthResponse validation = validator.apply(token);
+                // Complete first: an invalidation either sees the entry or is seen by the check below
+                pending.complete(validation);
+                Long userInvalidatedAt = invalidatedAt.getIfPresent(validation.getUserId());
+                if (userInvalidatedAt != null && userInvalidatedAt > startEpoch) {
+                    cache.asMap().remove(key, pending);
+                }
+                return validation;
+            } catch (RuntimeException e) {
+                // A failed future is removed from the cache, so the next request tries again
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        (existing.isDone() ? hits : joined).increment();
+        savedRpcs.increment();
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the user's cached validations and the revoked token itself, should it be cached.
+     */
+    public void invalidate(String userId, String tokenHash) {
+        if (tokenHash != null) {
+            cache.synchronous().invalidate(tokenHash);
+        }
+        if (userId != null) {
+            // Recorded before the sweep, which only sees completed lookups
+            invalidatedAt.put(userId, epoch.incrementAndGet());
+            cache.synchronous().asMap().values().removeIf(validation -> userId.equals(validation.getUserId()));
+        }
+        invalidations.increment();
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + joined.count() + misses.count();
+        return lookups == 0 ? 0 : (hits.count() + joined.count()) / lookups;
+    }
+
+    private static long lifetime(ValidateAuthResponse validation, Duration maxTtl, Clock clock) {
+        if (!validation.getValid()) {
+            return 0;
+        }
+        if (validation.getExpiresAt() == 0) {
+            return maxTtl.toNanos();
+        }
+        long untilExpiry = Duration.ofSeconds(validation.getExpiresAt() - clock.instant().getEpochSecond()).toNanos();
+        return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
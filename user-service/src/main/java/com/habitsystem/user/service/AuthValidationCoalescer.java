@@ -0,0 +1,385 @@
+package com.habitsystem.user.service;
+
+import com.habitsystem.proto.auth.AuthServiceGrpc;
+import com.habitsystem.proto.auth.ValidateAuthBatchRequest;
+import com.habitsystem.proto.auth.ValidateAuthBatchResponse;
+import com.habitsystem.proto.auth.ValidateAuthResponse;
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces token validations from many request threads into batched calls to auth-service.
+ * A single dispatcher thread collects pending tokens until either {@code maxBatchSize} are
+ * queued or {@code maxWaitMicros} have passed since the first one, then sends them as one
+ * ValidateAuthStream message (or one ValidateAuthBatch call) and completes each caller from
+ * the matching result.
+ * <p>
+ * A stream batch that gets no response within {@code timeoutMillis} is expired by the
+ * dispatcher, so a stalled stream cannot accumulate batches forever. After
+ * {@code maxConsecutiveTimeouts} expiries without any response in between, the stream is
+ * presumed stuck, cancelled, and the next batch opens a fresh one.
+ * <p>
+ * Coalescing is opt-in through {@code security.auth-validation.coalescing.enabled}; while it is
+ * off, no dispatcher thread is started and each validation is a plain ValidateAuth call.
+ */
+@Slf4j
+@Component
+public class AuthValidationCoalescer {
+
+    public enum Transport {
+        STREAM,
+        BATCH
+    }
+
+    private record PendingValidation(String token, CompletableFuture<ValidateAuthResponse> result) {
+    }
+
+    private record InFlightBatch(List<PendingValidation> batch, long deadlineNanos) {
+    }
+
+    private final AuthServiceGrpc.AuthServiceStub authServiceStub;
+    private final boolean enabled;
+    private final Transport transport;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long timeoutMillis;
+    private final int maxConsecutiveTimeouts;
+    private final long expiryCheckNanos;
+
+    private final BlockingQueue<PendingValidation> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    // Only the dispatcher thread opens streams and assigns batch ids
+    private volatile ValidationStream stream;
+    private long nextBatchId;
+    private long nextExpiryCheck;
+
+    @Autowired
+    public AuthValidationCoalescer(@GrpcClient("auth-service") Channel channel,
+                                   @Value("${security.auth-validation.coalescing.enabled:false}") boolean enabled,
+                                   @Value("${security.auth-validation.coalescing.transport:STREAM}") Transport transport,
+                                   @Value("${security.auth-validation.coalescing.max-batch-size:64}") int maxBatchSize,
+                                   @Value("${security.auth-validation.coalescing.max-wait-micros:200}") long maxWaitMicros,
+                                   @Value("${security.auth-validation.coalescing.timeout-ms:5000}") long timeoutMillis,
+                                   @Value("${security.auth-validation.coalescing.max-consecutive-timeouts:3}") int maxConsecutiveTimeouts) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("max-batch-size must be at least 1");
+        }
+        if (maxConsecutiveTimeouts < 1) {
+            throw new IllegalArgumentException("max-consecutive-timeouts must be at least 1");
+        }
+        this.authServiceStub = AuthServiceGrpc.newStub(channel);
+        this.enabled = enabled;
+        this.transport = transport;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.timeoutMillis = timeoutMillis;
+        this.maxConsecutiveTimeouts = maxConsecutiveTimeouts;
+        this.expiryCheckNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMillis / 10));
+        this.nextExpiryCheck = System.nanoTime();
+
+        this.dispatcher = new Thread(this::dispatch, "auth-validation-coalescer");
+        this.dispatcher.setDaemon(true);
+        if (enabled) {
+            dispatcher.start();
+            log.info("Coalescing token validations over {} (max batch {}, max wait {} us)",
+                    transport, maxBatchSize, maxWaitMicros);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates a token as part of the next batch, blocking the calling thread until its result
+     * arrives. Failures surface as StatusRuntimeException, like a blocking stub call.
+     */
+    public ValidateAuthResponse validate(String token) {
+        if (!enabled) {
+            throw new IllegalStateException("Auth validation coalescing is disabled");
+        }
+        PendingValidation pending = new PendingValidation(token, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pending.result().cancel(false);
+            throw Status.DEADLINE_EXCEEDED
+                    .withDescription("Token validation timed out after " + timeoutMillis + " ms")
+                    .asRuntimeException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StatusRuntimeException statusException) {
+                throw statusException;
+            }
+            throw Status.fromThrowable(e.getCause()).asRuntimeException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted while validating token").asRuntimeException();
+        }
+    }
+
+    /**
+     * Stops the dispatcher and waits for it to exit before closing the stream, so no batch is
+     * sent on a stream that has already been half-closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dispatcher.isAlive()) {
+            log.warn("Token validation dispatcher did not stop within {} ms", timeoutMillis);
+        }
+        List<PendingValidation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining, Status.UNAVAILABLE.withDescription("Shutting down").asRuntimeException());
+        ValidationStream current = stream;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void dispatch() {
+        List<PendingValidation> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // Wake up while idle too, so batches on a silent stream still expire
+                PendingValidation first = queue.poll(expiryCheckNanos, TimeUnit.NANOSECONDS);
+                expireInFlight();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingValidation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                send(List.copyOf(batch));
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            fail(batch, Status.UNAVAILABLE.withDescription("Shutting down").asRuntimeException());
+        }
+    }
+
+    private void send(List<PendingValidation> batch) {
+        // Callers that already timed out are not worth a round trip
+        List<PendingValidation> live = batch.stream().filter(pending -> !pending.result().isDone()).toList();
+        if (live.isEmpty()) {
+            return;
+        }
+        ValidateAuthBatchRequest request = ValidateAuthBatchRequest.newBuilder()
+                .setBatchId(nextBatchId++)
+                .addAllTokens(live.stream().map(PendingValidation::token).toList())
+                .build();
+        try {
+            if (transport == Transport.STREAM) {
+                sendOnStream(request, live);
+            } else {
+                sendAsBatchCall(request, live);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to send token validation batch: {}", e.getMessage());
+            fail(live, Status.fromThrowable(e).asRuntimeException());
+        }
+    }
+
+    private void sendOnStream(ValidateAuthBatchRequest request, List<PendingValidation> batch) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        ValidationStream current = stream;
+        if (current == null || !current.register(request.getBatchId(), batch, deadline)) {
+            // The previous stream failed, was cancelled or was never opened
+            current = new ValidationStream();
+            current.open();
+            stream = current;
+            current.register(request.getBatchId(), batch, deadline);
+        }
+        current.send(request);
+    }
+
+    /**
+     * Fails stream batches whose deadline has passed and cancels the stream once too many have
+     * expired in a row. Runs on the dispatcher thread, about ten times per timeout.
+     */
+    private void expireInFlight() {
+        long now = System.nanoTime();
+        ValidationStream current = stream;
+        if (current == null || now - nextExpiryCheck < 0) {
+            return;
+        }
+        nextExpiryCheck = now + expiryCheckNanos;
+        if (current.expire(now) >= maxConsecutiveTimeouts) {
+            log.warn("Token validation stream timed out {} times in a row, reopening it", maxConsecutiveTimeouts);
+            current.cancel();
+            stream = null;
+        }
+    }
+
+    private void sendAsBatchCall(ValidateAuthBatchRequest request, List<PendingValidation> batch) {
+        authServiceStub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)
+                .validateAuthBatch(request, new StreamObserver<>() {
+                    @Override
+                    public void onNext(ValidateAuthBatchResponse response) {
+                        complete(batch, response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fail(batch, Status.fromThrowable(t).asRuntimeException());
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+    }
+
+    private static void complete(List<PendingValidation> batch, ValidateAuthBatchResponse response) {
+        if (response.getResultsCount() != batch.size()) {
+            fail(batch, Status.INTERNAL
+                    .withDescription("Expected " + batch.size() + " validation results, got " + response.getResultsCount())
+                    .asRuntimeException());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(response.getResults(i));
+        }
+    }
+
+    private static void fail(List<PendingValidation> batch, StatusRuntimeException error) {
+        for (PendingValidation pending : batch) {
+            pending.result().completeExceptionally(error);
+        }
+    }
+
+    /**
+     * One ValidateAuthStream call and the batches sent on it that are still waiting for their
+     * response. Once the call ends every outstanding batch fails and no more can be registered,
+     * so a batch is never left behind on a dead stream.
+     */
+    private class ValidationStream implements StreamObserver<ValidateAuthBatchResponse> {
+
+        private final Map<Long, InFlightBatch> inFlight = new ConcurrentHashMap<>();
+        // Batches expired since the last response
+        private final AtomicInteger consecutiveTimeouts = new AtomicInteger();
+        private StreamObserver<ValidateAuthBatchRequest> requests;
+        private boolean closed;
+        private boolean cancelled;
+
+        void open() {
+            requests = authServiceStub.validateAuthStream(this);
+        }
+
+        synchronized boolean register(long batchId, List<PendingValidation> batch, long deadlineNanos) {
+            if (closed) {
+                return false;
+            }
+            inFlight.put(batchId, new InFlightBatch(batch, deadlineNanos));
+            return true;
+        }
+
+        void send(ValidateAuthBatchRequest request) {
+            requests.onNext(request);
+        }
+
+        /**
+         * Fails the batches whose deadline has passed and returns how many batches have now
+         * expired without a response in between.
+         */
+        int expire(long nowNanos) {
+            StatusRuntimeException error = Status.DEADLINE_EXCEEDED
+                    .withDescription("No validation results within " + timeoutMillis + " ms")
+                    .asRuntimeException();
+            inFlight.forEach((batchId, inFlightBatch) -> {
+                if (nowNanos - inFlightBatch.deadlineNanos() >= 0 && inFlight.remove(batchId, inFlightBatch)) {
+                    fail(inFlightBatch.batch(), error);
+                    consecutiveTimeouts.incrementAndGet();
+                }
+            });
+            return consecutiveTimeouts.get();
+        }
+
+        /**
+         * Cancels the call; the outstanding batches fail with CANCELLED.
+         */
+        void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            requests.onError(Status.CANCELLED.withDescription("Validation stream timed out").asRuntimeException());
+            end(Status.CANCELLED.withDescription("Validation stream timed out").asRuntimeException());
+        }
+
+        void close() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+            }
+            requests.onCompleted();
+        }
+
+        @Override
+        public void onNext(ValidateAuthBatchResponse response) {
+            // Even a late response shows the stream is alive
+            consecutiveTimeouts.set(0);
+            InFlightBatch inFlightBatch = inFlight.remove(response.getBatchId());
+            if (inFlightBatch == null) {
+                // Expected for batches that already expired
+                log.debug("Received results for unknown validation batch {}", response.getBatchId());
+                return;
+            }
+            complete(inFlightBatch.batch(), response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.warn("Token validation stream failed: {}", t.getMessage());
+            end(Status.fromThrowable(t).asRuntimeException());
+        }
+
+        @Override
+        public void onCompleted() {
+            end(Status.UNAVAILABLE.withDescription("Token validation stream closed").asRuntimeException());
+        }
+
+        private synchronized void end(StatusRuntimeException error) {
+            closed = true;
+            inFlight.values().forEach(inFlightBatch -> fail(inFlightBatch.batch(), error));
+            inFlight.clear();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.habitsystem.user.benchmark;
+
+import com.habitsystem.proto.auth.AuthServiceGrpc;
+import com.habitsystem.proto.auth.ValidateAuthBatchRequest;
+import com.habitsystem.proto.auth.ValidateAuthBatchResponse;
+import com.habitsystem.proto.auth.ValidateAuthRequest;
+import com.habitsystem.proto.auth.ValidateAuthResponse;
+import com.habitsystem.user.service.AuthValidationCoalescer;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * p50/p99 latency of token validation with 2k concurrent request threads: one blocking
+ * ValidateAuth call per request against the coalescer over ValidateAuthStream and over
+ * ValidateAuthBatch. The auth server runs on loopback with four threads and answers without
+ * verifying, so the numbers isolate per-call overhead. Run with
+ * {@code java -cp <test classpath> com.habitsystem.user.benchmark.AuthValidationLatencyBenchmark}.
+ */
+public class AuthValidationLatencyBenchmark {
+
+    private static final int CONCURRENCY = 2_000;
+    private static final int CALLS_PER_THREAD = 25;
+    private static final String TOKEN = "header.payload.signature";
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(4);
+        Server server = ServerBuilder.forPort(0)
+                .executor(serverExecutor)
+                .addService(new StubAuthService())
+                .build()
+                .start();
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", server.getPort())
+                .usePlaintext()
+                .build();
+
+        try {
+            AuthServiceGrpc.AuthServiceBlockingStub blockingStub = AuthServiceGrpc.newBlockingStub(channel);
+            ValidateAuthRequest request = ValidateAuthRequest.newBuilder().setToken(TOKEN).build();
+            run("unary ValidateAuth", token -> blockingStub.validateAuth(request));
+
+            for (AuthValidationCoalescer.Transport transport : AuthValidationCoalescer.Transport.values()) {
+                AuthValidationCoalescer coalescer = new AuthValidationCoalescer(channel, true, transport, 64, 200, 10_000, 3);
+                try {
+                    run("coalesced " + transport, coalescer::validate);
+                } finally {
+                    coalescer.shutdown();
+                }
+            }
+        } finally {
+            channel.shutdownNow();
+            server.shutdownNow();
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static void run(String name, Function<String, ValidateAuthResponse> validation) throws InterruptedException {
+        // Warm up, then measure
+        measure(validation);
+        long start = System.nanoTime();
+        long[] latencies = measure(validation);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-22s p50 %7.2f ms, p99 %7.2f ms, %8.0f validations/s%n", name,
+                percentile(latencies, 0.50) / 1_000_000.0, percentile(latencies, 0.99) / 1_000_000.0,
+                latencies.length / seconds);
+    }
+
+    private static long[] measure(Function<String, ValidateAuthResponse> validation) throws InterruptedException {
+        long[] latencies = new long[CONCURRENCY * CALLS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+        for (int t = 0; t < CONCURRENCY; t++) {
+            int offset = t * CALLS_PER_THREAD;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        validation.apply(TOKEN);
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        start.countDown();
+        if (!done.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Validations did not finish");
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+    }
+
+    private static class StubAuthService extends AuthServiceGrpc.AuthServiceImplBase {
+
+        private static final ValidateAuthResponse VALID = ValidateAuthResponse.newBuilder()
+                .setValid(true)
+                .setUserId("00000000-0000-0000-0000-000000000001")
+                .setUsername("benchmark")
+                .build();
+
+        @Override
+        public void validateAuth(ValidateAuthRequest request, StreamObserver<ValidateAuthResponse> responseObserver) {
+            responseObserver.onNext(VALID);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void validateAuthBatch(ValidateAuthBatchRequest request, StreamObserver<ValidateAuthBatchResponse> responseObserver) {
+            responseObserver.onNext(answer(request));
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<ValidateAuthBatchRequest> validateAuthStream(StreamObserver<ValidateAuthBatchResponse> responseObserver) {
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(ValidateAuthBatchRequest request) {
+                    responseObserver.onNext(answer(request));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+
+        private static ValidateAuthBatchResponse answer(ValidateAuthBatchRequest request) {
+            ValidateAuthBatchResponse.Builder response = ValidateAuthBatchResponse.newBuilder()
+                    .setBatchId(request.getBatchId());
+            for (int i = 0; i < request.getTokensCount(); i++) {
+                response.addResults(VALID);
+            }
+            return response.build();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.habitsystem.user.config;
+
+import com.habitsystem.common.security.GatewayTrust;
+import com.habitsystem.user.exception.UnauthorizedException;
+import com.habitsystem.user.service.AuthValidationCache;
+import com.habitsystem.user.service.AuthValidationCoalescer;
+import io.grpc.Channel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthInterceptorTest {
+
+    private static final String GATEWAY_SECRET = "gateway-shared-secret";
+
+    private final AuthValidationCoalescer coalescer = mock(AuthValidationCoalescer.class);
+    private final AuthValidationCache cache = mock(AuthValidationCache.class);
+
+    private AuthInterceptor interceptor(boolean trustEnabled, String secret) {
+        return new AuthInterceptor(mock(Channel.class), coalescer, cache, trustEnabled, secret);
+    }
+
+    private static MockHttpServletRequest gatewayRequest(String presentedSecret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader(GatewayTrust.USER_ID_HEADER, "user-1");
+        request.addHeader(GatewayTrust.USERNAME_HEADER, "alice");
+        request.addHeader(GatewayTrust.GATEWAY_AUTH_HEADER, presentedSecret);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should accept gateway headers without calling auth-service when the secret matches")
+    void shouldTrustGatewayHeaders() {
+        MockHttpServletRequest request = gatewayRequest(GATEWAY_SECRET);
+
+        boolean proceed = interceptor(true, GATEWAY_SECRET).preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(proceed).isTrue();
+        assertThat(request.getAttribute("userId")).isEqualTo("user-1");
+        assertThat(request.getAttribute("username")).isEqualTo("alice");
+        verifyNoInteractions(cache, coalescer);
+    }
+
+    @Test
+    @DisplayName("Should require a token when the gateway secret is wrong")
+    void shouldRejectWrongSecret() {
+        MockHttpServletRequest request = gatewayRequest("guessed-secret");
+
+        assertThatThrownBy(() -> interceptor(true, GATEWAY_SECRET).preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(request.getAttribute("userId")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should require a token when trust mode has no secret configured")
+    void shouldRejectWhenSecretMissing() {
+        MockHttpServletRequest request = gatewayRequest("");
+
+        assertThatThrownBy(() -> interceptor(true, "").preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    @DisplayName("Should require a token when trust mode is off")
+    void shouldRejectWhenDisabled() {
+        MockHttpServletRequest request = gatewayRequest(GATEWAY_SECRET);
+
+        assertThatThrownBy(() -> interceptor(false, GATEWAY_SECRET).preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+}
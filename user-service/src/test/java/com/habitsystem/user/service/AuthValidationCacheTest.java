@@ -0,0 +1,222 @@
+package com.habitsystem.user.service;
+
+import com.habitsystem.proto.auth.ValidateAuthResponse;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Exercises the validation cache with a manual clock: wall-clock time for token expiry and the
+ * matching ticker for Caffeine both advance only when the test says so.
+ */
+class AuthValidationCacheTest {
+
+    private static final Instant START = Instant.parse("2026-03-01T12:00:00Z");
+    private static final Duration MAX_TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong elapsedNanos = new AtomicLong();
+    private final ManualClock clock = new ManualClock();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final AuthValidationCache cache = new AuthValidationCache(
+            new SimpleMeterRegistry(), true, 1_000, MAX_TTL, elapsedNanos::get, clock);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private Function<String, ValidateAuthResponse> validator(String userId, Instant expiresAt) {
+        return token -> {
+            calls.incrementAndGet();
+            return valid(userId, expiresAt);
+        };
+    }
+
+    private static ValidateAuthResponse valid(String userId, Instant expiresAt) {
+        return ValidateAuthResponse.newBuilder()
+                .setValid(true)
+                .setUserId(userId)
+                .setUsername(userId)
+                .setExpiresAt(expiresAt.getEpochSecond())
+                .build();
+    }
+
+    private void advance(Duration duration) {
+        elapsedNanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of an uncached token should share one call to auth-service")
+    void shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, ValidateAuthResponse> slowValidator = token -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return valid("user-1", START.plusSeconds(600));
+        };
+
+        List<Future<ValidateAuthResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.get("token-1", slowValidator)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<ValidateAuthResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getUserId()).isEqualTo("user-1");
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Failed lookups and rejected tokens should not be cached")
+    void shouldNotCacheFailuresOrRejections() {
+        Function<String, ValidateAuthResponse> failing = token -> {
+            calls.incrementAndGet();
+            throw Status.UNAVAILABLE.asRuntimeException();
+        };
+        assertThatThrownBy(() -> cache.get("token-1", failing)).isInstanceOf(StatusRuntimeException.class);
+        assertThat(cache.get("token-1", validator("user-1", START.plusSeconds(600))).getValid()).isTrue();
+        assertThat(calls).hasValue(2);
+
+        Function<String, ValidateAuthResponse> rejecting = token -> {
+            calls.incrementAndGet();
+            return ValidateAuthResponse.newBuilder().setValid(false).build();
+        };
+        cache.get("token-2", rejecting);
+        cache.get("token-2", rejecting);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("A valid result should live until the token expires when that is sooner than max-ttl")
+    void shouldCapLifetimeAtTokenExpiry() {
+        cache.get("token-1", validator("user-1", START.plusSeconds(60)));
+
+        advance(Duration.ofSeconds(59));
+        cache.get("token-1", validator("user-1", START.plusSeconds(60)));
+        assertThat(calls).hasValue(1);
+
+        advance(Duration.ofSeconds(2));
+        cache.get("token-1", validator("user-1", START.plusSeconds(60)));
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A valid result should live for at most max-ttl")
+    void shouldCapLifetimeAtMaxTtl() {
+        Instant farFuture = START.plus(Duration.ofDays(1));
+        cache.get("token-1", validator("user-1", farFuture));
+
+        advance(MAX_TTL.minusSeconds(1));
+        cache.get("token-1", validator("user-1", farFuture));
+        assertThat(calls).hasValue(1);
+
+        advance(Duration.ofSeconds(2));
+        cache.get("token-1", validator("user-1", farFuture));
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Invalidating a user should drop every cached token of that user and only those")
+    void shouldInvalidateByUser() {
+        Instant expiresAt = START.plusSeconds(600);
+        cache.get("token-a", validator("user-1", expiresAt));
+        cache.get("token-b", validator("user-1", expiresAt));
+        cache.get("token-c", validator("user-2", expiresAt));
+
+        cache.invalidate("user-1", null);
+
+        cache.get("token-a", validator("user-1", expiresAt));
+        cache.get("token-b", validator("user-1", expiresAt));
+        cache.get("token-c", validator("user-2", expiresAt));
+        assertThat(calls).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Invalidating a token hash should drop that token")
+    void shouldInvalidateByTokenHash() throws Exception {
+        Instant expiresAt = START.plusSeconds(600);
+        cache.get("token-a", validator("user-1", expiresAt));
+
+        String tokenHash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest("token-a".getBytes(StandardCharsets.UTF_8)));
+        cache.invalidate(null, tokenHash);
+
+        cache.get("token-a", validator("user-1", expiresAt));
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A lookup in flight while its user is invalidated should not be cached")
+    void shouldNotCacheLookupThatRacedAnInvalidation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ValidateAuthResponse> inFlight = callers.submit(() -> cache.get("token-a", token -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return valid("user-1", START.plusSeconds(600));
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.invalidate("user-1", null);
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).getValid()).isTrue();
+
+        cache.get("token-a", validator("user-1", START.plusSeconds(600)));
+        assertThat(calls).hasValue(2);
+    }
+
+    private class ManualClock extends Clock {
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return START.plusNanos(elapsedNanos.get());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.habitsystem.user.service;
+
+import com.habitsystem.proto.auth.AuthServiceGrpc;
+import com.habitsystem.proto.auth.ValidateAuthBatchRequest;
+import com.habitsystem.proto.auth.ValidateAuthBatchResponse;
+import com.habitsystem.proto.auth.ValidateAuthResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Drives the coalescer against an in-process auth-service whose streams can answer, fail,
+ * stay silent or answer out of order.
+ */
+class AuthValidationCoalescerTest {
+
+    private enum StreamMode {
+        ANSWER,
+        FAIL,
+        SILENT,
+        ANSWER_IN_REVERSE_PAIRS
+    }
+
+    private FakeAuthService authService;
+    private Server server;
+    private ManagedChannel channel;
+    private ExecutorService callers;
+    private AuthValidationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        authService = new FakeAuthService();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(authService).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        callers.shutdownNow();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private AuthValidationCoalescer coalescer(int maxBatchSize, long maxWaitMicros, long timeoutMillis, int maxConsecutiveTimeouts) {
+        coalescer = new AuthValidationCoalescer(channel, true, AuthValidationCoalescer.Transport.STREAM,
+                maxBatchSize, maxWaitMicros, timeoutMillis, maxConsecutiveTimeouts);
+        return coalescer;
+    }
+
+    private List<Future<ValidateAuthResponse>> validateConcurrently(String... tokens) {
+        List<Future<ValidateAuthResponse>> results = new ArrayList<>();
+        for (String token : tokens) {
+            results.add(callers.submit(() -> coalescer.validate(token)));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Should send a batch as soon as it is full, without waiting for max-wait")
+    void shouldSendFullBatchImmediately() throws Exception {
+        coalescer(3, TimeUnit.SECONDS.toMicros(30), 5_000, 3);
+
+        List<Future<ValidateAuthResponse>> results = validateConcurrently("user-a", "user-b", "user-c");
+
+        for (Future<ValidateAuthResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getValid()).isTrue();
+        }
+        assertThat(authService.batches).hasSize(1);
+        assertThat(authService.batches.get(0).getTokensList()).containsExactlyInAnyOrder("user-a", "user-b", "user-c");
+    }
+
+    @Test
+    @DisplayName("Should send a partial batch once max-wait has passed")
+    void shouldSendPartialBatchAfterMaxWait() {
+        coalescer(64, TimeUnit.MILLISECONDS.toMicros(50), 5_000, 3);
+
+        long start = System.nanoTime();
+        ValidateAuthResponse response = coalescer.validate("user-a");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(response.getUserId()).isEqualTo("user-a");
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(40);
+        assertThat(authService.batches).hasSize(1);
+        assertThat(authService.batches.get(0).getTokensCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should complete each caller from the response with its batch id, whatever the order")
+    void shouldMatchResponsesByBatchId() throws Exception {
+        authService.modes.add(StreamMode.ANSWER_IN_REVERSE_PAIRS);
+        coalescer(1, 0, 5_000, 3);
+
+        List<Future<ValidateAuthResponse>> results = validateConcurrently("user-a", "user-b");
+
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS).getUserId()).isEqualTo("user-a");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS).getUserId()).isEqualTo("user-b");
+        assertThat(authService.batches).extracting(ValidateAuthBatchRequest::getBatchId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should fail the batches on a failed stream and open a new stream for the next batch")
+    void shouldReopenFailedStream() {
+        authService.modes.add(StreamMode.FAIL);
+        coalescer(1, 0, 5_000, 3);
+
+        assertThatThrownBy(() -> coalescer.validate("user-a"))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAVAILABLE));
+
+        assertThat(coalescer.validate("user-b").getUserId()).isEqualTo("user-b");
+        assertThat(authService.streamsOpened).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should expire unanswered batches and reopen the stream after consecutive timeouts")
+    void shouldReopenStreamAfterConsecutiveTimeouts() throws Exception {
+        authService.modes.add(StreamMode.SILENT);
+        coalescer(1, 0, 200, 2);
+
+        for (String token : List.of("user-a", "user-b")) {
+            assertThatThrownBy(() -> coalescer.validate(token))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        }
+        assertThat(authService.streamsCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(coalescer.validate("user-c").getUserId()).isEqualTo("user-c");
+        assertThat(authService.streamsOpened).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should close the stream on shutdown once the dispatcher has stopped")
+    void shouldCloseStreamOnShutdown() throws Exception {
+        coalescer(1, 0, 5_000, 3);
+        coalescer.validate("user-a");
+
+        coalescer.shutdown();
+        coalescer = null;
+
+        assertThat(authService.streamsCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static class FakeAuthService extends AuthServiceGrpc.AuthServiceImplBase {
+
+        final Queue<StreamMode> modes = new ConcurrentLinkedQueue<>();
+        final List<ValidateAuthBatchRequest> batches = new CopyOnWriteArrayList<>();
+        final AtomicInteger streamsOpened = new AtomicInteger();
+        final CountDownLatch streamsCancelled = new CountDownLatch(1);
+        final CountDownLatch streamsCompleted = new CountDownLatch(1);
+
+        @Override
+        public StreamObserver<ValidateAuthBatchRequest> validateAuthStream(StreamObserver<ValidateAuthBatchResponse> responses) {
+            streamsOpened.incrementAndGet();
+            StreamMode mode = modes.isEmpty() ? StreamMode.ANSWER : modes.poll();
+            List<ValidateAuthBatchRequest> held = new ArrayList<>();
+
+            return new StreamObserver<>() {
+                @Override
+                public synchronized void onNext(ValidateAuthBatchRequest request) {
+                    batches.add(request);
+                    switch (mode) {
+                        case ANSWER -> responses.onNext(answer(request));
+                        case FAIL -> responses.onError(Status.UNAVAILABLE.withDescription("auth-service restarting").asRuntimeException());
+                        case SILENT -> {
+                        }
+                        case ANSWER_IN_REVERSE_PAIRS -> {
+                            held.add(request);
+                            if (held.size() == 2) {
+                                responses.onNext(answer(held.get(1)));
+                                responses.onNext(answer(held.get(0)));
+                                held.clear();
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    streamsCancelled.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    streamsCompleted.countDown();
+                    responses.onCompleted();
+                }
+            };
+        }
+
+        private static ValidateAuthBatchResponse answer(ValidateAuthBatchRequest request) {
+            ValidateAuthBatchResponse.Builder response = ValidateAuthBatchResponse.newBuilder().setBatchId(request.getBatchId());
+            for (String token : request.getTokensList()) {
+                response.addResults(ValidateAuthResponse.newBuilder().setValid(true).setUserId(token).setUsername(token));
+            }
+            return response.build();
+        }
+    }
+}